@@ -0,0 +1,13 @@
+package com.example.jwtreactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class JwtReactiveApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(JwtReactiveApplication.class, args);
+    }
+
+}
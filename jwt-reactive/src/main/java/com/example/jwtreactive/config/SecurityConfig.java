@@ -0,0 +1,127 @@
+package com.example.jwtreactive.config;
+
+import com.example.jwtreactive.jwt.CustomLogoutFilter;
+import com.example.jwtreactive.jwt.JWTUtil;
+import com.example.jwtreactive.jwt.JWTWebFilter;
+import com.example.jwtreactive.jwt.LoginSuccessHandler;
+import com.example.jwtreactive.repository.RefreshRepository;
+import com.example.jwtreactive.service.CustomUserDetailsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.authentication.ServerFormLoginAuthenticationConverter;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+
+import java.util.Collections;
+
+/**
+ * jwt 모듈 SecurityConfig 의 WebFlux 버전
+ *
+ * 요청마다 스레드를 붙잡지 않도록 모든 단계가 논블로킹이다.
+ *  - 로그인 : AuthenticationWebFilter (POST /login, form username / password) + ReactiveUserDetailsService(R2DBC)
+ *             BCrypt 검증은 UserDetailsRepositoryReactiveAuthenticationManager 가 boundedElastic 에서 실행
+ *  - JWT 검증 : JWTWebFilter (인증 정보는 Reactor Context)
+ *  - 로그아웃 : CustomLogoutFilter (POST /logout)
+ *  - 세션 없음 : NoOpServerSecurityContextRepository
+ */
+@Configuration
+@EnableWebFluxSecurity
+@RequiredArgsConstructor
+public class SecurityConfig {
+    private final JWTUtil jwtUtil;
+    private final RefreshRepository refreshRepository;
+    private final CustomUserDetailsService userDetailsService;
+
+    /**
+     * jwt 모듈이 저장한 해시({bcrypt} 접두사, 접두사 없는 이전 BCrypt 해시)를 그대로 검증
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        DelegatingPasswordEncoder passwordEncoder = (DelegatingPasswordEncoder) PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        passwordEncoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return passwordEncoder;
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, PasswordEncoder passwordEncoder) {
+        // cors 설정
+        http
+                .cors((cors) -> cors
+                        .configurationSource((exchange) -> {
+                            CorsConfiguration configuration = new CorsConfiguration();
+                            configuration.setAllowedOrigins(Collections.singletonList("http://localhost:3000"));
+                            configuration.setAllowedMethods(Collections.singletonList("*"));
+                            configuration.setAllowCredentials(true);
+                            configuration.setAllowedHeaders(Collections.singletonList("*"));
+                            configuration.setMaxAge(3600L);
+
+                            configuration.setExposedHeaders(Collections.singletonList("Authorization"));
+
+                            return configuration;
+                        }));
+
+        // csrf, formLogin, httpBasic, 기본 logout disable
+        http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .logout(ServerHttpSecurity.LogoutSpec::disable)
+                .anonymous(Customizer.withDefaults());
+
+        // 세션 사용 안함 (STATELESS)
+        http
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance());
+
+        // 경로별 인가 작업
+        http
+                .authorizeExchange((auth) -> auth
+                        .pathMatchers("/", "/login", "/join", "/reissue").permitAll()
+                        .pathMatchers("/admin").hasRole("ADMIN")
+                        .anyExchange().authenticated());
+
+        // 인증 실패 / 권한 없음 : servlet 버전과 같이 403
+        http
+                .exceptionHandling((exception) -> exception
+                        .authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.FORBIDDEN)));
+
+        // 로그인 (성공 시 토큰 발급, 실패 시 401)
+        UserDetailsRepositoryReactiveAuthenticationManager authenticationManager = new UserDetailsRepositoryReactiveAuthenticationManager(userDetailsService);
+        authenticationManager.setPasswordEncoder(passwordEncoder);
+        authenticationManager.setUserDetailsPasswordService(userDetailsService);
+
+        AuthenticationWebFilter loginFilter = new AuthenticationWebFilter(authenticationManager);
+        loginFilter.setRequiresAuthenticationMatcher(ServerWebExchangeMatchers.pathMatchers(HttpMethod.POST, "/login"));
+        loginFilter.setServerAuthenticationConverter(new ServerFormLoginAuthenticationConverter());
+        loginFilter.setAuthenticationSuccessHandler(new LoginSuccessHandler(jwtUtil, refreshRepository));
+        loginFilter.setAuthenticationFailureHandler((exchange, exception) -> {
+            // 로그인 실패 시 401 코드 반환 : Unauthorized code
+            exchange.getExchange().getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+            return exchange.getExchange().getResponse().setComplete();
+        });
+        loginFilter.setSecurityContextRepository(NoOpServerSecurityContextRepository.getInstance());
+
+        http
+                .addFilterAt(loginFilter, SecurityWebFiltersOrder.FORM_LOGIN)
+                .addFilterAt(new JWTWebFilter(jwtUtil), SecurityWebFiltersOrder.AUTHENTICATION)
+                .addFilterAt(new CustomLogoutFilter(jwtUtil, refreshRepository), SecurityWebFiltersOrder.LOGOUT);
+
+        return http.build();
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.jwtreactive.controller;
+
+import com.example.jwtreactive.dto.JoinDto;
+import com.example.jwtreactive.service.JoinService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequiredArgsConstructor
+public class JoinController {
+    private final JoinService joinService;
+
+    @PostMapping("/join")
+    public Mono<String> joinProcess(JoinDto joinDto) {
+        return joinService.join(joinDto)
+                .thenReturn("ok");
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.jwtreactive.controller;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+public class MainController {
+    @GetMapping("/")
+    public Mono<String> mainP() {
+        // JWT 필터가 Reactor Context 에 넣은 인증 정보 확인
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .map((Authentication authentication) -> {
+                    String name = authentication.getName();
+                    String role = authentication.getAuthorities().iterator().next().getAuthority();
+
+                    return "main Controller : " + name + role;
+                });
+    }
+}
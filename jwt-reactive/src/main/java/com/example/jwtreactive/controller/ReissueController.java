@@ -0,0 +1,20 @@
+package com.example.jwtreactive.controller;
+
+import com.example.jwtreactive.service.ReissueService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequiredArgsConstructor
+public class ReissueController {
+    private final ReissueService reissueService;
+
+    @PostMapping("/reissue")
+    public Mono<ResponseEntity<String>> reissue(ServerWebExchange exchange) {
+        return reissueService.reissueToken(exchange.getRequest(), exchange.getResponse());
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.jwtreactive.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class JoinDto {
+    private String username;
+    private String password;
+}
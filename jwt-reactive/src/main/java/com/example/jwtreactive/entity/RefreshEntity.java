@@ -0,0 +1,25 @@
+package com.example.jwtreactive.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * 발급된 refresh 토큰 (jwt 모듈과 같은 RefreshEntity 테이블, 스키마 : jwt/src/main/java/com/example/jwt/sql/RefreshEntity.sql)
+ * 토큰 원문 대신 SHA-256 hex (TokenDigest.sha256Hex) 를 저장
+ */
+@Getter
+@Setter
+@Table("RefreshEntity")
+public class RefreshEntity {
+    @Id
+    private Long id;
+    @Column("username")
+    private String username;
+    @Column("tokenHash")
+    private String tokenHash;
+    @Column("expiresAt")
+    private Long expiresAt;
+}
@@ -0,0 +1,27 @@
+package com.example.jwtreactive.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * jwt 모듈과 같은 UserEntity 테이블 (R2DBC 는 기본이 snake_case 이므로 컬럼 이름을 직접 지정)
+ */
+@Getter
+@Setter
+@Table("UserEntity")
+public class UserEntity {
+    @Id
+    private Long id;
+    @Column("username")
+    private String username;
+    @Column("password")
+    private String password;
+    @Column("role")
+    private String role;
+
+    public UserEntity() {
+    }
+}
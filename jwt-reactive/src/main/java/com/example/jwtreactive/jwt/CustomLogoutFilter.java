@@ -0,0 +1,72 @@
+package com.example.jwtreactive.jwt;
+
+import com.example.jwtreactive.repository.RefreshRepository;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * POST /logout : refresh 토큰 삭제 + 쿠키 제거 (jwt 모듈 CustomLogoutFilter 와 같은 응답)
+ */
+@RequiredArgsConstructor
+public class CustomLogoutFilter implements WebFilter {
+    private final JWTUtil jwtUtil;
+    private final RefreshRepository refreshRepository;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        ServerHttpResponse response = exchange.getResponse();
+
+        // path and method verify
+        if (!request.getPath().value().equals("/logout") || request.getMethod() != HttpMethod.POST) {
+            return chain.filter(exchange);
+        }
+
+        // get refresh token
+        HttpCookie refresh = request.getCookies().getFirst("refresh");
+        if (refresh == null) {
+            return status(response, HttpStatus.BAD_REQUEST);
+        }
+
+        // expired check, 토큰이 refresh 인지 확인
+        JWTClaims claims;
+        try {
+            claims = jwtUtil.parse(refresh.getValue());
+        } catch (JwtException e) {
+            return status(response, HttpStatus.BAD_REQUEST);
+        }
+        if (!claims.isCategory("refresh")) {
+            return status(response, HttpStatus.BAD_REQUEST);
+        }
+
+        // 로그아웃 진행 : 조회 없이 바로 삭제, 삭제된 행이 없으면 저장되지 않은 토큰
+        return refreshRepository.deleteByTokenHash(TokenDigest.sha256Hex(refresh.getValue()))
+                .flatMap((deleted) -> {
+                    if (deleted == 0) {
+                        return status(response, HttpStatus.BAD_REQUEST);
+                    }
+
+                    // Refresh 토큰 Cookie 삭제 (max age 0)
+                    response.addCookie(ResponseCookie.from("refresh", "")
+                            .maxAge(0)
+                            .path("/")
+                            .build());
+                    return status(response, HttpStatus.OK);
+                });
+    }
+
+    private static Mono<Void> status(ServerHttpResponse response, HttpStatus status) {
+        response.setStatusCode(status);
+        return response.setComplete();
+    }
+}
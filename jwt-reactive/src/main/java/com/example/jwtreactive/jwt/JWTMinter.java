@@ -0,0 +1,259 @@
+package com.example.jwtreactive.jwt;
+
+import io.jsonwebtoken.security.WeakKeyException;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+/**
+ * 고정된 클레임 스키마(category, username, role, jti, gen, iat, exp) 전용 JWT 발급기
+ *
+ * Jwts.builder() 는 요청마다 클레임 Map 을 만들고 Jackson 으로 직렬화하고, 헤더를 다시 인코딩하고, Mac 을 새로 만든다.
+ * 우리 토큰은 스키마가 고정되어 있으므로
+ *  1. 헤더("{"alg":"HS256"}.") 는 생성 시점에 미리 BASE64 인코딩해두고
+ *  2. 페이로드 JSON 은 스레드별로 재사용하는 버퍼에 직접 쓰고
+ *  3. Mac 도 스레드별로 재사용한다.
+ *
+ * 결과는 Jwts.builder().claim(category, username, role).id().claim(gen).issuedAt().expiration().signWith(key) 와 바이트 단위로 같다.
+ * (null 인 문자열 클레임은 builder 와 같이 생략)
+ * (알고리즘도 signWith(key) 와 동일한 규칙으로 HS256/384/512 선택)
+ */
+final class JWTMinter {
+    private static final byte[] BASE64_URL = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_"
+            .getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    private final SecretKey secretKey;
+    private final String macAlgorithm;
+    private final byte[] encodedHeader;
+    private final ThreadLocal<Mac> macs;
+    private final ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(Buffers::new);
+
+    JWTMinter(SecretKey secretKey) {
+        // signWith(key) 와 같은 규칙 : 키의 JCA 알고리즘 이름(HmacSHA256 ...)을 우선, 없으면 키 길이로 결정
+        int bits = secretKey.getEncoded().length * 8;
+        String alg = switch (secretKey.getAlgorithm()) {
+            case "HmacSHA256" -> "HS256";
+            case "HmacSHA384" -> "HS384";
+            case "HmacSHA512" -> "HS512";
+            default -> bits >= 512 ? "HS512" : bits >= 384 ? "HS384" : "HS256";
+        };
+        int minBits = Integer.parseInt(alg.substring(2));
+        if (bits < minBits) {
+            throw new WeakKeyException(alg + " 서명 키는 " + minBits + " bit 이상이어야 합니다. (현재 " + bits + " bit)");
+        }
+
+        this.secretKey = secretKey;
+        this.macAlgorithm = "HmacSHA" + alg.substring(2);
+
+        byte[] header = ("{\"alg\":\"" + alg + "\"}").getBytes(StandardCharsets.US_ASCII);
+        byte[] base64Header = Base64.getUrlEncoder().withoutPadding().encode(header);
+        this.encodedHeader = new byte[base64Header.length + 1];
+        System.arraycopy(base64Header, 0, encodedHeader, 0, base64Header.length);
+        encodedHeader[base64Header.length] = '.';
+
+        this.macs = ThreadLocal.withInitial(this::newMac);
+        // 키가 잘못된 경우 첫 발급이 아니라 생성 시점에 실패하도록
+        newMac();
+    }
+
+    String mint(String id, String category, String username, String role, int generation,
+                long issuedAtMs, long expirationMs) {
+        Buffers buf = buffers.get();
+
+        // payload JSON
+        ByteSink json = buf.json.reset();
+        json.write('{');
+        writeClaim(json, "category", category);
+        writeClaim(json, "username", username);
+        writeClaim(json, "role", role);
+        writeClaim(json, "jti", clean(id));
+        writeName(json, "gen");
+        json.writeLong(generation);
+        json.writeAscii(",\"iat\":");
+        json.writeLong(issuedAtMs / 1000);
+        json.writeAscii(",\"exp\":");
+        json.writeLong(expirationMs / 1000);
+        json.write('}');
+
+        // header.payload
+        ByteSink token = buf.token.reset();
+        token.write(encodedHeader, 0, encodedHeader.length);
+        writeBase64Url(token, json.bytes, json.length);
+
+        // signature
+        Mac mac = macs.get();
+        mac.update(token.bytes, 0, token.length);
+        byte[] signature = buf.signature;
+        try {
+            mac.doFinal(signature, 0);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+        token.write('.');
+        writeBase64Url(token, signature, mac.getMacLength());
+
+        return new String(token.bytes, 0, token.length, StandardCharsets.ISO_8859_1);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(macAlgorithm);
+            mac.init(secretKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * null 이면 Jwts.builder().claim(name, null) 과 같이 클레임을 생략
+     */
+    private static void writeClaim(ByteSink out, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        writeName(out, name);
+        writeJsonString(out, value);
+    }
+
+    /**
+     * Jwts.builder().id() 는 공백뿐인 값이면 jti 를 생략 (다른 문자열 클레임은 빈 문자열도 그대로)
+     */
+    private static String clean(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private static void writeName(ByteSink out, String name) {
+        // '{' 뒤 첫 클레임이 아니면 구분자
+        if (out.length > 1) {
+            out.write(',');
+        }
+        out.write('"');
+        out.writeAscii(name);
+        out.writeAscii("\":");
+    }
+
+    /**
+     * Jackson 과 같은 규칙으로 이스케이프 (", \, 제어 문자, surrogate), 그 외 문자는 UTF-8 그대로
+     */
+    private static void writeJsonString(ByteSink out, String value) {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.write('\\');
+                out.write(c);
+            } else if (c < 0x20) {
+                switch (c) {
+                    case '\b' -> out.writeAscii("\\b");
+                    case '\t' -> out.writeAscii("\\t");
+                    case '\n' -> out.writeAscii("\\n");
+                    case '\f' -> out.writeAscii("\\f");
+                    case '\r' -> out.writeAscii("\\r");
+                    default -> {
+                        out.writeAscii("\\u00");
+                        out.write(HEX[c >> 4]);
+                        out.write(HEX[c & 0xF]);
+                    }
+                }
+            } else if (c < 0x80) {
+                out.write(c);
+            } else if (c < 0x800) {
+                out.write(0xC0 | (c >> 6));
+                out.write(0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // BMP 밖의 문자(이모지 등)는 Jackson 과 같이 surrogate 를 각각 \\uXXXX 로 이스케이프
+                out.writeAscii("\\u");
+                out.write(HEX[c >> 12]);
+                out.write(HEX[(c >> 8) & 0xF]);
+                out.write(HEX[(c >> 4) & 0xF]);
+                out.write(HEX[c & 0xF]);
+            } else {
+                out.write(0xE0 | (c >> 12));
+                out.write(0x80 | ((c >> 6) & 0x3F));
+                out.write(0x80 | (c & 0x3F));
+            }
+        }
+        out.write('"');
+    }
+
+    private static void writeBase64Url(ByteSink out, byte[] src, int length) {
+        out.ensureCapacity((length + 2) / 3 * 4);
+        int i = 0;
+        for (; i + 2 < length; i += 3) {
+            int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8 | (src[i + 2] & 0xFF);
+            out.write(BASE64_URL[bits >>> 18]);
+            out.write(BASE64_URL[(bits >>> 12) & 0x3F]);
+            out.write(BASE64_URL[(bits >>> 6) & 0x3F]);
+            out.write(BASE64_URL[bits & 0x3F]);
+        }
+        int remaining = length - i;
+        if (remaining == 1) {
+            int bits = (src[i] & 0xFF) << 16;
+            out.write(BASE64_URL[bits >>> 18]);
+            out.write(BASE64_URL[(bits >>> 12) & 0x3F]);
+        } else if (remaining == 2) {
+            int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8;
+            out.write(BASE64_URL[bits >>> 18]);
+            out.write(BASE64_URL[(bits >>> 12) & 0x3F]);
+            out.write(BASE64_URL[(bits >>> 6) & 0x3F]);
+        }
+    }
+
+    private static final class Buffers {
+        final ByteSink json = new ByteSink(256);
+        final ByteSink token = new ByteSink(512);
+        final byte[] signature = new byte[64];
+    }
+
+    /**
+     * 재사용 가능한 바이트 버퍼 (필요할 때만 늘어남)
+     */
+    private static final class ByteSink {
+        byte[] bytes;
+        int length;
+
+        ByteSink(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        ByteSink reset() {
+            length = 0;
+            return this;
+        }
+
+        void ensureCapacity(int additional) {
+            if (length + additional > bytes.length) {
+                byte[] grown = new byte[Math.max(bytes.length * 2, length + additional)];
+                System.arraycopy(bytes, 0, grown, 0, length);
+                bytes = grown;
+            }
+        }
+
+        void write(int b) {
+            ensureCapacity(1);
+            bytes[length++] = (byte) b;
+        }
+
+        void write(byte[] src, int offset, int len) {
+            ensureCapacity(len);
+            System.arraycopy(src, offset, bytes, length, len);
+            length += len;
+        }
+
+        void writeAscii(String s) {
+            ensureCapacity(s.length());
+            for (int i = 0; i < s.length(); i++) {
+                bytes[length++] = (byte) s.charAt(i);
+            }
+        }
+
+        void writeLong(long value) {
+            writeAscii(Long.toString(value));
+        }
+    }
+}
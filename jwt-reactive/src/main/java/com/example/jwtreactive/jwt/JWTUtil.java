@@ -0,0 +1,78 @@
+package com.example.jwtreactive.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * jwt 모듈의 JWTUtil 과 같은 토큰 형식 (HS256, category / username / role / jti / gen / iat / exp)
+ *
+ * 같은 spring.jwt.secret 을 쓰면 두 서버가 발급한 토큰을 서로 그대로 검증할 수 있다.
+ * 서명 / 검증은 CPU 작업만 하고 블로킹이 없으므로 이벤트 루프 스레드에서 바로 실행한다.
+ *
+ * gen(사용자 토큰 세대)은 jwt 모듈과 공유하는 UserGeneration 테이블의 현재 값으로 발급하고,
+ * 그보다 작은 gen 의 토큰은 isStaleGeneration 으로 거절한다. (UserGenerations, jti 폐기 목록은 jwt 노드 메모리에만 있음)
+ */
+@Component
+public class JWTUtil {
+    private static final Base64.Encoder TOKEN_ID_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final JwtParser jwtParser;
+    private final JWTMinter jwtMinter;
+    private final UserGenerations userGenerations;
+
+    public JWTUtil(@Value("${spring.jwt.secret}") String secret, UserGenerations userGenerations) {
+        SecretKey secretKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), Jwts.SIG.HS256.key().build().getAlgorithm());
+        this.jwtParser = Jwts.parser().verifyWith(secretKey).build();
+        this.jwtMinter = new JWTMinter(secretKey);
+        this.userGenerations = userGenerations;
+    }
+
+    /**
+     * 만료된 토큰이면 ExpiredJwtException, 서명이 잘못된 토큰이면 JwtException
+     */
+    public JWTClaims parse(String token) {
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+
+        return new JWTClaims(
+                claims.getId(),
+                claims.get("category", String.class),
+                claims.get("username", String.class),
+                claims.get("role", String.class),
+                claims.get("gen", Integer.class) != null ? claims.get("gen", Integer.class) : 0,
+                claims.getIssuedAt().getTime(),
+                claims.getExpiration().getTime());
+    }
+
+    /**
+     * 사용자가 모든 기기에서 로그아웃한 뒤(세대 증가) 이전 세대로 발급된 토큰인지
+     */
+    public boolean isStaleGeneration(JWTClaims claims) {
+        return claims.getGeneration() < userGenerations.current(claims.getUsername());
+    }
+
+    public String createJwt(String category, String username, String role, Long expiredMs) {
+        long now = System.currentTimeMillis();
+        return jwtMinter.mint(newTokenId(), category, username, role, userGenerations.current(username), now, now + expiredMs);
+    }
+
+    private static String newTokenId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        byte[] id = new byte[16];
+        long high = random.nextLong();
+        long low = random.nextLong();
+        for (int i = 0; i < 8; i++) {
+            id[i] = (byte) (high >>> (56 - i * 8));
+            id[i + 8] = (byte) (low >>> (56 - i * 8));
+        }
+        return TOKEN_ID_ENCODER.encodeToString(id);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.jwtreactive.jwt;
+
+import com.example.jwtreactive.dto.CustomUserDetails;
+import com.example.jwtreactive.entity.UserEntity;
+import io.jsonwebtoken.ExpiredJwtException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * access 헤더의 JWT 검증 (jwt 모듈 JWTFilter 와 같은 응답)
+ *
+ * 검증은 CPU 작업뿐이라 이벤트 루프에서 바로 처리하고,
+ * 인증 정보는 SecurityContextHolder(ThreadLocal) 대신 Reactor Context 에 담아 다음 필터로 넘긴다.
+ */
+@RequiredArgsConstructor
+public class JWTWebFilter implements WebFilter {
+    private final JWTUtil jwtUtil;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String accessToken = exchange.getRequest().getHeaders().getFirst("access");
+
+        // 토큰이 없으면 다음 필터로 넘김
+        if (accessToken == null) {
+            return chain.filter(exchange);
+        }
+
+        // 토큰 만료 여부 확인, 만료 시 다음 필터로 넘기지 않음
+        JWTClaims claims;
+        try {
+            claims = jwtUtil.parse(accessToken);
+        } catch (ExpiredJwtException e) {
+            return unauthorized(exchange.getResponse(), "access token is expired");
+        }
+
+        // 토큰이 access 인지 확인 (발급 시 페이로드에 명시)
+        if (!claims.isCategory("access")) {
+            return unauthorized(exchange.getResponse(), "invalid access token");
+        }
+
+        // 모든 기기에서 로그아웃한 사용자의 이전 세대 토큰 (jwt 서버와 같은 응답)
+        if (jwtUtil.isStaleGeneration(claims)) {
+            return unauthorized(exchange.getResponse(), "access token is revoked");
+        }
+
+        UserEntity user = new UserEntity();
+        user.setUsername(claims.getUsername());
+        user.setRole(claims.getRole());
+        CustomUserDetails customUserDetails = new CustomUserDetails(user);
+
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(customUserDetails, null, customUserDetails.getAuthorities());
+        return chain.filter(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authToken));
+    }
+
+    static Mono<Void> unauthorized(ServerHttpResponse response, String message) {
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        DataBuffer body = response.bufferFactory().wrap(message.getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(body));
+    }
+}
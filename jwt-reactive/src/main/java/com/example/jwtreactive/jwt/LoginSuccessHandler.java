@@ -0,0 +1,55 @@
+package com.example.jwtreactive.jwt;
+
+import com.example.jwtreactive.entity.RefreshEntity;
+import com.example.jwtreactive.repository.RefreshRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.server.WebFilterExchange;
+import org.springframework.security.web.server.authentication.ServerAuthenticationSuccessHandler;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * 로그인 성공 시 access(헤더) / refresh(쿠키) 발급 (jwt 모듈 LoginFilter.successfulAuthentication 과 같은 응답)
+ * 여기서 응답을 끝내므로 필터 체인을 더 진행하지 않는다.
+ */
+@RequiredArgsConstructor
+public class LoginSuccessHandler implements ServerAuthenticationSuccessHandler {
+    private final JWTUtil jwtUtil;
+    private final RefreshRepository refreshRepository;
+
+    @Override
+    public Mono<Void> onAuthenticationSuccess(WebFilterExchange webFilterExchange, Authentication authentication) {
+        // 유저 정보
+        String username = authentication.getName();
+        String role = authentication.getAuthorities().iterator().next().getAuthority();
+
+        Long refreshExpiredMs = 60 * 60 * 24 * 1000L;
+
+        // 토큰 생성
+        String accessToken = jwtUtil.createJwt("access", username, role, 10*60*1000L);
+        String refreshToken = jwtUtil.createJwt("refresh", username, role, refreshExpiredMs);
+
+        // Refresh 토큰 저장
+        RefreshEntity refreshEntity = new RefreshEntity();
+        refreshEntity.setUsername(username);
+        refreshEntity.setTokenHash(TokenDigest.sha256Hex(refreshToken));
+        refreshEntity.setExpiresAt(System.currentTimeMillis() + refreshExpiredMs);
+
+        return refreshRepository.save(refreshEntity)
+                .then(Mono.defer(() -> {
+                    ServerHttpResponse response = webFilterExchange.getExchange().getResponse();
+                    response.getHeaders().add("access", accessToken);
+                    response.addCookie(ResponseCookie.from("refresh", refreshToken)
+                            .maxAge(Duration.ofDays(1))
+                            .httpOnly(true)
+                            .build());
+                    response.setStatusCode(HttpStatus.OK);
+                    return response.setComplete();
+                }));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.jwtreactive.jwt;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * jwt 모듈과 공유하는 UserGeneration 테이블의 사용자별 토큰 세대 번호 (읽기 전용)
+ *
+ *  - 발급 : JWTUtil.createJwt 가 현재 세대를 gen 클레임으로 넣음 -> jwt 서버에서도 그대로 통과
+ *  - 검증 : 토큰의 gen 이 현재 세대보다 작으면 거절 (jwt 서버에서 모든 기기 로그아웃한 사용자)
+ *
+ * 요청마다 DB 에 묻지 않도록 1초마다 updatedAt 이 바뀐 행만 읽어 메모리(Map)에 반영한다.
+ * (jwt 서버에서 올린 세대는 최대 1초 + 조회 시간 뒤에 반영, 처음 읽기 전까지는 모두 0)
+ */
+@Slf4j
+@Component
+public class UserGenerations {
+    private static final String SELECT_CHANGED = "select username, generation, updatedAt from UserGeneration where updatedAt >= :since";
+    // 노드 간 시계 차이, 커밋 지연을 고려해서 이전 조회 시점보다 조금 앞부터 다시 읽음 (jwt 모듈과 같은 값)
+    private static final long OVERLAP_MS = 5_000L;
+    private static final Duration POLL_INTERVAL = Duration.ofSeconds(1);
+
+    private final DatabaseClient databaseClient;
+    private final Map<String, Integer> generations = new ConcurrentHashMap<>();
+    private volatile long lastUpdatedAt = Long.MIN_VALUE;
+    private Disposable polling;
+
+    public UserGenerations(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    @PostConstruct
+    void start() {
+        // 조회 실패는 로그만 남기고 다음 주기에 다시 읽음
+        polling = Flux.interval(Duration.ZERO, POLL_INTERVAL)
+                .onBackpressureDrop()
+                .concatMap((tick) -> refresh()
+                        .onErrorResume((e) -> {
+                            log.warn("failed to load user generations", e);
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (polling != null) {
+            polling.dispose();
+        }
+    }
+
+    /**
+     * 한 번도 올리지 않은 사용자는 0
+     */
+    public int current(String username) {
+        return generations.getOrDefault(username, 0);
+    }
+
+    /**
+     * 바뀐 행만 읽어서 반영 (처음 한 번은 전체)
+     * @return 읽은 행 수
+     */
+    public Mono<Integer> refresh() {
+        long since = lastUpdatedAt == Long.MIN_VALUE ? Long.MIN_VALUE : lastUpdatedAt - OVERLAP_MS;
+        long[] newest = {lastUpdatedAt};
+
+        return databaseClient.sql(SELECT_CHANGED)
+                .bind("since", since)
+                .map((row, metadata) -> {
+                    String username = row.get("username", String.class);
+                    int generation = row.get("generation", Integer.class);
+                    // 세대는 올라가기만 하므로 늦게 도착한 이전 값으로 덮어쓰지 않음
+                    generations.merge(username, generation, Math::max);
+                    newest[0] = Math.max(newest[0], row.get("updatedAt", Long.class));
+                    return generation;
+                })
+                .all()
+                .count()
+                .map((rows) -> {
+                    if (lastUpdatedAt == Long.MIN_VALUE) {
+                        log.info("loaded {} user generations", rows);
+                    }
+                    lastUpdatedAt = Math.max(newest[0], 0L);
+                    return rows.intValue();
+                });
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.jwtreactive.repository;
+
+import com.example.jwtreactive.entity.RefreshEntity;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Mono;
+
+/**
+ * refresh 토큰은 tokenHash(unique 인덱스)로 조회한다.
+ */
+public interface RefreshRepository extends ReactiveCrudRepository<RefreshEntity, Long> {
+    Mono<Boolean> existsByTokenHash(String tokenHash);
+
+    /**
+     * 이전 토큰 행이 남아 있을 때만 새 토큰으로 교체 (조건부 update 한 문장, 0 이면 이미 사용된 토큰)
+     */
+    @Modifying
+    @Query("update RefreshEntity set tokenHash = :newHash, expiresAt = :expiresAt where tokenHash = :oldHash")
+    Mono<Integer> rotate(String oldHash, String newHash, long expiresAt);
+
+    /**
+     * 조회 없이 바로 delete (삭제된 행 수로 존재 여부 판단)
+     */
+    @Modifying
+    @Query("delete from RefreshEntity where tokenHash = :tokenHash")
+    Mono<Integer> deleteByTokenHash(String tokenHash);
+}
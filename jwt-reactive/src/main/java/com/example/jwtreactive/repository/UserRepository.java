@@ -0,0 +1,18 @@
+package com.example.jwtreactive.repository;
+
+import com.example.jwtreactive.entity.UserEntity;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Mono;
+
+public interface UserRepository extends ReactiveCrudRepository<UserEntity, Long> {
+    Mono<Boolean> existsByUsername(String username);
+
+    Mono<UserEntity> findByUsername(String username);
+
+    // 로그인 시 해시 재저장 (접두사 없는 이전 해시 -> {bcrypt})
+    @Modifying
+    @Query("update UserEntity set password = :password where username = :username")
+    Mono<Integer> updatePassword(String username, String password);
+}
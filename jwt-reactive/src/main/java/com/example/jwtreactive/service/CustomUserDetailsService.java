@@ -0,0 +1,31 @@
+package com.example.jwtreactive.service;
+
+import com.example.jwtreactive.dto.CustomUserDetails;
+import com.example.jwtreactive.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+@RequiredArgsConstructor
+public class CustomUserDetailsService implements ReactiveUserDetailsService, ReactiveUserDetailsPasswordService {
+    private final UserRepository userRepository;
+
+    // 없는 사용자면 empty -> UserDetailsRepositoryReactiveAuthenticationManager 가 BadCredentials 처리
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        return userRepository.findByUsername(username)
+                .map(CustomUserDetails::new);
+    }
+
+    // 로그인 성공 후 저장된 해시가 현재 형식과 다르면 호출
+    @Override
+    public Mono<UserDetails> updatePassword(UserDetails user, String newPassword) {
+        return userRepository.updatePassword(user.getUsername(), newPassword)
+                .then(findByUsername(user.getUsername()))
+                .defaultIfEmpty(user);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.jwtreactive.service;
+
+import com.example.jwtreactive.dto.JoinDto;
+import com.example.jwtreactive.entity.UserEntity;
+import com.example.jwtreactive.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@Service
+@RequiredArgsConstructor
+public class JoinService {
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+
+    public Mono<Void> join(JoinDto joinDto) {
+        String username = joinDto.getUsername();
+        String password = joinDto.getPassword();
+
+        return userRepository.existsByUsername(username)
+                .filter((exists) -> !exists)
+                // BCrypt 는 CPU 를 오래 쓰므로 이벤트 루프가 아닌 boundedElastic 에서
+                .flatMap((notExists) -> Mono.fromCallable(() -> passwordEncoder.encode(password))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .flatMap((hash) -> {
+                    UserEntity data = new UserEntity();
+
+                    data.setUsername(username);
+                    data.setPassword(hash);
+                    data.setRole("ROLE_USER");
+
+                    return userRepository.save(data);
+                })
+                // 확인 후 저장 사이에 같은 username 이 먼저 가입됨 (unique 제약이 최종 판단)
+                .onErrorResume(DataIntegrityViolationException.class, (e) -> Mono.empty())
+                .then();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.jwtreactive.service;
+
+import com.example.jwtreactive.jwt.JWTClaims;
+import com.example.jwtreactive.jwt.JWTUtil;
+import com.example.jwtreactive.jwt.TokenDigest;
+import com.example.jwtreactive.repository.RefreshRepository;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * refresh 토큰으로 access / refresh 재발급 (jwt 모듈 ReissueService 와 같은 응답 형식)
+ */
+@Service
+@RequiredArgsConstructor
+public class ReissueService {
+    private final JWTUtil jwtUtil;
+    private final RefreshRepository refreshRepository;
+
+    public Mono<ResponseEntity<String>> reissueToken(ServerHttpRequest request, ServerHttpResponse response) {
+        // get refresh token
+        HttpCookie refresh = request.getCookies().getFirst("refresh");
+
+        if (refresh == null) {
+            // response status code
+            return Mono.just(new ResponseEntity<>("refresh token null", HttpStatus.BAD_REQUEST));
+        }
+
+        // expired check
+        JWTClaims claims;
+        try {
+            claims = jwtUtil.parse(refresh.getValue());
+        } catch (ExpiredJwtException e) {
+            // response status code
+            return Mono.just(new ResponseEntity<>("access token expired", HttpStatus.BAD_REQUEST));
+        } catch (JwtException e) {
+            return Mono.just(new ResponseEntity<>("invalid refresh token", HttpStatus.BAD_REQUEST));
+        }
+
+        // 토큰이 refresh 인지 확인 (발급 시 페이로드에 명시)
+        if (!claims.isCategory("refresh")) {
+            // response status code
+            return Mono.just(new ResponseEntity<>("invalid refresh token", HttpStatus.BAD_REQUEST));
+        }
+
+        // 모든 기기에서 로그아웃하기 전에 발급된 refresh
+        if (jwtUtil.isStaleGeneration(claims)) {
+            return Mono.just(new ResponseEntity<>("invalid refresh token", HttpStatus.BAD_REQUEST));
+        }
+
+        String username = claims.getUsername();
+        String role = claims.getRole();
+
+        // create new JWT
+        String newAccess = jwtUtil.createJwt("access", username, role, 60 * 10 * 1000L);
+        Long expiredMs = 60 * 60 * 24 * 1000L;
+        String newRefresh = jwtUtil.createJwt("refresh", username, role, expiredMs);
+
+        // 저장되어 있는지 확인 + 교체를 조건부 update 한 문장으로 (동시에 같은 쿠키로 요청해도 하나만 성공)
+        return refreshRepository.rotate(TokenDigest.sha256Hex(refresh.getValue()), TokenDigest.sha256Hex(newRefresh),
+                        System.currentTimeMillis() + expiredMs)
+                .map((rotated) -> {
+                    if (rotated == 0) {
+                        return new ResponseEntity<>("invalid refresh token", HttpStatus.BAD_REQUEST);
+                    }
+
+                    // response
+                    response.getHeaders().set("access", newAccess);
+                    response.addCookie(createCookie("refresh", newRefresh));
+
+                    return new ResponseEntity<>(HttpStatus.OK);
+                });
+    }
+
+    private ResponseCookie createCookie(String key, String value) {
+        return ResponseCookie.from(key, value)
+                .maxAge(Duration.ofDays(1))
+                .httpOnly(true)
+                .build();
+    }
+}
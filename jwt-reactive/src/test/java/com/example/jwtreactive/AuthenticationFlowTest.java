@@ -0,0 +1,182 @@
+package com.example.jwtreactive;
+
+import com.example.jwtreactive.jwt.JWTUtil;
+import com.example.jwtreactive.jwt.UserGenerations;
+import com.example.jwtreactive.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseCookie;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.BodyInserters;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///flow;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "spring.sql.init.mode=always",
+        "spring.jwt.secret=" + AuthenticationFlowTest.SECRET
+})
+class AuthenticationFlowTest {
+    static final String SECRET = "test-secret-key-for-jwt-util-must-be-at-least-256-bits";
+
+    @Autowired
+    WebTestClient webTestClient;
+    @Autowired
+    JWTUtil jwtUtil;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    UserGenerations userGenerations;
+    @Autowired
+    DatabaseClient databaseClient;
+
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void loginReissueLogout() throws Exception {
+        join("user1", "password");
+
+        // 로그인 실패 401
+        webTestClient.post().uri("/login")
+                .body(BodyInserters.fromFormData("username", "user1").with("password", "wrong"))
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        // 로그인 : access 헤더 + refresh 쿠키
+        EntityExchangeResult<byte[]> login = webTestClient.post().uri("/login")
+                .body(BodyInserters.fromFormData("username", "user1").with("password", "password"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectCookie().httpOnly("refresh", true)
+                .expectCookie().maxAge("refresh", Duration.ofDays(1))
+                .expectBody().returnResult();
+        String access = login.getResponseHeaders().getFirst("access");
+        ResponseCookie refresh = login.getResponseCookies().getFirst("refresh");
+
+        webTestClient.get().uri("/").header("access", access)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("main Controller : user1ROLE_USER");
+        // 자가 가입은 일반 사용자 권한만 (같은 UserEntity 를 쓰는 jwt 서버의 /admin/** 도 접근 불가)
+        assertThat(userRepository.findByUsername("user1").block().getRole()).isEqualTo("ROLE_USER");
+        webTestClient.get().uri("/admin").header("access", access)
+                .exchange()
+                .expectStatus().isForbidden();
+        webTestClient.get().uri("/admin").header("access", jwtUtil.createJwt("access", "admin", "ROLE_ADMIN", 60_000L))
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.get().uri("/admin")
+                .exchange()
+                .expectStatus().isForbidden();
+        webTestClient.get().uri("/").header("access", refresh.getValue())
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectBody(String.class).isEqualTo("invalid access token");
+
+        // 재발급 : 새 토큰 쌍, 이전 refresh 는 재사용 불가
+        EntityExchangeResult<byte[]> reissue = webTestClient.post().uri("/reissue")
+                .cookie("refresh", refresh.getValue())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().returnResult();
+        String newRefresh = reissue.getResponseCookies().getFirst("refresh").getValue();
+        assertThat(reissue.getResponseHeaders().getFirst("access")).isNotNull();
+        webTestClient.post().uri("/reissue")
+                .cookie("refresh", refresh.getValue())
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        // 로그아웃 : 쿠키 삭제, 두 번째는 400
+        webTestClient.post().uri("/logout")
+                .cookie("refresh", newRefresh)
+                .exchange()
+                .expectStatus().isOk()
+                .expectCookie().maxAge("refresh", Duration.ZERO);
+        webTestClient.post().uri("/logout")
+                .cookie("refresh", newRefresh)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    /**
+     * jwt 서버에서 모든 기기 로그아웃(UserGeneration 세대 증가) -> 이전 세대 토큰 거절, 새 토큰은 현재 세대로 발급
+     */
+    @Test
+    void staleGenerationIsRejected() {
+        join("user2", "password");
+        EntityExchangeResult<byte[]> login = webTestClient.post().uri("/login")
+                .body(BodyInserters.fromFormData("username", "user2").with("password", "password"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().returnResult();
+        String access = login.getResponseHeaders().getFirst("access");
+        String refresh = login.getResponseCookies().getFirst("refresh").getValue();
+        assertThat(jwtUtil.parse(access).getGeneration()).isZero();
+
+        databaseClient.sql("insert into UserGeneration(username, generation, updatedAt) values ('user2', 1, :updatedAt)")
+                .bind("updatedAt", System.currentTimeMillis())
+                .then()
+                .block();
+        userGenerations.refresh().block();
+
+        webTestClient.get().uri("/").header("access", access)
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectBody(String.class).isEqualTo("access token is revoked");
+        webTestClient.post().uri("/reissue")
+                .cookie("refresh", refresh)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class).isEqualTo("invalid refresh token");
+
+        String newAccess = webTestClient.post().uri("/login")
+                .body(BodyInserters.fromFormData("username", "user2").with("password", "password"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().returnResult()
+                .getResponseHeaders().getFirst("access");
+        assertThat(jwtUtil.parse(newAccess).getGeneration()).isEqualTo(1);
+        webTestClient.get().uri("/").header("access", newAccess)
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    /**
+     * jwt 모듈과 같은 페이로드 (클레임 순서 포함)
+     */
+    @Test
+    void tokenFormatMatchesServletVersion() throws Exception {
+        String token = jwtUtil.createJwt("access", "user1", "ROLE_ADMIN", 60_000L);
+        String[] parts = token.split("\\.");
+        JsonNode header = objectMapper.readTree(Base64.getUrlDecoder().decode(parts[0]));
+        JsonNode payload = objectMapper.readTree(Base64.getUrlDecoder().decode(parts[1]));
+
+        assertThat(header.get("alg").asText()).isEqualTo("HS256");
+        List<String> names = new ArrayList<>();
+        payload.fieldNames().forEachRemaining(names::add);
+        assertThat(names).containsExactly("category", "username", "role", "jti", "gen", "iat", "exp");
+        assertThat(jwtUtil.parse(token).getUsername()).isEqualTo("user1");
+    }
+
+    private void join(String username, String password) {
+        webTestClient.post().uri("/join")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .body(BodyInserters.fromFormData("username", username).with("password", password))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("ok");
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.jwtreactive;
+
+import com.example.jwtreactive.jwt.JWTUtil;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 동시 연결 1000개로 인증이 필요한 GET / 호출 (jwt 모듈 ConnectionLoadTest 와 같은 부하)
+ * 처리량, p99, 요청 처리에 사용된 서버 스레드 수 비교용
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///load;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "spring.sql.init.mode=always",
+        "spring.jwt.secret=" + AuthenticationFlowTest.SECRET
+})
+class ConnectionLoadTest {
+    static final int CONNECTIONS = 1000;
+    static final int REQUESTS = 30_000;
+
+    @LocalServerPort
+    int port;
+    @Autowired
+    JWTUtil jwtUtil;
+
+    @Test
+    void manyConcurrentConnections() throws Exception {
+        String access = jwtUtil.createJwt("access", "user1", "ROLE_ADMIN", 600_000L);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/"))
+                .header("access", access)
+                .build();
+
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(4);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .build();
+
+        // 워밍업
+        run(client, request, 100, 5_000);
+
+        AtomicInteger serverThreads = new AtomicInteger();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> serverThreads.accumulateAndGet((int) Thread.getAllStackTraces().keySet().stream()
+                .filter((thread) -> thread.getName().startsWith("reactor-http-"))
+                .count(), Math::max), 0, 20, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        long[] latencies = run(client, request, CONNECTIONS, REQUESTS);
+        long elapsed = System.nanoTime() - start;
+        sampler.shutdownNow();
+        clientExecutor.shutdownNow();
+
+        Arrays.sort(latencies);
+        System.out.printf("reactive: %d connections, %.0f req/s, p99 %d ms, server threads %d%n",
+                CONNECTIONS, REQUESTS * 1_000_000_000.0 / elapsed,
+                latencies[(int) (latencies.length * 0.99)] / 1_000_000, serverThreads.get());
+
+        assertThat(latencies[0]).isPositive();
+    }
+
+    // 최대 concurrency 개의 요청을 동시에 보내고, 모두 200 인지 확인 (요청별 응답 시간 ns)
+    static long[] run(HttpClient client, HttpRequest request, int concurrency, int total) throws InterruptedException {
+        Semaphore permits = new Semaphore(concurrency);
+        CountDownLatch done = new CountDownLatch(total);
+        AtomicInteger failures = new AtomicInteger();
+        long[] latencies = new long[total];
+
+        for (int i = 0; i < total; i++) {
+            permits.acquire();
+            int index = i;
+            long sentAt = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                latencies[index] = System.nanoTime() - sentAt;
+                if (error != null || response.statusCode() != 200) {
+                    failures.incrementAndGet();
+                }
+                permits.release();
+                done.countDown();
+            });
+        }
+        done.await();
+
+        assertThat(failures.get()).isZero();
+        return latencies;
+    }
+}
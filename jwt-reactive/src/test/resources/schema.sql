@@ -0,0 +1,24 @@
+create table if not exists UserEntity(
+  id bigint not null auto_increment,
+  username varchar(255),
+  password varchar(255),
+  role varchar(255),
+  primary key (id),
+  unique (username)
+);
+
+create table if not exists RefreshEntity(
+  id bigint not null auto_increment,
+  username varchar(255) not null,
+  tokenHash char(64) not null,
+  expiresAt bigint not null,
+  primary key (id),
+  unique (tokenHash)
+);
+
+create table if not exists UserGeneration(
+  username varchar(255) not null,
+  generation int not null,
+  updatedAt bigint not null,
+  primary key (username)
+);
@@ -0,0 +1,74 @@
+package com.example.jwt.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 서버 성능에 맞춘 BCrypt cost 결정 + 여러 해시 형식을 함께 검증하는 PasswordEncoder 생성
+ *
+ * cost 는 1 오를 때마다 해시 시간이 2배가 된다.
+ * 시작 시 기준 cost 로 몇 번 해시해서 시간을 재고, 목표 시간(target-latency) 안에 들어오는 가장 큰 cost 를 고른다.
+ *
+ * 저장 형식은 {id}해시 (ex. {bcrypt}$2a$12$...)
+ *  - 접두사 없는 기존 해시($2a$10$...)도 BCrypt 로 검증
+ *  - 로그인 성공 시 현재 cost 보다 낮은 해시는 upgradeEncoding -> UserDetailsPasswordService 로 다시 저장
+ *    높은 cost 의 해시는 그대로 둔다. (노드마다 / 재시작마다 고른 cost 가 달라도 같은 비밀번호를 번갈아 다시 저장하지 않고,
+ *    느린 노드가 강한 해시를 약한 해시로 덮어쓰지 않도록)
+ */
+@Slf4j
+public final class PasswordEncoderCalibrator {
+    private static final String BCRYPT = "bcrypt";
+    private static final int BASE_COST = 6;
+    private static final int SAMPLES = 5;
+
+    private PasswordEncoderCalibrator() {
+    }
+
+    /**
+     * 목표 시간 안에 해시가 끝나는 가장 큰 cost (min ~ max 범위)
+     */
+    public static int calibrate(Duration targetLatency, int minCost, int maxCost) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(BASE_COST);
+        encoder.encode("warm-up");
+
+        // GC, JIT 영향을 줄이기 위해 가장 빠른 값 사용
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration-" + i);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        int cost = BASE_COST;
+        long estimated = best;
+        while (cost < maxCost && estimated * 2 <= targetLatency.toNanos()) {
+            estimated *= 2;
+            cost++;
+        }
+        cost = Math.max(minCost, cost);
+
+        log.info("bcrypt cost {} selected (cost {} = {}us, target {}ms)",
+                cost, BASE_COST, best / 1_000L, targetLatency.toMillis());
+        return cost;
+    }
+
+    /**
+     * 새 비밀번호는 {bcrypt} + 지정 cost 로 저장, 검증은 bcrypt(모든 cost), pbkdf2, 접두사 없는 bcrypt 지원
+     */
+    public static PasswordEncoder create(int cost) {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, new BCryptPasswordEncoder(cost));
+        encoders.put("pbkdf2@SpringSecurity_v5_8", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(BCRYPT, encoders);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return passwordEncoder;
+    }
+}
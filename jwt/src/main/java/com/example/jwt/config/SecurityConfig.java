@@ -1,12 +1,22 @@
 package com.example.jwt.config;
 
+import com.example.jwt.jwt.ConcurrencyLimitFilter;
 import com.example.jwt.jwt.CustomLogoutFilter;
+import com.example.jwt.jwt.EndpointConcurrencyLimits;
 import com.example.jwt.jwt.JWTFilter;
 import com.example.jwt.jwt.JWTUtil;
+import com.example.jwt.jwt.LoginAttemptLimiter;
 import com.example.jwt.jwt.LoginFilter;
-import com.example.jwt.repository.RefreshRepository;
+import com.example.jwt.jwt.LoginRateLimitFilter;
+import com.example.jwt.jwt.PasswordVerificationExecutor;
+import com.example.jwt.jwt.TokenRevocationList;
+import com.example.jwt.jwt.VerifiedTokenCache;
+import com.example.jwt.repository.RefreshTokenStore;
+import com.example.jwt.service.ReissueCoalescer;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -14,13 +24,14 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.authentication.logout.LogoutFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.Collections;
 
 @Configuration
@@ -29,11 +40,27 @@ import java.util.Collections;
 public class SecurityConfig {
     private final AuthenticationConfiguration configuration;
     private final JWTUtil jwtUtil;
-    private final RefreshRepository refreshRepository;
-
+    private final RefreshTokenStore refreshTokenStore;
+    private final PasswordVerificationExecutor verificationExecutor;
+    // spring.jwt.cache.enabled=true 일 때만 존재
+    private final ObjectProvider<VerifiedTokenCache> verifiedTokenCache;
+    // spring.jwt.login-rate-limit.enabled=false 이면 없음
+    private final ObjectProvider<LoginAttemptLimiter> loginAttemptLimiter;
+    // spring.jwt.concurrency-limit.enabled=true 일 때만 존재
+    private final ObjectProvider<EndpointConcurrencyLimits> concurrencyLimits;
+    // spring.jwt.revocation.enabled=false 이면 없음
+    private final ObjectProvider<TokenRevocationList> revocationList;
+    private final ReissueCoalescer reissueCoalescer;
+
+    /**
+     * 시작 시 해시 시간을 재서 BCrypt cost 결정 (spring.jwt.password.*)
+     * 기존 해시(다른 cost, 접두사 없는 해시)도 검증하고, 로그인 성공 시 현재 cost 로 다시 저장
+     */
     @Bean
-    public BCryptPasswordEncoder bCryptPasswordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${spring.jwt.password.target-latency:250ms}") Duration targetLatency,
+                                           @Value("${spring.jwt.password.min-cost:10}") int minCost,
+                                           @Value("${spring.jwt.password.max-cost:16}") int maxCost) {
+        return PasswordEncoderCalibrator.create(PasswordEncoderCalibrator.calibrate(targetLatency, minCost, maxCost));
     }
 
     // AuthenticationManager Bean 등록
@@ -76,20 +103,30 @@ public class SecurityConfig {
         // 경로별 인가 작업
         http
                 .authorizeHttpRequests((auth) -> auth
-                        .requestMatchers("/", "/login", "/join", "/reissue").permitAll()
-                        .requestMatchers("/admin").hasRole("ADMIN")
+                        .requestMatchers("/", "/login", "/join", "/reissue", "/.well-known/jwks.json").permitAll()
+                        .requestMatchers("/admin", "/admin/**").hasRole("ADMIN")
+                        // 내부 게이트웨이 서비스 계정은 ROLE_INTROSPECT
+                        .requestMatchers("/introspect/**").hasAnyRole("ADMIN", "INTROSPECT")
                         .anyRequest().authenticated());
 
         // JWT 필터 등록
         http
-                .addFilterAfter(new JWTFilter(jwtUtil), LoginFilter.class);
+                .addFilterAfter(new JWTFilter(jwtUtil, verifiedTokenCache.getIfAvailable(), revocationList.getIfAvailable()), LoginFilter.class);
 
         // 필터 추가 LoginFilter() 는 인자를 받음 (AuthenticationManager)
         http
-                .addFilterAt(new LoginFilter(authenticationManager(configuration), jwtUtil, refreshRepository), UsernamePasswordAuthenticationFilter.class);
+                .addFilterAt(new LoginFilter(authenticationManager(configuration), jwtUtil, refreshTokenStore, verificationExecutor), UsernamePasswordAuthenticationFilter.class);
+
+        // 로그인 시도 제한은 LoginFilter 보다 먼저 (초과 시 DB 조회, BCrypt 없이 429)
+        loginAttemptLimiter.ifAvailable((limiter) -> http
+                .addFilterBefore(new LoginRateLimitFilter(limiter), UsernamePasswordAuthenticationFilter.class));
+
+        // 시도 제한을 통과한 /login, /reissue 의 동시 처리 개수 제한 (응답 시간에 따라 자동 조절, 초과 시 503)
+        concurrencyLimits.ifAvailable((limits) -> http
+                .addFilterBefore(new ConcurrencyLimitFilter(limits), UsernamePasswordAuthenticationFilter.class));
 
         http
-                .addFilterBefore(new CustomLogoutFilter(jwtUtil, refreshRepository), LogoutFilter.class);
+                .addFilterBefore(new CustomLogoutFilter(jwtUtil, refreshTokenStore, revocationList.getIfAvailable(), reissueCoalescer), LogoutFilter.class);
 
         /**
          * 세션 설정
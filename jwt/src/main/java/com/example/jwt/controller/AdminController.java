@@ -1,12 +1,100 @@
 package com.example.jwt.controller;
 
+import com.example.jwt.jwt.SigningKeyRing;
+import com.example.jwt.service.LogoutAllService;
+import com.example.jwt.service.RefreshSessionService;
+import com.example.jwt.service.UserImportService;
+import com.example.jwt.service.UsernameExistenceFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.util.Map;
+
 @RestController
+@RequiredArgsConstructor
 public class AdminController {
+    private final LogoutAllService logoutAllService;
+    private final RefreshSessionService refreshSessionService;
+    private final UserImportService userImportService;
+    // spring.jwt.username-filter.enabled=false 이면 없음
+    private final ObjectProvider<UsernameExistenceFilter> usernameFilter;
+    // spring.jwt.key-ring.enabled=false 이면 없음
+    private final ObjectProvider<SigningKeyRing> keyRing;
+
     @GetMapping("/admin")
     public String adminP() {
         return "admin Controller";
     }
+
+    // 사용자의 모든 기기에서 로그아웃 (발급된 모든 토큰 무효화)
+    @PostMapping("/admin/users/{username}/logout-all")
+    public Map<String, Object> logoutAll(@PathVariable String username) {
+        return logoutAllService.logoutAll(username);
+    }
+
+    // 사용자의 활성 세션 목록 (만료가 늦은 순, next 를 after 로 넘기면 다음 페이지)
+    @GetMapping("/admin/users/{username}/sessions")
+    public ResponseEntity<Map<String, Object>> sessions(@PathVariable String username,
+                                                        @RequestParam(defaultValue = "50") int limit,
+                                                        @RequestParam(required = false) String after) {
+        // 세션 목록을 지원하지 않는 저장소 (spring.jwt.refresh-store=file)
+        if (!refreshSessionService.isEnabled()) {
+            return new ResponseEntity<>(Map.of("status", "disabled"), HttpStatus.NOT_FOUND);
+        }
+        return ResponseEntity.ok(refreshSessionService.sessions(username, limit, after));
+    }
+
+    // 세션 하나만 로그아웃 (해당 refresh 토큰 삭제, 이미 발급된 access 토큰은 만료까지 유효)
+    @DeleteMapping("/admin/users/{username}/sessions/{id}")
+    public ResponseEntity<Void> revokeSession(@PathVariable String username, @PathVariable long id) {
+        if (!refreshSessionService.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        return refreshSessionService.revoke(username, id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    // 가입 여부 Bloom filter 다시 만들기 (삭제된 사용자 정리, 용량 초과 시)
+    @PostMapping("/admin/username-filter/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildUsernameFilter() {
+        UsernameExistenceFilter filter = usernameFilter.getIfAvailable();
+        if (filter == null) {
+            return new ResponseEntity<>(Map.of("status", "disabled"), HttpStatus.NOT_FOUND);
+        }
+        return ResponseEntity.ok(filter.rebuild());
+    }
+
+    // 서명 키 즉시 교체 : 새 키는 바로 JWKS 에 공개, publish-ahead 뒤(activatesAt)부터 서명 (이전 키는 overlap 동안 검증에 계속 사용)
+    // 키 유출 시 revoke=true : 이전 키 즉시 제거 + 새 키로 바로 서명 -> 소비자 JWKS 캐시가 갱신될 때까지(jwks-max-age) 새 토큰도 거부될 수 있음
+    @PostMapping("/admin/signing-keys/rotate")
+    public ResponseEntity<Map<String, Object>> rotateSigningKey(@RequestParam(defaultValue = "false") boolean revoke) {
+        SigningKeyRing ring = keyRing.getIfAvailable();
+        if (ring == null) {
+            return new ResponseEntity<>(Map.of("status", "disabled"), HttpStatus.NOT_FOUND);
+        }
+        SigningKeyRing.SigningKey key = ring.rotateNow(revoke);
+        return ResponseEntity.ok(Map.of("kid", key.getKid(), "algorithm", key.getAlgorithm(),
+                "activatesAt", key.getActivatesAt(), "keys", ring.keys().size()));
+    }
+
+    // 대량 사용자 등록 (text/csv 또는 application/x-ndjson 본문, 진행 상황은 NDJSON 으로 스트리밍)
+    @PostMapping(value = "/admin/users/import", consumes = {"text/csv", "application/x-ndjson"})
+    public void importUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        userImportService.importUsers(request.getInputStream(),
+                UserImportService.Format.of(request.getContentType()), response.getOutputStream());
+    }
 }
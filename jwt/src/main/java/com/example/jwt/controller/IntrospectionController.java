@@ -0,0 +1,25 @@
+package com.example.jwt.controller;
+
+import com.example.jwt.dto.IntrospectDto;
+import com.example.jwt.service.TokenIntrospectionService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequiredArgsConstructor
+public class IntrospectionController {
+    private final TokenIntrospectionService introspectionService;
+
+    // 내부 게이트웨이용 토큰 일괄 검사 ({"tokens":[...]} 본문, 토큰별 결과는 NDJSON 으로 스트리밍)
+    @PostMapping("/introspect/batch")
+    public void introspect(@RequestBody IntrospectDto introspectDto, HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        introspectionService.introspect(introspectDto.getTokens(), response.getOutputStream());
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.jwt.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class IntrospectDto {
+    // access 또는 refresh 토큰 원문 (종류는 토큰의 category 로 구분)
+    private List<String> tokens;
+}
@@ -1,20 +1,46 @@
 package com.example.jwt.entity;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
 
+/**
+ * 발급된 refresh 토큰
+ *
+ * 토큰 원문 대신 SHA-256 다이제스트(hex 64자, 고정 길이)를 unique 인덱스로 저장해서
+ * 조회/삭제가 전체 스캔이 아닌 인덱스 탐색이 되도록 한다.
+ * 만료 시각은 epoch millis 숫자 컬럼(인덱스) -> 만료된 토큰을 범위 조회로 정리할 수 있음.
+ * (username, expiresAt) 복합 인덱스 -> 사용자별 세션 목록을 만료된 행을 건너뛰고 keyset 으로 조회, 사용자별 삭제도 이 인덱스 사용
+ * issuedAt, device, ipAddress : 세션 목록 표시용 (로그인 시각, User-Agent, 접속 IP, rotate 해도 유지)
+ *
+ * 스키마 / 기존 테이블 마이그레이션 : sql/RefreshEntity.sql
+ */
 @Getter
 @Setter
 @Entity
+@Table(indexes = {
+        @Index(name = "ux_refresh_token_hash", columnList = "tokenHash", unique = true),
+        @Index(name = "ix_refresh_expires_at", columnList = "expiresAt"),
+        @Index(name = "ix_refresh_username_expires_at", columnList = "username, expiresAt")
+})
 public class RefreshEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+    @Column(nullable = false)
     private String username;
-    private String refresh;
-    private String expiration;
+    @Column(nullable = false, length = 64, columnDefinition = "char(64)")
+    private String tokenHash;
+    @Column(nullable = false)
+    private Long expiresAt;
+    private Long issuedAt;
+    private String device;
+    @Column(length = 45)
+    private String ipAddress;
 }
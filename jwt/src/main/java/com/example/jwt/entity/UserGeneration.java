@@ -0,0 +1,31 @@
+package com.example.jwt.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 사용자별 토큰 세대 번호
+ *
+ * 발급되는 토큰에 현재 세대(gen)를 넣고, 세대를 올리면 그 전에 발급된 토큰은 모두 무효가 된다. (모든 기기에서 로그아웃)
+ * 한 번도 올린 적 없는 사용자는 행이 없다. (세대 0)
+ * updatedAt 은 epoch millis 인덱스 -> 각 노드가 바뀐 행만 주기적으로 읽어감
+ *
+ * 스키마 : sql/UserGeneration.sql
+ */
+@Getter
+@Setter
+@Entity
+@Table(indexes = @Index(name = "ix_user_generation_updated_at", columnList = "updatedAt"))
+public class UserGeneration {
+    @Id
+    private String username;
+    @Column(nullable = false)
+    private int generation;
+    @Column(nullable = false)
+    private long updatedAt;
+}
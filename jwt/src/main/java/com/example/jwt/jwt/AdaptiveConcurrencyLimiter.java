@@ -0,0 +1,96 @@
+package com.example.jwt.jwt;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 응답 시간을 보고 동시 처리 개수(limit)를 스스로 조절하는 limiter (AIMD, Netflix concurrency-limits 방식)
+ *
+ * - 기준 지연(minRtt) : 최근 window 개 요청 중 가장 짧은 응답 시간 (= 대기 없이 처리될 때의 시간)
+ * - 응답 시간이 minRtt * tolerance 를 넘으면 -> DB 커넥션 풀 등 뒤쪽에서 줄을 서기 시작한 것
+ *   limit 을 backoffRatio 만큼 곱해서 줄임 (multiplicative decrease)
+ * - 그렇지 않고 limit 의 절반 이상을 쓰고 있으면 limit + 1 (additive increase)
+ * - limit 을 넘는 요청은 바로 거절 -> 대기열에 쌓이지 않으므로 받아들인 요청의 지연이 유지됨
+ */
+public class AdaptiveConcurrencyLimiter {
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double tolerance;
+    private final int window;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile int limit;
+
+    // 아래 값은 lock 으로 보호
+    private final ReentrantLock lock = new ReentrantLock();
+    private double estimatedLimit;
+    private long minRtt = Long.MAX_VALUE;
+    private long windowMinRtt = Long.MAX_VALUE;
+    private int samples;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      double backoffRatio, double tolerance, int window) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.tolerance = tolerance;
+        this.window = window;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * @return false -> limit 초과, 요청을 거절해야 함
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * tryAcquire 성공한 요청이 끝날 때 호출
+     * @param rttNanos 요청 처리 시간
+     */
+    public void release(long rttNanos) {
+        int current = inflight.getAndDecrement();
+
+        lock.lock();
+        try {
+            windowMinRtt = Math.min(windowMinRtt, rttNanos);
+            if (minRtt == Long.MAX_VALUE) {
+                minRtt = rttNanos;
+            }
+            if (++samples >= window) {
+                // 주기적으로 기준 지연을 다시 잡음 (DB 가 느려지거나 빨라진 경우 반영)
+                minRtt = windowMinRtt;
+                windowMinRtt = Long.MAX_VALUE;
+                samples = 0;
+            }
+
+            if (rttNanos > minRtt * tolerance) {
+                estimatedLimit = Math.max(minLimit, estimatedLimit * backoffRatio);
+            } else if (current * 2 >= estimatedLimit) {
+                estimatedLimit = Math.min(maxLimit, estimatedLimit + 1);
+            }
+            limit = (int) estimatedLimit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.jwt.jwt;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 문자열 키용 Bloom filter
+ *
+ * "없음" 은 확실하고, "있음" 은 fpp 확률로 틀릴 수 있다. -> 있음일 때만 정확한 저장소를 확인하는 용도
+ *  - 비트 배열은 AtomicLongArray : 조회는 락 없이, 추가는 CAS
+ *  - 해시 : 키를 한 번 훑어 64bit 해시 2개를 만들고 h1 + i * h2 로 k 개 위치 결정 (Kirsch-Mitzenmacher)
+ */
+public final class BloomFilter {
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashCount;
+
+    private BloomFilter(long bitSize, int hashCount) {
+        long words = Math.max(1L, (bitSize + 63) / 64);
+        if (words > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("bloom filter too large: " + bitSize + " bits");
+        }
+        this.words = new AtomicLongArray((int) words);
+        this.bitSize = words * 64;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * 예상 개수와 오탐률로 크기 결정
+     */
+    public static BloomFilter withCapacity(long expectedInsertions, double fpp) {
+        long bits = (long) Math.ceil(-Math.max(1L, expectedInsertions) * Math.log(fpp) / (LN2 * LN2));
+        return new BloomFilter(bits, hashCount(fpp));
+    }
+
+    /**
+     * 메모리 상한과 오탐률로 크기 결정 (담을 수 있는 개수는 capacity())
+     */
+    public static BloomFilter withMemory(long bytes, double fpp) {
+        return new BloomFilter(bytes * 8, hashCount(fpp));
+    }
+
+    /**
+     * expectedInsertions 개를 fpp 로 담는 데 필요한 바이트 (withCapacity 의 크기)
+     */
+    public static long bytesFor(long expectedInsertions, double fpp) {
+        return (long) Math.ceil(-Math.max(1L, expectedInsertions) * Math.log(fpp) / (LN2 * LN2) / 8);
+    }
+
+    /**
+     * fpp 를 지키면서 담을 수 있는 개수
+     */
+    public static long capacity(long bytes, double fpp) {
+        return (long) (bytes * 8 * LN2 * LN2 / -Math.log(fpp));
+    }
+
+    private static int hashCount(double fpp) {
+        if (!(fpp > 0 && fpp < 1)) {
+            throw new IllegalArgumentException("fpp must be between 0 and 1: " + fpp);
+        }
+        return Math.max(1, (int) Math.round(-Math.log(fpp) / LN2));
+    }
+
+    public void put(CharSequence key) {
+        long h1 = hash(key, 0x9E3779B97F4A7C15L);
+        long h2 = hash(key, 0xC2B2AE3D27D4EB4FL) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitSize);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    public boolean mightContain(CharSequence key) {
+        long h1 = hash(key, 0x9E3779B97F4A7C15L);
+        long h2 = hash(key, 0xC2B2AE3D27D4EB4FL) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitSize);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long byteSize() {
+        return bitSize / 8;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    private static long hash(CharSequence key, long seed) {
+        long h = seed ^ key.length();
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001B3L;
+            h = Long.rotateLeft(h, 27) * 0x9E3779B97F4A7C15L;
+        }
+        // murmur3 fmix64
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB66CD1E8EE53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
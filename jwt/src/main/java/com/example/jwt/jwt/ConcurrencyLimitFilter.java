@@ -0,0 +1,45 @@
+package com.example.jwt.jwt;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * /login, /reissue 동시 처리 개수 제한 -> limit 초과 시 바로 503 (DB 커넥션 대기열에 쌓지 않음)
+ */
+@RequiredArgsConstructor
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    private final EndpointConcurrencyLimits concurrencyLimits;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return concurrencyLimits.limiter(request.getServletPath()) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getServletPath();
+        AdaptiveConcurrencyLimiter limiter = concurrencyLimits.limiter(path);
+
+        if (!limiter.tryAcquire()) {
+            concurrencyLimits.recordShed(path);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+}
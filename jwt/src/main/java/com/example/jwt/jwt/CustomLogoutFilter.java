@@ -1,8 +1,9 @@
 package com.example.jwt.jwt;
 
-import com.example.jwt.entity.RefreshEntity;
-import com.example.jwt.repository.RefreshRepository;
+import com.example.jwt.repository.RefreshTokenStore;
+import com.example.jwt.service.ReissueCoalescer;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.ServletRequest;
@@ -11,15 +12,20 @@ import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.filter.GenericFilterBean;
 
 import java.io.IOException;
 import java.util.Arrays;
 
+@Slf4j
 @RequiredArgsConstructor
 public class CustomLogoutFilter extends GenericFilterBean {
     private final JWTUtil jwtUtil;
-    private final RefreshRepository refreshRepository;
+    private final RefreshTokenStore refreshTokenStore;
+    // 비활성화 시 null
+    private final TokenRevocationList revocationList;
+    private final ReissueCoalescer reissueCoalescer;
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
@@ -46,9 +52,6 @@ public class CustomLogoutFilter extends GenericFilterBean {
         refresh = Arrays.stream(cookies).filter((cookie) -> cookie.getName().equals("refresh"))
                 .findFirst().get().getValue();
 
-        System.out.println("refresh = " + refresh);
-
-
         // refresh null check
         if(refresh == null){
             response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
@@ -57,36 +60,37 @@ public class CustomLogoutFilter extends GenericFilterBean {
 
 
         // expired check
+        JWTClaims claims;
         try{
-            jwtUtil.isExpired(refresh);
+            claims = jwtUtil.parse(refresh);
         } catch (ExpiredJwtException e){
             response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
             return;
         }
 
         // 토큰이 refresh 인지 확인
-        String category = jwtUtil.getCategory(refresh);
-        if (!category.equals("refresh")) {
-            System.out.println("not refresh");
+        if (!claims.isCategory("refresh")) {
+            log.debug("logout rejected: token is not a refresh token");
             response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
             return;
         }
 
-        // DB 에 저장되어 있는지 확인
-        Boolean isExist = refreshRepository.existsByRefresh(refresh);
-        System.out.println("isExist = " + isExist);
+        // 로그아웃 진행
+        // 재발급 grace-window 에 보관된 결과 제거 (이미 rotate 된 이전 토큰으로 로그아웃해도)
+        String refreshHash = TokenDigest.sha256Hex(refresh);
+        reissueCoalescer.invalidate(refreshHash);
+
+        // Refresh 토큰 저장소에서 제거 (존재 확인 + 삭제를 한 번에, 삭제된 토큰이 없으면 저장되지 않은 토큰)
+        boolean revoked = refreshTokenStore.revoke(refreshHash);
 
-        if(!isExist){
-            System.out.println("not exist in db");
+        if(!revoked){
+            log.debug("logout rejected: refresh token is not stored");
             response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
             return;
         }
 
-        System.out.println("do logout");
-
-        // 로그아웃 진행
-        // Refresh 토큰 DB 에서 제거
-        refreshRepository.deleteByRefresh(refresh);
+        // 함께 보낸 access 토큰은 만료 전이라도 더 이상 사용하지 못하도록 폐기 목록에 추가
+        revokeAccessToken(request.getHeader("access"));
 
         // Refresh 토큰 Cookie 삭제
         // max age 를 0 으로 하면 즉시 삭제. 이를 이용하여 클라이언트 브라우저의 쿠키를 삭제함
@@ -97,4 +101,18 @@ public class CustomLogoutFilter extends GenericFilterBean {
         response.addCookie(cookie);
         response.setStatus(HttpServletResponse.SC_OK);
     }
+
+    private void revokeAccessToken(String accessToken) {
+        if (revocationList == null || accessToken == null) {
+            return;
+        }
+        try {
+            JWTClaims access = jwtUtil.parse(accessToken);
+            if (access.isCategory("access")) {
+                revocationList.revoke(access.getId(), access.getExpiration());
+            }
+        } catch (JwtException e) {
+            // 만료되었거나 잘못된 토큰은 폐기할 필요 없음
+        }
+    }
 }
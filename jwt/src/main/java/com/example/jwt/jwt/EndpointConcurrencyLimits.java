@@ -0,0 +1,55 @@
+package com.example.jwt.jwt;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 인증 경로(/login, /reissue)별 동시 처리 limiter (spring.jwt.concurrency-limit.enabled=true)
+ *
+ * 두 경로 모두 MySQL 커넥션 풀이 병목이지만 처리 시간이 달라서(BCrypt 유무) 경로마다 따로 조절한다.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.jwt.concurrency-limit.enabled", havingValue = "true")
+public class EndpointConcurrencyLimits {
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new HashMap<>();
+    private final Map<String, Counter> shed = new HashMap<>();
+
+    public EndpointConcurrencyLimits(@Value("${spring.jwt.concurrency-limit.initial-limit:20}") int initialLimit,
+                                     @Value("${spring.jwt.concurrency-limit.min-limit:1}") int minLimit,
+                                     @Value("${spring.jwt.concurrency-limit.max-limit:200}") int maxLimit,
+                                     @Value("${spring.jwt.concurrency-limit.backoff-ratio:0.9}") double backoffRatio,
+                                     @Value("${spring.jwt.concurrency-limit.tolerance:2.0}") double tolerance,
+                                     @Value("${spring.jwt.concurrency-limit.window:1000}") int window,
+                                     MeterRegistry meterRegistry) {
+        for (String path : List.of("/login", "/reissue")) {
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit,
+                    backoffRatio, tolerance, window);
+            limiters.put(path, limiter);
+
+            Gauge.builder("jwt.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .tag("endpoint", path).register(meterRegistry);
+            Gauge.builder("jwt.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInflight)
+                    .tag("endpoint", path).register(meterRegistry);
+            shed.put(path, Counter.builder("jwt.concurrency.shed").tag("endpoint", path).register(meterRegistry));
+        }
+    }
+
+    /**
+     * @return 제한 대상이 아닌 경로면 null
+     */
+    public AdaptiveConcurrencyLimiter limiter(String path) {
+        return limiters.get(path);
+    }
+
+    public void recordShed(String path) {
+        shed.get(path).increment();
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.jwt.jwt;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * username -> 세대 번호 (메모리 절약형 open addressing 해시 테이블)
+ *
+ * ConcurrentHashMap<String, Integer> 는 항목마다 노드 + String + Integer 객체를 가진다. (100만 명 ~ 100MB)
+ * 여기서는 username 의 64bit 해시와 세대 번호만 배열에 저장한다. (슬롯당 12 byte, 최대 load factor 0.5)
+ *  - 조회 : 락 없이 선형 탐색 (요청마다 JWTFilter 에서 호출)
+ *  - 갱신 : 락 하나로 직렬화, 크기가 부족하면 새 배열을 다 채운 뒤 교체
+ *  - 해시 충돌(서로 다른 username 이 같은 64bit 해시) 시 큰 세대 번호를 저장
+ *    -> 토큰이 잘못 무효화될 수는 있어도, 무효화된 토큰이 통과하지는 않음
+ */
+final class GenerationTable {
+    // 빈 슬롯 표시, 해시가 0 이면 1 로 바꿔 저장
+    private static final long EMPTY = 0L;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Table table;
+    private int size;
+
+    GenerationTable(int expectedSize) {
+        this.table = new Table(capacityFor(expectedSize));
+    }
+
+    int get(String username) {
+        long hash = hash(username);
+        Table current = table;
+        int mask = current.mask;
+        for (int i = (int) hash & mask; ; i = (i + 1) & mask) {
+            long key = current.keys.get(i);
+            if (key == hash) {
+                return current.generations.get(i);
+            }
+            if (key == EMPTY) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * 저장된 값보다 클 때만 반영
+     */
+    void put(String username, int generation) {
+        long hash = hash(username);
+        lock.lock();
+        try {
+            if ((size + 1) * 2L > table.keys.length()) {
+                table = resize(table);
+            }
+            if (insert(table, hash, generation)) {
+                size++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    long byteSize() {
+        return table.keys.length() * (8L + 4L);
+    }
+
+    /**
+     * @return 새 슬롯을 사용했으면 true
+     */
+    private static boolean insert(Table table, long hash, int generation) {
+        int mask = table.mask;
+        for (int i = (int) hash & mask; ; i = (i + 1) & mask) {
+            long key = table.keys.get(i);
+            if (key == hash) {
+                if (table.generations.get(i) < generation) {
+                    table.generations.set(i, generation);
+                }
+                return false;
+            }
+            if (key == EMPTY) {
+                // 조회 측이 키를 보면 세대 번호도 보이도록 세대 번호를 먼저 씀
+                table.generations.set(i, generation);
+                table.keys.set(i, hash);
+                return true;
+            }
+        }
+    }
+
+    private static Table resize(Table old) {
+        Table grown = new Table(old.keys.length() * 2);
+        for (int i = 0; i < old.keys.length(); i++) {
+            long key = old.keys.get(i);
+            if (key != EMPTY) {
+                insert(grown, key, old.generations.get(i));
+            }
+        }
+        return grown;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2L && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static long hash(String username) {
+        long h = 0x9E3779B97F4A7C15L ^ username.length();
+        for (int i = 0; i < username.length(); i++) {
+            h = (h ^ username.charAt(i)) * 0x100000001B3L;
+            h = Long.rotateLeft(h, 27) * 0x9E3779B97F4A7C15L;
+        }
+        // murmur3 fmix64
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB66CD1E8EE53L;
+        h ^= h >>> 33;
+        return h == EMPTY ? 1L : h;
+    }
+
+    private static final class Table {
+        final AtomicLongArray keys;
+        final AtomicIntegerArray generations;
+        final int mask;
+
+        Table(int capacity) {
+            this.keys = new AtomicLongArray(capacity);
+            this.generations = new AtomicIntegerArray(capacity);
+            this.mask = capacity - 1;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.jwt.jwt;
+
+import lombok.Getter;
+
+/**
+ * 서명 검증이 끝난 JWT 의 페이로드
+ *
+ * JWTUtil.parse() 가 한 번의 검증으로 만들어 반환하는 불변 객체이다.
+ * 필터나 서비스에서 category, username, role 을 꺼낼 때마다 토큰을 다시 파싱하지 않도록 한다.
+ * (iat, exp 는 epoch millis, id 는 jti - 토큰 폐기 목록에서 사용, generation 은 사용자 토큰 세대)
+ */
+@Getter
+public final class JWTClaims {
+    private final String id;
+    private final String category;
+    private final String username;
+    private final String role;
+    private final int generation;
+    private final long issuedAt;
+    private final long expiration;
+
+    public JWTClaims(String id, String category, String username, String role, int generation,
+                     long issuedAt, long expiration) {
+        this.id = id;
+        this.category = category;
+        this.username = username;
+        this.role = role;
+        this.generation = generation;
+        this.issuedAt = issuedAt;
+        this.expiration = expiration;
+    }
+
+    public boolean isCategory(String category) {
+        return category.equals(this.category);
+    }
+}
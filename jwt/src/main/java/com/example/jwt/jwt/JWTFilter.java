@@ -18,6 +18,10 @@ import java.io.PrintWriter;
 @RequiredArgsConstructor
 public class JWTFilter extends OncePerRequestFilter {
     private final JWTUtil jwtUtil;
+    // 비활성화 시 null
+    private final VerifiedTokenCache verifiedTokenCache;
+    // 비활성화 시 null
+    private final TokenRevocationList revocationList;
 
     /**
      * 1. 요청 시 JWT 토큰을 가졌는지 확인. -> Authorization 헤더로부터 JWT 를 가져옴
@@ -35,35 +39,56 @@ public class JWTFilter extends OncePerRequestFilter {
             return;
         }
 
-        // 토큰 만료 여부 확인, 만료 시 다음 필터로 넘기지 않음
-        try{
-            jwtUtil.isExpired(accessToken);
-        } catch(ExpiredJwtException e){
-            // response body
-            PrintWriter writer = response.getWriter();
-            writer.print("access token is expired");
+        // 이미 검증한 토큰이면 캐시된 클레임 사용 (JWTUtil 생략)
+        JWTClaims claims = verifiedTokenCache != null ? verifiedTokenCache.get(accessToken) : null;
 
-            // response status code
-            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            return;
+        if (claims == null) {
+            // 토큰 검증은 한 번만 수행하고, 검증된 클레임을 꺼내서 사용
+            // 토큰 만료 여부 확인, 만료 시 다음 필터로 넘기지 않음
+            try{
+                claims = jwtUtil.parse(accessToken);
+            } catch(ExpiredJwtException e){
+                // response body
+                PrintWriter writer = response.getWriter();
+                writer.print("access token is expired");
+
+                // response status code
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                return;
+            }
+
+            // 토큰이 access 인지 확인 (발급 시 페이로드에 명시)
+            if (!claims.isCategory("access")) {
+                // response body
+                PrintWriter writer = response.getWriter();
+                writer.print("invalid access token");
+
+                // response status code
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                return;
+            }
+
+            if (verifiedTokenCache != null) {
+                verifiedTokenCache.put(accessToken, claims);
+            }
         }
 
-        // 토큰이 access 인지 확인 (발급 시 페이로드에 명시)
-        String category = jwtUtil.getCategory(accessToken);
-        if (!category.equals("access")) {
+        // 만료 전에 폐기된 토큰인지 확인 (대부분 Bloom filter 에서 바로 통과)
+        // + 모든 기기에서 로그아웃 이전에 발급된 토큰인지 확인 (사용자 세대 번호)
+        if ((revocationList != null && revocationList.isRevoked(claims.getId(), claims.getExpiration()))
+                || jwtUtil.isStaleGeneration(claims)) {
             // response body
             PrintWriter writer = response.getWriter();
-            writer.print("invalid access token");
+            writer.print("access token is revoked");
 
             // response status code
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             return;
         }
 
-
         // username, role 값을 획득
-        String username = jwtUtil.getUsername(accessToken);
-        String role = jwtUtil.getRole(accessToken);
+        String username = claims.getUsername();
+        String role = claims.getRole();
 
         UserEntity user = new UserEntity();
         user.setUsername(username);
@@ -1,13 +1,23 @@
 package com.example.jwt.jwt;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.UnsupportedKeyException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * JWT
@@ -28,10 +38,25 @@ import java.util.Date;
  * 2. role
  * 3. 생성일
  * 4. 만료일
+ * 5. jti (토큰 식별자, 만료 전 폐기 시 사용)
+ * 6. gen (사용자 토큰 세대, 모든 기기에서 로그아웃 시 사용)
+ *
+ * 서명 키
+ *  - 기본 : spring.jwt.secret 으로 HS256 (헤더에 kid 없음)
+ *  - spring.jwt.key-ring.enabled : SigningKeyRing 의 ES256 / EdDSA 키로 서명하고 헤더에 kid 기록
+ *    검증은 헤더의 kid 로 키를 찾고, kid 가 없는 HS256 토큰은 accept-hmac 일 때만 secret 으로 검증 (전환 전에 발급된 토큰)
  */
 @Component
 public class JWTUtil {
+    private static final Base64.Encoder TOKEN_ID_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
     private final SecretKey secretKey;
+    private final JwtParser jwtParser;
+    private final JWTMinter jwtMinter;
+    // 없으면(테스트 등) 세대 0 으로 발급하고 세대 확인 생략
+    private final UserGenerations userGenerations;
+    // 없으면 secret 으로 HS256 서명
+    private final SigningKeyRing keyRing;
 
     /**
      * String 을 기반으로 SecretKey 라는 객체 키를 생성함.
@@ -39,8 +64,46 @@ public class JWTUtil {
      *
      * 이 프로젝트에서는 서명 검증을 위해서 HS256 알고리즘(양방향 대칭키 알고리즘) 사용
      */
-    public JWTUtil(@Value("${spring.jwt.secret}") String secret) {
+    public JWTUtil(String secret) {
+        this(secret, null, null);
+    }
+
+    public JWTUtil(String secret, @Nullable UserGenerations userGenerations) {
+        this(secret, userGenerations, null);
+    }
+
+    public JWTUtil(String secret, @Nullable UserGenerations userGenerations, @Nullable SigningKeyRing keyRing) {
+        this(secret, userGenerations, keyRing, false);
+    }
+
+    @Autowired
+    public JWTUtil(@Value("${spring.jwt.secret}") String secret, @Nullable UserGenerations userGenerations,
+                   @Nullable SigningKeyRing keyRing, @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
         this.secretKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), Jwts.SIG.HS256.key().build().getAlgorithm());
+        // JwtParser 는 불변이고 thread-safe 하므로 생성 시점에 한 번만 만들어서 공유한다.
+        this.jwtParser = keyRing == null
+                ? Jwts.parser().verifyWith(secretKey).build()
+                : Jwts.parser().keyLocator(new KeyRingLocator(keyRing, secretKey)).build();
+        this.jwtMinter = new JWTMinter(secretKey, virtualThreads);
+        this.userGenerations = userGenerations;
+        this.keyRing = keyRing;
+    }
+
+    /**
+     * 서명 검증과 페이로드 역직렬화를 한 번만 수행하고, 필요한 클레임을 모두 담아 반환한다.
+     * 만료된 토큰이면 ExpiredJwtException, 서명이 잘못된 토큰이면 JwtException 을 던진다.
+     */
+    public JWTClaims parse(String token) {
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+
+        return new JWTClaims(
+                claims.getId(),
+                claims.get("category", String.class),
+                claims.get("username", String.class),
+                claims.get("role", String.class),
+                claims.get("gen", Integer.class) != null ? claims.get("gen", Integer.class) : 0,
+                claims.getIssuedAt().getTime(),
+                claims.getExpiration().getTime());
     }
 
     /**
@@ -55,7 +118,7 @@ public class JWTUtil {
          * Jwts.parser()
          *      .verifyWith(secretKey)
          *      .build();
-         * : JWT 파서 생성
+         * : JWT 파서 생성 (생성자에서 한 번 만들어 jwtParser 로 재사용)
          *
          * JWT 파서 빌더의 verifyWith() : JWT 의 서명을 검증하기 위해 사용됨.
          *      서명 검증을 위해 서버에서 처음 서명을 만들 때 sign 을 위해 사용한 secret Key 객체를 사용한다.
@@ -63,32 +126,97 @@ public class JWTUtil {
          * parseSignedClaims() : 서명된 JWT 를 파싱하고, 내용을 확인함.
          *      서명이 유효한 경우에만 토큰 내용을 반환한다.
          */
-        return Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload().get("username", String.class);
+        return jwtParser.parseSignedClaims(token).getPayload().get("username", String.class);
     }
 
     public String getRole(String token){
-        return Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload().get("role", String.class);
+        return jwtParser.parseSignedClaims(token).getPayload().get("role", String.class);
     }
 
     public String getCategory(String token){
-        return Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload().get("category", String.class);
+        return jwtParser.parseSignedClaims(token).getPayload().get("category", String.class);
     }
 
     public Boolean isExpired(String token){
-        return Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload().getExpiration().before(new Date());
+        return jwtParser.parseSignedClaims(token).getPayload().getExpiration().before(new Date());
     }
 
 
+    /**
+     * 발급은 JWTMinter 가 담당한다. (Jwts.builder() 와 같은 토큰을 만들지만 Map/Jackson/Mac 생성 비용이 없음)
+     * jti 는 토큰마다 새로 만든 128bit 랜덤 값 (base64url 22자)
+     */
     public String createJwt(String category, String username, String role, Long expiredMs) {
+        long now = System.currentTimeMillis();
+        int generation = userGenerations != null ? userGenerations.current(username) : 0;
+        if (keyRing == null) {
+            return jwtMinter.mint(newTokenId(), category, username, role, generation, now, now + expiredMs);
+        }
+
+        // 비대칭 서명은 서명 자체가 Jwts.builder() 오버헤드보다 훨씬 비싸므로 JWTMinter 없이 그대로 사용 (클레임 순서는 같음)
+        SigningKeyRing.SigningKey key = keyRing.signingKey();
         return Jwts.builder()
+                .header().keyId(key.getKid()).and()
                 .claim("category", category)
                 .claim("username", username)
                 .claim("role", role)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiredMs))
-                .signWith(secretKey)
+                .id(newTokenId())
+                .claim("gen", generation)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expiredMs))
+                .signWith(key.getPrivateKey(), key.signatureAlgorithm())
                 .compact();
     }
 
+    /**
+     * 모든 기기에서 로그아웃 이전에 발급된 토큰인지 (메모리 조회만)
+     */
+    public boolean isStaleGeneration(JWTClaims claims) {
+        return userGenerations != null && claims.getGeneration() < userGenerations.current(claims.getUsername());
+    }
 
+    private static String newTokenId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        byte[] id = new byte[16];
+        long high = random.nextLong();
+        long low = random.nextLong();
+        for (int i = 0; i < 8; i++) {
+            id[i] = (byte) (high >>> (56 - i * 8));
+            id[i + 8] = (byte) (low >>> (56 - i * 8));
+        }
+        return TOKEN_ID_ENCODER.encodeToString(id);
+    }
+
+    /**
+     * 헤더의 kid 로 검증 키 선택 (kid 색인 조회 1번)
+     * 헤더의 alg 와 키의 알고리즘이 다르면 거부 (공개 키를 HMAC secret 으로 쓰게 하는 alg 바꿔치기 방지)
+     */
+    private static final class KeyRingLocator extends LocatorAdapter<Key> {
+        private final SigningKeyRing keyRing;
+        private final SecretKey secretKey;
+
+        KeyRingLocator(SigningKeyRing keyRing, SecretKey secretKey) {
+            this.keyRing = keyRing;
+            this.secretKey = secretKey;
+        }
+
+        @Override
+        protected Key locate(JwsHeader header) {
+            String kid = header.getKeyId();
+            if (kid == null) {
+                if (keyRing.isAcceptHmac() && "HS256".equals(header.getAlgorithm())) {
+                    return secretKey;
+                }
+                throw new UnsupportedKeyException("token has no kid");
+            }
+            SigningKeyRing.SigningKey key = keyRing.verificationKey(kid);
+            if (key == null) {
+                throw new UnsupportedKeyException("unknown kid: " + kid);
+            }
+            if (!key.getAlgorithm().equals(header.getAlgorithm())) {
+                throw new UnsupportedKeyException("kid " + kid + " is not a " + header.getAlgorithm() + " key");
+            }
+            return key.getPublicKey();
+        }
+    }
 }
@@ -0,0 +1,66 @@
+package com.example.jwt.jwt;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 로그인 시도 제한 (spring.jwt.login-rate-limit.enabled, 기본 활성화)
+ *
+ * 실패한 로그인도 DB 조회 + BCrypt 비교 비용이 그대로 든다.
+ * credential stuffing 을 막기 위해 attemptAuthentication 전에 IP, username 별 토큰 버킷으로 시도 횟수를 제한한다.
+ *  - IP : 한 곳에서 여러 계정을 시도하는 경우
+ *  - username : 여러 곳(봇넷)에서 한 계정을 시도하는 경우
+ */
+@Component
+@ConditionalOnProperty(name = "spring.jwt.login-rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class LoginAttemptLimiter {
+    private final StripedTokenBuckets byIp;
+    private final StripedTokenBuckets byUsername;
+
+    private final Counter rejectedByIp;
+    private final Counter rejectedByUsername;
+
+    @Autowired
+    public LoginAttemptLimiter(@Value("${spring.jwt.login-rate-limit.ip.capacity:50}") int ipCapacity,
+                               @Value("${spring.jwt.login-rate-limit.ip.refill-interval:1s}") Duration ipRefillInterval,
+                               @Value("${spring.jwt.login-rate-limit.username.capacity:10}") int usernameCapacity,
+                               @Value("${spring.jwt.login-rate-limit.username.refill-interval:6s}") Duration usernameRefillInterval,
+                               @Value("${spring.jwt.login-rate-limit.max-keys:100000}") int maxKeys,
+                               MeterRegistry meterRegistry) {
+        this(new StripedTokenBuckets(ipCapacity, ipRefillInterval, maxKeys),
+                new StripedTokenBuckets(usernameCapacity, usernameRefillInterval, maxKeys), meterRegistry);
+    }
+
+    LoginAttemptLimiter(StripedTokenBuckets byIp, StripedTokenBuckets byUsername, MeterRegistry meterRegistry) {
+        this.byIp = byIp;
+        this.byUsername = byUsername;
+        this.rejectedByIp = Counter.builder("jwt.login.rate-limit.rejected").tag("key", "ip").register(meterRegistry);
+        this.rejectedByUsername = Counter.builder("jwt.login.rate-limit.rejected").tag("key", "username").register(meterRegistry);
+    }
+
+    /**
+     * 로그인 시도 1회 기록
+     * @return 0 -> 허용, 그 외 -> 재시도까지 남은 시간(ns)
+     */
+    public long tryAcquire(String ip, String username) {
+        long wait = byIp.tryAcquire(ip);
+        if (wait > 0) {
+            rejectedByIp.increment();
+            return wait;
+        }
+
+        if (username != null) {
+            wait = byUsername.tryAcquire(username);
+            if (wait > 0) {
+                rejectedByUsername.increment();
+            }
+        }
+        return wait;
+    }
+}
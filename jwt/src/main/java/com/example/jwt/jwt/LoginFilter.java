@@ -1,13 +1,13 @@
 package com.example.jwt.jwt;
 
-import com.example.jwt.entity.RefreshEntity;
-import com.example.jwt.repository.RefreshRepository;
+import com.example.jwt.repository.RefreshTokenStore;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -16,13 +16,13 @@ import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 import java.io.IOException;
-import java.util.Date;
 
 @RequiredArgsConstructor
 public class LoginFilter extends UsernamePasswordAuthenticationFilter {
     private final AuthenticationManager authenticationManager;
     private final JWTUtil jwtUtil;
-    private final RefreshRepository refreshRepository;
+    private final RefreshTokenStore refreshTokenStore;
+    private final PasswordVerificationExecutor verificationExecutor;
 
     // 검증 : 인증 정보 추출 후, AuthenticationManager 검증 메서드 호출할 때 인증 정보로부터 생성한 토큰을 넘겨주면 됨.
     @Override
@@ -38,7 +38,8 @@ public class LoginFilter extends UsernamePasswordAuthenticationFilter {
         UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(username, password, null);
 
         // token 에 담은 값을 검증을 위한 AuthenticationManager 로 전달. 성공 시 Authentication 반환
-        return authenticationManager.authenticate(authToken);
+        // BCrypt 검증은 요청 스레드가 아닌 전용 스레드 풀에서 실행 (대기열이 가득 차면 503)
+        return verificationExecutor.authenticate(() -> authenticationManager.authenticate(authToken));
     }
 
     // 로그인 성공 시 실행하는 메서드 (여기서 JWT 를 발급하면 됨)
@@ -75,8 +76,8 @@ public class LoginFilter extends UsernamePasswordAuthenticationFilter {
         String accessToken = jwtUtil.createJwt("access", username, role, 10*60*1000L);
         String refreshToken = jwtUtil.createJwt("refresh", username, role, refreshExpiredMs);
 
-        // Refresh 토큰 저장
-        addRefreshEntity(username, refreshToken, refreshExpiredMs);
+        // Refresh 토큰 저장 (세션 목록에 표시할 기기 정보 포함)
+        addRefreshEntity(request, username, refreshToken, refreshExpiredMs);
 
         response.addHeader("access", accessToken);
         response.addCookie(createCookie("refresh", refreshToken));
@@ -89,19 +90,24 @@ public class LoginFilter extends UsernamePasswordAuthenticationFilter {
     // 로그인 실패 시 실행하는 메서드
     @Override
     protected void unsuccessfulAuthentication(HttpServletRequest request, HttpServletResponse response, AuthenticationException failed) throws IOException, ServletException {
+        // 검증 대기열 초과 시 503 코드 반환 : 잠시 후 재시도
+        if (failed instanceof LoginOverloadedException overloaded) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(overloaded.getRetryAfterSeconds()));
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+
         // 로그인 실패 시 401 코드 반환 : Unauthorized code
         response.setStatus(401);
     }
 
-    private void addRefreshEntity(String username, String refresh, Long expiredMs) {
-        Date date = new Date(System.currentTimeMillis() + expiredMs);
-
-        RefreshEntity refreshEntity = new RefreshEntity();
-        refreshEntity.setUsername(username);
-        refreshEntity.setRefresh(refresh);
-        refreshEntity.setExpiration(date.toString());
-
-        refreshRepository.save(refreshEntity);
+    private void addRefreshEntity(HttpServletRequest request, String username, String refresh, Long expiredMs) {
+        String device = request.getHeader(HttpHeaders.USER_AGENT);
+        if (device != null && device.length() > 255) {
+            device = device.substring(0, 255);
+        }
+        refreshTokenStore.save(username, TokenDigest.sha256Hex(refresh), System.currentTimeMillis() + expiredMs,
+                device, request.getRemoteAddr());
     }
 
     private Cookie createCookie(String key, String value){
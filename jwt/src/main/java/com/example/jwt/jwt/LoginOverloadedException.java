@@ -0,0 +1,17 @@
+package com.example.jwt.jwt;
+
+import lombok.Getter;
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * 비밀번호 검증 대기열이 가득 차서 로그인을 받지 않음 -> 503 + Retry-After
+ */
+@Getter
+public class LoginOverloadedException extends AuthenticationException {
+    private final long retryAfterSeconds;
+
+    public LoginOverloadedException(String msg, long retryAfterSeconds) {
+        super(msg);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
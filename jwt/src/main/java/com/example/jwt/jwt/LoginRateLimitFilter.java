@@ -0,0 +1,43 @@
+package com.example.jwt.jwt;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LoginFilter 앞에서 로그인 시도 횟수 제한 -> 초과 시 DB 조회, BCrypt 없이 429
+ */
+@RequiredArgsConstructor
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+    private final LoginAttemptLimiter loginAttemptLimiter;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // LoginFilter 와 같은 조건 (POST /login)
+        return !"POST".equals(request.getMethod()) || !"/login".equals(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        // UsernamePasswordAuthenticationFilter.obtainUsername 과 같은 파라미터
+        String username = request.getParameter("username");
+
+        long wait = loginAttemptLimiter.tryAcquire(request.getRemoteAddr(), username);
+        if (wait > 0) {
+            long retryAfter = Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1));
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.jwt.jwt;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 로그인 비밀번호 검증(BCrypt) 전용 스레드 풀
+ *
+ * BCrypt 검증은 한 번에 ~100ms 동안 CPU 를 점유한다.
+ * 요청 스레드(Tomcat)에서 바로 실행하면 로그인 폭주 시 모든 요청 스레드가 BCrypt 에 묶여
+ * JWTFilter 만 거치면 되는 일반 API 까지 지연된다.
+ *
+ *  - 검증은 CPU 코어 수만큼의 고정 스레드에서만 실행 (동시에 BCrypt 를 돌리는 개수 제한)
+ *  - 대기열은 bounded -> 가득 차면 바로 LoginOverloadedException (503 + Retry-After)
+ *  - 대기열 + 실행 중인 로그인만 요청 스레드를 붙잡고, 나머지 요청 스레드는 일반 API 를 처리
+ */
+@Component
+public class PasswordVerificationExecutor {
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final long retryAfterSeconds;
+
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public PasswordVerificationExecutor(@Value("${spring.jwt.login-executor.threads:0}") int threads,
+                                        @Value("${spring.jwt.login-executor.queue-capacity:64}") int queueCapacity,
+                                        @Value("${spring.jwt.login-executor.timeout:5s}") Duration timeout,
+                                        @Value("${spring.jwt.login-executor.retry-after:1s}") Duration retryAfter,
+                                        MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("login-verify-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeout = timeout;
+        this.retryAfterSeconds = Math.max(1L, retryAfter.toSeconds());
+
+        Gauge.builder("jwt.login.verify.queue", executor.getQueue(), BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("jwt.login.verify.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        this.waitTimer = Timer.builder("jwt.login.verify.wait").register(meterRegistry);
+        this.rejected = Counter.builder("jwt.login.verify.rejected").register(meterRegistry);
+    }
+
+    /**
+     * 검증 스레드에서 인증을 실행하고 결과를 기다린다.
+     * @throws LoginOverloadedException 대기열이 가득 찼거나 timeout 안에 끝나지 않음
+     */
+    public Authentication authenticate(Supplier<Authentication> authentication) throws AuthenticationException {
+        long submittedAt = System.nanoTime();
+        Future<Authentication> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return authentication.get();
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new LoginOverloadedException("login verification queue is full", retryAfterSeconds);
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new LoginOverloadedException("login verification timed out", retryAfterSeconds);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof AuthenticationException authenticationException) {
+                throw authenticationException;
+            }
+            throw new AuthenticationServiceException("login verification failed", e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("login verification interrupted", e);
+        }
+    }
+
+    public int queued() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,444 @@
+package com.example.jwt.jwt;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 토큰 서명용 비대칭 키 링 (spring.jwt.key-ring.enabled, 기본 비활성 -> spring.jwt.secret 으로 HS256 서명)
+ *
+ * ES256 / EdDSA(Ed25519) 개인 키로 서명하고, 공개 키는 /.well-known/jwks.json 으로 공개한다.
+ * 다른 서비스는 JWKS 를 캐시해두고 토큰을 직접 검증하므로 secret 을 나눠 갖거나 이 서버를 호출할 필요가 없다.
+ *
+ *  - 키마다 kid (공개 키의 JWK thumbprint) 를 토큰 헤더에 기록하고, 검증 시 kid 로 키를 찾는다.
+ *    키 목록은 불변 Map 을 통째로 교체 (copy-on-write) -> 조회는 락 없이 O(1)
+ *  - 교체 : rotation-interval 마다 새 키를 만들어 바로 JWKS 에 공개하고, publish-ahead 뒤부터 서명에 사용
+ *           (소비자가 캐시한 JWKS 에 새 키가 들어간 뒤에 그 키로 서명한 토큰이 도착하도록 publish-ahead >= jwks-max-age)
+ *  - 이전 키 : 다음 키로 서명을 시작한 뒤 overlap 동안 검증에만 쓰고 제거 (overlap >= 가장 긴 토큰 수명 = refresh 24시간)
+ *  - dir 에 키를 저장해 재시작 후에도 같은 키 사용 (비우면 메모리에만 두고, 재시작하면 발급한 토큰은 모두 무효)
+ *    여러 노드면 dir 를 공유 : 노드마다 1분마다 dir 를 다시 읽고, 동시에 교체해서 키가 하나 더 생겨도 모두 공개되므로 문제 없음
+ *  - 폐기 (키 유출) : rotateNow(true) 는 새 키만 남기고 이전 키를 즉시 제거, dir 에 kid.revoked 표시를 남겨 다른 노드도 다음 maintain 에서 제거
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.jwt.key-ring.enabled", havingValue = "true")
+public class SigningKeyRing {
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final String KEY_FILE_SUFFIX = ".key";
+    private static final String REVOKED_FILE_SUFFIX = ".revoked";
+
+    private final String algorithm;
+    private final Path dir;
+    private final long rotationIntervalMs;
+    private final long publishAheadMs;
+    private final long overlapMs;
+    @Getter
+    private final boolean acceptHmac;
+    private final Clock clock;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // activatesAt 순서의 키 목록, kid 색인, JWKS 응답 (교체할 때만 새로 만듦)
+    private volatile Ring ring = new Ring(List.of());
+
+    @Autowired
+    public SigningKeyRing(@Value("${spring.jwt.key-ring.algorithm:ES256}") String algorithm,
+                          @Value("${spring.jwt.key-ring.dir:}") String dir,
+                          @Value("${spring.jwt.key-ring.rotation-interval:7d}") Duration rotationInterval,
+                          @Value("${spring.jwt.key-ring.publish-ahead:10m}") Duration publishAhead,
+                          @Value("${spring.jwt.key-ring.overlap:25h}") Duration overlap,
+                          @Value("${spring.jwt.key-ring.accept-hmac:true}") boolean acceptHmac,
+                          MeterRegistry meterRegistry) {
+        this(algorithm, dir.isBlank() ? null : Path.of(dir), rotationInterval, publishAhead, overlap, acceptHmac, Clock.systemUTC());
+        Gauge.builder("jwt.key-ring.keys", this, (keyRing) -> keyRing.ring.keys.size()).register(meterRegistry);
+    }
+
+    SigningKeyRing(String algorithm, Path dir, Duration rotationInterval, Duration publishAhead, Duration overlap,
+                   boolean acceptHmac, Clock clock) {
+        this.algorithm = signatureAlgorithm(algorithm).getId();
+        this.dir = dir;
+        this.rotationIntervalMs = rotationInterval.toMillis();
+        this.publishAheadMs = publishAhead.toMillis();
+        this.overlapMs = overlap.toMillis();
+        this.acceptHmac = acceptHmac;
+        this.clock = clock;
+
+        if (dir == null) {
+            log.warn("key ring has no dir : keys are kept in memory only, tokens signed before a restart will be rejected");
+        }
+        maintain();
+        log.info("key ring : algorithm={}, keys={}, signing kid={}", this.algorithm, ring.keys.size(), signingKey().getKid());
+    }
+
+    /**
+     * 지금 서명에 쓸 키 (activatesAt 이 지난 키 중 가장 최근 키)
+     */
+    public SigningKey signingKey() {
+        List<SigningKey> keys = ring.keys;
+        long now = clock.millis();
+        for (int i = keys.size() - 1; i >= 0; i--) {
+            if (keys.get(i).activatesAt <= now) {
+                return keys.get(i);
+            }
+        }
+        // 다른 노드가 만든 키만 있고 아직 활성 전인 경우
+        return keys.get(0);
+    }
+
+    /**
+     * kid 로 검증 키 조회 (없으면 null)
+     */
+    public SigningKey verificationKey(String kid) {
+        return kid == null ? null : ring.byKid.get(kid);
+    }
+
+    /**
+     * 공개 중인 모든 키 (활성 전 키, overlap 중인 이전 키 포함) 의 JWK Set JSON
+     */
+    public String jwks() {
+        return ring.jwks;
+    }
+
+    /**
+     * JWKS 내용이 바뀔 때만 바뀌는 ETag
+     */
+    public String jwksETag() {
+        return ring.etag;
+    }
+
+    /**
+     * 주기 작업 : dir 다시 읽기 -> 교체 시점이면 새 키 생성 -> overlap 이 끝난 키 제거
+     */
+    @Scheduled(fixedRate = 60_000L, initialDelay = 60_000L)
+    public void maintain() {
+        lock.lock();
+        try {
+            long now = clock.millis();
+            Map<String, SigningKey> keys = new HashMap<>();
+            ring.keys.forEach((key) -> keys.put(key.kid, key));
+            if (dir != null) {
+                load().forEach((key) -> keys.putIfAbsent(key.kid, key));
+                // 다른 노드에서 폐기한 키
+                revoked(now).forEach(keys::remove);
+            }
+
+            List<SigningKey> sorted = sort(keys.values());
+            if (sorted.isEmpty()) {
+                // 첫 키는 이전에 공개된 키가 없으므로 바로 사용
+                sorted = List.of(create(now));
+            } else if (sorted.get(sorted.size() - 1).activatesAt + rotationIntervalMs - publishAheadMs <= now) {
+                // 새 키가 rotation-interval 시점에 활성화되도록 publish-ahead 만큼 먼저 공개
+                long activatesAt = Math.max(now + publishAheadMs, sorted.get(sorted.size() - 1).activatesAt + rotationIntervalMs);
+                List<SigningKey> rotated = new ArrayList<>(sorted);
+                rotated.add(create(activatesAt));
+                sorted = rotated;
+            }
+
+            // 다음 키가 활성화되고 overlap 이 지난 키 제거
+            List<SigningKey> live = new ArrayList<>();
+            for (int i = 0; i < sorted.size(); i++) {
+                SigningKey key = sorted.get(i);
+                if (i + 1 < sorted.size() && sorted.get(i + 1).activatesAt + overlapMs <= now) {
+                    delete(key);
+                } else {
+                    live.add(key);
+                }
+            }
+
+            if (!live.equals(ring.keys)) {
+                ring = new Ring(live);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 즉시 교체 : 새 키를 바로 JWKS 에 공개하고 publish-ahead 뒤부터 서명 (그동안은 현재 키로 서명),
+     * 이전 키는 overlap 동안 검증 유지 -> 예약 교체와 같이 소비자가 캐시한 JWKS 에 없는 키로 서명하지 않음
+     */
+    public SigningKey rotateNow() {
+        return rotateNow(false);
+    }
+
+    /**
+     * 즉시 교체, revokePrevious 면 이전 키 (활성 전 키 포함) 를 바로 제거하고 새 키로 바로 서명 (키 유출 대응)
+     * 이전 키로 서명한 토큰은 모두 검증 실패 -> 사용자는 다시 로그인해야 한다.
+     * 폐기 모드는 publish-ahead 를 기다리지 않으므로, 소비자의 JWKS 캐시에 새 키가 들어가기 전까지는
+     * 새 토큰도 거부될 수 있음 (최대 jwks-max-age 동안)
+     */
+    public SigningKey rotateNow(boolean revokePrevious) {
+        lock.lock();
+        try {
+            List<SigningKey> keys = new ArrayList<>(ring.keys);
+            long now = clock.millis();
+            // 예약 교체와 같이 publish-ahead 뒤에 활성화, 이미 공개된 다음 키가 있으면 그보다 뒤에
+            long newest = keys.isEmpty() ? 0L : keys.get(keys.size() - 1).activatesAt;
+            SigningKey key = create(revokePrevious ? now : Math.max(now + publishAheadMs, newest + 1));
+            int revoked = 0;
+            if (revokePrevious) {
+                keys.forEach((previous) -> revoke(previous, now));
+                revoked = keys.size();
+                keys.clear();
+            }
+            keys.add(key);
+            ring = new Ring(sort(keys));
+            log.info("key ring rotated : kid={}, activatesAt={}, revoked={}", key.kid, Instant.ofEpochMilli(key.activatesAt), revoked);
+            return key;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<SigningKey> keys() {
+        return ring.keys;
+    }
+
+    private SigningKey create(long activatesAt) {
+        // EdDSA 는 Ed25519 (jjwt 기본값 Ed448 보다 서명이 짧고 빠름)
+        KeyPair keyPair = "EdDSA".equals(algorithm)
+                ? Jwks.CRV.Ed25519.keyPair().build()
+                : signatureAlgorithm(algorithm).keyPair().build();
+        SigningKey key = new SigningKey(algorithm, keyPair.getPrivate(), keyPair.getPublic(), activatesAt);
+        if (dir != null) {
+            store(key);
+        }
+        return key;
+    }
+
+    private List<SigningKey> load() {
+        List<SigningKey> keys = new ArrayList<>();
+        try {
+            Files.createDirectories(dir);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + KEY_FILE_SUFFIX)) {
+                for (Path file : files) {
+                    Properties properties = new Properties();
+                    try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                        properties.load(reader);
+                    }
+                    keys.add(SigningKey.of(properties));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return keys;
+    }
+
+    private void store(SigningKey key) {
+        Properties properties = key.toProperties();
+        Path file = dir.resolve(key.kid + KEY_FILE_SUFFIX);
+        Path temp = dir.resolve(key.kid + KEY_FILE_SUFFIX + ".tmp");
+        try {
+            Files.createDirectories(dir);
+            // 개인 키는 소유자만 읽도록 권한을 정한 뒤에 씀 (umask 에 맡기면 다른 사용자가 읽을 수 있음)
+            Files.deleteIfExists(temp);
+            createOwnerOnly(temp);
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8, StandardOpenOption.TRUNCATE_EXISTING)) {
+                properties.store(writer, null);
+            }
+            // 반쯤 쓴 파일을 다른 노드가 읽지 않도록 이름 변경으로 공개
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void createOwnerOnly(Path file) throws IOException {
+        if (file.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(file, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+            return;
+        }
+        // POSIX 권한이 없는 파일 시스템 (Windows 등)
+        File created = Files.createFile(file).toFile();
+        if (!(created.setReadable(false, false) && created.setReadable(true, true)
+                && created.setWritable(false, false) && created.setWritable(true, true))) {
+            log.warn("could not restrict permissions of signing key file {}", file);
+        }
+    }
+
+    private void delete(SigningKey key) {
+        if (dir == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(dir.resolve(key.kid + KEY_FILE_SUFFIX));
+        } catch (IOException e) {
+            log.warn("failed to delete retired signing key {}", key.kid, e);
+        }
+    }
+
+    private void revoke(SigningKey key, long now) {
+        if (dir == null) {
+            return;
+        }
+        // 표시를 먼저 남기고 키 파일 삭제 (중간에 실패해도 다른 노드가 키를 다시 읽어 살리지 않도록)
+        Path file = dir.resolve(key.kid + REVOKED_FILE_SUFFIX);
+        try {
+            Files.writeString(file, Long.toString(now), StandardCharsets.UTF_8);
+            Files.deleteIfExists(dir.resolve(key.kid + KEY_FILE_SUFFIX));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * dir 의 폐기 표시 kid 목록 (overlap 이 지난 표시는 삭제 -> 그 사이에 모든 노드가 한 번 이상 maintain)
+     */
+    private List<String> revoked(long now) {
+        List<String> kids = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + REVOKED_FILE_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String kid = name.substring(0, name.length() - REVOKED_FILE_SUFFIX.length());
+                kids.add(kid);
+                // 쓰는 중인 (빈) 표시는 다음 maintain 에서 정리
+                String revokedAt = Files.readString(file, StandardCharsets.UTF_8).trim();
+                if (!revokedAt.isEmpty() && Long.parseLong(revokedAt) + overlapMs <= now) {
+                    Files.deleteIfExists(file);
+                    // 표시가 사라진 뒤에 남은 키 파일이 다시 읽히지 않도록
+                    Files.deleteIfExists(dir.resolve(kid + KEY_FILE_SUFFIX));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return kids;
+    }
+
+    private static List<SigningKey> sort(Iterable<SigningKey> keys) {
+        List<SigningKey> sorted = new ArrayList<>();
+        keys.forEach(sorted::add);
+        sorted.sort(Comparator.comparingLong(SigningKey::getActivatesAt).thenComparing(SigningKey::getKid));
+        return List.copyOf(sorted);
+    }
+
+    static SignatureAlgorithm signatureAlgorithm(String algorithm) {
+        return switch (algorithm) {
+            case "ES256" -> Jwts.SIG.ES256;
+            case "EdDSA" -> Jwts.SIG.EdDSA;
+            default -> throw new IllegalArgumentException("unsupported key ring algorithm: " + algorithm + " (ES256 | EdDSA)");
+        };
+    }
+
+    private static final class Ring {
+        final List<SigningKey> keys;
+        final Map<String, SigningKey> byKid;
+        final String jwks;
+        final String etag;
+
+        Ring(List<SigningKey> keys) {
+            this.keys = keys;
+            Map<String, SigningKey> byKid = new HashMap<>();
+            keys.forEach((key) -> byKid.put(key.kid, key));
+            this.byKid = Map.copyOf(byKid);
+
+            try {
+                this.jwks = JSON.writeValueAsString(Map.of("keys", keys.stream().map(SigningKey::getJwk).toList()));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+            this.etag = "\"" + DigestUtils.md5DigestAsHex(jwks.getBytes(StandardCharsets.UTF_8)) + "\"";
+        }
+    }
+
+    @Getter
+    public static final class SigningKey {
+        private final String kid;
+        private final String algorithm;
+        private final PrivateKey privateKey;
+        private final PublicKey publicKey;
+        private final long activatesAt;
+        private final PublicJwk<?> jwk;
+
+        SigningKey(String algorithm, PrivateKey privateKey, PublicKey publicKey, long activatesAt) {
+            this.algorithm = algorithm;
+            this.privateKey = privateKey;
+            this.publicKey = publicKey;
+            this.activatesAt = activatesAt;
+            PublicJwk<?> thumbprinted = Jwks.builder().key(publicKey).idFromThumbprint().build();
+            this.kid = thumbprinted.getId();
+            this.jwk = Jwks.builder().key(publicKey).id(kid).algorithm(algorithm).publicKeyUse("sig").build();
+        }
+
+        public SignatureAlgorithm signatureAlgorithm() {
+            return SigningKeyRing.signatureAlgorithm(algorithm);
+        }
+
+        Properties toProperties() {
+            Base64.Encoder encoder = Base64.getEncoder();
+            Properties properties = new Properties();
+            properties.setProperty("algorithm", algorithm);
+            properties.setProperty("activates-at", Long.toString(activatesAt));
+            properties.setProperty("private", encoder.encodeToString(privateKey.getEncoded()));
+            properties.setProperty("public", encoder.encodeToString(publicKey.getEncoded()));
+            return properties;
+        }
+
+        static SigningKey of(Properties properties) {
+            Base64.Decoder decoder = Base64.getDecoder();
+            String algorithm = properties.getProperty("algorithm");
+            try {
+                KeyFactory keyFactory = KeyFactory.getInstance("ES256".equals(algorithm) ? "EC" : "EdDSA");
+                PrivateKey privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decoder.decode(properties.getProperty("private"))));
+                PublicKey publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(decoder.decode(properties.getProperty("public"))));
+                return new SigningKey(algorithm, privateKey, publicKey, Long.parseLong(properties.getProperty("activates-at")));
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("invalid signing key file", e);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof SigningKey other && kid.equals(other.kid);
+        }
+
+        @Override
+        public int hashCode() {
+            return kid.hashCode();
+        }
+    }
+}
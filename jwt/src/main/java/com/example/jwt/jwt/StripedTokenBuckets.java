@@ -0,0 +1,112 @@
+package com.example.jwt.jwt;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * 키(username, IP)별 토큰 버킷 - 고정 메모리, lock striping
+ *
+ * - 버킷 : capacity 개까지 쌓이고 refillInterval 마다 1개씩 채워짐
+ *          남은 토큰 수 대신 "버킷이 가득 차는 시각" 하나만 저장 (GCRA 방식, 키당 long 1개)
+ * - STRIPES 개의 구간으로 나누고, 구간마다 락 + 접근 순서 LinkedHashMap (LRU)
+ *   구간당 maxKeys / STRIPES 개가 차면 가장 오래 쓰이지 않은 키를 버리고 새 키를 받음 -> 메모리 상한 고정
+ *   단, 제한 중인 키(남은 토큰 없음, fullAt - now > burst)는 버리지 않음. 버려진 키는 가득 찬 버킷으로 다시 시작하므로
+ *   제한 중인 키를 버리면 다른 키를 대량으로 만들어 밀어내는 것만으로 제한이 풀린다.
+ *   가장 오래된 키가 제한 중이면 새 키를 거절 (fail closed, 그 키에 토큰이 다시 생길 때까지)
+ *   토큰이 남은 키는 버림 -> 일부 사용한 키로 구간이 가득 차도 새 키는 계속 받음 (잃는 것은 그 키가 쓴 토큰 몇 개)
+ */
+class StripedTokenBuckets {
+    private static final int STRIPES = 64;
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final LongSupplier nanoClock;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    StripedTokenBuckets(int capacity, Duration refillInterval, int maxKeys) {
+        this(capacity, refillInterval, maxKeys, System::nanoTime);
+    }
+
+    StripedTokenBuckets(int capacity, Duration refillInterval, int maxKeys, LongSupplier nanoClock) {
+        this.intervalNanos = refillInterval.toNanos();
+        this.burstNanos = intervalNanos * (capacity - 1);
+        this.nanoClock = nanoClock;
+        int keysPerStripe = Math.max(1, maxKeys / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(keysPerStripe);
+        }
+    }
+
+    /**
+     * 토큰 1개 사용
+     * @return 0 -> 허용, 그 외 -> 다음 토큰까지 남은 시간(ns)
+     */
+    long tryAcquire(String key) {
+        // 비슷한 문자열(user1, user2 ...)이 한 구간에 몰리지 않도록 상위 비트를 섞음 (구간이 차면 새 키를 거절하므로)
+        int h = key.hashCode();
+        Stripe stripe = stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+        long now = nanoClock.getAsLong();
+
+        stripe.lock.lock();
+        try {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                if (stripe.buckets.size() >= stripe.maxKeys) {
+                    Iterator<Bucket> eldest = stripe.buckets.values().iterator();
+                    long eldestWait = eldest.next().fullAt - now - burstNanos;
+                    if (eldestWait > 0) {
+                        return eldestWait;
+                    }
+                    eldest.remove();
+                }
+                bucket = new Bucket(now);
+                stripe.buckets.put(key, bucket);
+            }
+
+            // fullAt : 지금까지 사용한 토큰이 모두 다시 채워지는 시각
+            long fullAt = Math.max(bucket.fullAt, now);
+            long wait = fullAt - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            bucket.fullAt = fullAt + intervalNanos;
+            return 0L;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.buckets.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final LinkedHashMap<String, Bucket> buckets = new LinkedHashMap<>(16, 0.75f, true);
+        final int maxKeys;
+
+        Stripe(int maxKeys) {
+            this.maxKeys = maxKeys;
+        }
+    }
+
+    private static final class Bucket {
+        long fullAt;
+
+        Bucket(long fullAt) {
+            this.fullAt = fullAt;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.jwt.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 토큰 원문 대신 사용하는 고정 길이 식별자
+ *
+ * 토큰 문자열을 그대로 키로 들고 있지 않도록 SHA-256 다이제스트(hex 64자)로 변환한다.
+ */
+public final class TokenDigest {
+    private static final HexFormat HEX = HexFormat.of();
+
+    private TokenDigest() {
+    }
+
+    public static String sha256Hex(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HEX.formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // 모든 JVM 은 SHA-256 을 반드시 제공한다.
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.jwt.jwt;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 만료 전 access 토큰 폐기 목록 (jti 기준, spring.jwt.revocation.enabled 기본 활성화)
+ *
+ * JWTFilter 는 모든 요청에서 폐기 여부를 확인해야 하므로, 대부분인 "폐기되지 않은 토큰" 을 빠르게 통과시키는 것이 중요하다.
+ *  - 정확한 목록 : jti -> 만료 시각 (ConcurrentHashMap), Bloom filter 가 "있음" 이라고 할 때만 확인
+ *  - Bloom filter : 토큰 만료 시각을 bucket-width 단위로 나눈 구간마다 하나
+ *                   확인할 토큰의 exp 로 구간이 정해지므로 요청마다 Bloom filter 1개만 확인
+ *                   구간의 모든 토큰이 만료되면 구간째 버림 (Bloom filter 는 삭제가 안 되므로 통째로 교체)
+ *  - 메모리 상한 : max-memory 를 구간 수로 나눠 구간별 크기 고정, 폐기가 있는 구간만 할당
+ *                  구간당 담을 수 있는 개수를 넘으면 오탐률만 올라가고 결과는 정확한 목록이 보장
+ *
+ * 목록은 노드 메모리에만 있다. (여러 노드면 폐기 이벤트를 각 노드에 전달해야 함)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.jwt.revocation.enabled", havingValue = "true", matchIfMissing = true)
+public class TokenRevocationList {
+    private final Clock clock;
+    private final long bucketWidthMs;
+    private final long bucketBytes;
+    private final double fpp;
+
+    // 구간 번호(exp / bucketWidth) % 길이 위치에 저장하는 링
+    private final AtomicReferenceArray<Bucket> buckets;
+    private final ConcurrentHashMap<String, Long> revoked = new ConcurrentHashMap<>();
+    // 링 범위를 넘는 만료 시각의 토큰 (max-token-lifetime 설정보다 수명이 긴 토큰, 보통 비어 있음)
+    private final ConcurrentHashMap<String, Long> beyondRing = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Counter falsePositives;
+
+    @Autowired
+    public TokenRevocationList(@Value("${spring.jwt.revocation.fpp:0.001}") double fpp,
+                               @Value("${spring.jwt.revocation.max-memory:4MB}") DataSize maxMemory,
+                               @Value("${spring.jwt.revocation.bucket-width:1m}") Duration bucketWidth,
+                               @Value("${spring.jwt.revocation.max-token-lifetime:10m}") Duration maxTokenLifetime,
+                               MeterRegistry meterRegistry) {
+        this(fpp, maxMemory.toBytes(), bucketWidth, maxTokenLifetime, Clock.systemUTC(), meterRegistry);
+    }
+
+    TokenRevocationList(double fpp, long maxMemoryBytes, Duration bucketWidth, Duration maxTokenLifetime,
+                        Clock clock, MeterRegistry meterRegistry) {
+        this.clock = clock;
+        this.fpp = fpp;
+        this.bucketWidthMs = bucketWidth.toMillis();
+        // 현재 구간 + 최대 수명 동안의 구간 + 경계 여유 1
+        int slots = (int) (maxTokenLifetime.toMillis() / bucketWidthMs) + 2;
+        this.buckets = new AtomicReferenceArray<>(slots);
+        this.bucketBytes = Math.max(64L, maxMemoryBytes / slots);
+
+        this.falsePositives = Counter.builder("jwt.revocation.bloom.false-positive").register(meterRegistry);
+        Gauge.builder("jwt.revocation.revoked", revoked, ConcurrentHashMap::size).register(meterRegistry);
+        Gauge.builder("jwt.revocation.bloom.bytes", this, TokenRevocationList::bloomBytes).register(meterRegistry);
+
+        log.info("token revocation list : {} buckets x {} bytes, ~{} revocations per bucket at fpp {}",
+                slots, bucketBytes, BloomFilter.capacity(bucketBytes, fpp), fpp);
+    }
+
+    /**
+     * @param expiresAt 토큰 만료 시각 (epoch ms) - 이 시각이 지나면 목록에서 빠짐
+     */
+    public void revoke(String jti, long expiresAt) {
+        long now = clock.millis();
+        if (jti == null || expiresAt <= now) {
+            return;
+        }
+        revoked.put(jti, expiresAt);
+
+        long index = expiresAt / bucketWidthMs;
+        if (!withinRing(index, now)) {
+            // 최대 수명보다 긴 토큰 -> Bloom filter 없이 따로 보관
+            beyondRing.put(jti, expiresAt);
+            return;
+        }
+
+        int slot = (int) (index % buckets.length());
+        Bucket bucket = buckets.get(slot);
+        if (bucket == null || bucket.index != index) {
+            lock.lock();
+            try {
+                bucket = buckets.get(slot);
+                if (bucket == null || bucket.index != index) {
+                    bucket = new Bucket(index, BloomFilter.withMemory(bucketBytes, fpp));
+                    buckets.set(slot, bucket);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        bucket.filter.put(jti);
+    }
+
+    /**
+     * @param expiresAt 토큰의 exp (epoch ms) -> 확인할 구간 결정
+     */
+    public boolean isRevoked(String jti, long expiresAt) {
+        if (jti == null) {
+            return false;
+        }
+
+        if (!beyondRing.isEmpty() && beyondRing.containsKey(jti)) {
+            return true;
+        }
+
+        long index = expiresAt / bucketWidthMs;
+        if (withinRing(index, clock.millis())) {
+            Bucket bucket = buckets.get((int) (index % buckets.length()));
+            if (bucket == null || bucket.index != index || !bucket.filter.mightContain(jti)) {
+                return false;
+            }
+        }
+
+        boolean exact = revoked.containsKey(jti);
+        if (!exact) {
+            falsePositives.increment();
+        }
+        return exact;
+    }
+
+    /**
+     * 만료된 구간의 Bloom filter 와 만료된 jti 정리
+     */
+    @Scheduled(fixedRate = 60_000L)
+    public void expire() {
+        long now = clock.millis();
+        long currentIndex = now / bucketWidthMs;
+        for (int slot = 0; slot < buckets.length(); slot++) {
+            Bucket bucket = buckets.get(slot);
+            if (bucket != null && bucket.index < currentIndex) {
+                buckets.compareAndSet(slot, bucket, null);
+            }
+        }
+        revoked.values().removeIf((expiresAt) -> expiresAt <= now);
+        beyondRing.values().removeIf((expiresAt) -> expiresAt <= now);
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    public long bloomBytes() {
+        long bytes = 0;
+        for (int slot = 0; slot < buckets.length(); slot++) {
+            Bucket bucket = buckets.get(slot);
+            if (bucket != null) {
+                bytes += bucket.filter.byteSize();
+            }
+        }
+        return bytes;
+    }
+
+    private boolean withinRing(long index, long now) {
+        return index - now / bucketWidthMs < buckets.length() - 1;
+    }
+
+    private static final class Bucket {
+        final long index;
+        final BloomFilter filter;
+
+        Bucket(long index, BloomFilter filter) {
+            this.index = index;
+            this.filter = filter;
+        }
+    }
+}
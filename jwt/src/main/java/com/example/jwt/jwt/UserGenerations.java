@@ -0,0 +1,115 @@
+package com.example.jwt.jwt;
+
+import com.example.jwt.entity.UserGeneration;
+import com.example.jwt.repository.UserGenerationRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+
+/**
+ * 사용자별 토큰 세대 번호 (모든 기기에서 로그아웃)
+ *
+ *  - 발급 : JWTUtil.createJwt 가 현재 세대를 gen 클레임으로 넣음
+ *  - 검증 : JWTFilter 에서 토큰의 gen 이 현재 세대보다 작으면 거절 -> 메모리 조회만, 요청마다 DB 접근 없음
+ *  - 로그아웃 : bump() 로 세대 +1 -> 그 사용자의 이전 토큰이 모두 무효 (토큰 수와 상관없이 O(1))
+ *
+ * 세대 번호는 UserGeneration 테이블에 저장하고, 각 노드는 1초마다 updatedAt 이 바뀐 행만 읽어 반영한다.
+ * (다른 노드에서 올린 세대는 최대 1초 + 조회 시간 뒤에 반영)
+ */
+@Slf4j
+@Component
+public class UserGenerations {
+    private static final String SELECT_CHANGED = "select username, generation, updatedAt from UserGeneration where updatedAt >= ?";
+    // 노드 간 시계 차이, 커밋 지연을 고려해서 이전 조회 시점보다 조금 앞부터 다시 읽음
+    private static final long OVERLAP_MS = 5_000L;
+
+    private final UserGenerationRepository userGenerationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final GenerationTable table = new GenerationTable(1024);
+    private volatile long lastUpdatedAt = Long.MIN_VALUE;
+
+    @Autowired
+    public UserGenerations(UserGenerationRepository userGenerationRepository, JdbcTemplate jdbcTemplate,
+                           MeterRegistry meterRegistry) {
+        this(userGenerationRepository, jdbcTemplate, Clock.systemUTC(), meterRegistry);
+    }
+
+    UserGenerations(UserGenerationRepository userGenerationRepository, JdbcTemplate jdbcTemplate, Clock clock,
+                    MeterRegistry meterRegistry) {
+        this.userGenerationRepository = userGenerationRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        Gauge.builder("jwt.user-generation.size", table, GenerationTable::size).register(meterRegistry);
+        Gauge.builder("jwt.user-generation.bytes", table, GenerationTable::byteSize).register(meterRegistry);
+    }
+
+    /**
+     * 한 번도 올리지 않은 사용자는 0
+     */
+    public int current(String username) {
+        return table.get(username);
+    }
+
+    /**
+     * 세대 +1 -> 지금까지 발급된 이 사용자의 토큰 모두 무효
+     * @return 새 세대 번호
+     */
+    public int bump(String username) {
+        long now = clock.millis();
+        if (userGenerationRepository.increment(username, now) == 0) {
+            UserGeneration userGeneration = new UserGeneration();
+            userGeneration.setUsername(username);
+            userGeneration.setGeneration(1);
+            userGeneration.setUpdatedAt(now);
+            try {
+                userGenerationRepository.saveAndFlush(userGeneration);
+            } catch (DataIntegrityViolationException e) {
+                // 동시에 다른 요청(노드)이 먼저 insert
+                userGenerationRepository.increment(username, now);
+            }
+        }
+
+        int generation = userGenerationRepository.findById(username)
+                .map(UserGeneration::getGeneration)
+                .orElseThrow();
+        table.put(username, generation);
+        return generation;
+    }
+
+    /**
+     * 바뀐 행만 읽어서 반영 (처음 한 번은 전체)
+     */
+    @Scheduled(fixedDelay = 1_000L)
+    public void refresh() {
+        long since = lastUpdatedAt == Long.MIN_VALUE ? Long.MIN_VALUE : lastUpdatedAt - OVERLAP_MS;
+        long[] newest = {lastUpdatedAt};
+        int[] rows = {0};
+
+        jdbcTemplate.query(SELECT_CHANGED, (rs) -> {
+            table.put(rs.getString(1), rs.getInt(2));
+            newest[0] = Math.max(newest[0], rs.getLong(3));
+            rows[0]++;
+        }, since);
+
+        if (lastUpdatedAt == Long.MIN_VALUE) {
+            log.info("loaded {} user generations", rows[0]);
+        }
+        lastUpdatedAt = Math.max(newest[0], 0L);
+    }
+
+    int size() {
+        return table.size();
+    }
+
+    long byteSize() {
+        return table.byteSize();
+    }
+}
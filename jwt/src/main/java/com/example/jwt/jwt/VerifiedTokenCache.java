@@ -0,0 +1,78 @@
+package com.example.jwt.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 서명 검증이 끝난 access 토큰 캐시
+ *
+ * SPA 클라이언트는 같은 access 토큰을 만료 전까지 여러 번 보낸다.
+ * 한 번 검증한 토큰은 다이제스트를 키로 클레임을 보관해두고, 같은 토큰이 다시 오면 JWTUtil 을 거치지 않는다.
+ *
+ * - 엔트리는 토큰의 exp 시점까지만 유지 (exp 이후에는 캐시에서 사라지므로 JWTUtil 에서 만료 처리됨)
+ * - Caffeine : 크기 제한 + W-TinyLFU 제거 정책, 읽기는 lock-free 라서 Tomcat 워커 스레드가 많아도 경합이 적다.
+ * - hit / miss 는 recordStats() 로 집계하고, 메트릭(cache.gets)으로 노출
+ *
+ * spring.jwt.cache.enabled=true 일 때만 빈으로 등록된다.
+ */
+@Component
+@ConditionalOnProperty(prefix = "spring.jwt.cache", name = "enabled", havingValue = "true")
+public class VerifiedTokenCache {
+    private final Cache<String, JWTClaims> cache;
+
+    public VerifiedTokenCache(@Value("${spring.jwt.cache.max-size:10000}") long maxSize, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, JWTClaims>() {
+                    @Override
+                    public long expireAfterCreate(String key, JWTClaims claims, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, claims.getExpiration() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, JWTClaims claims, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, claims, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, JWTClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified-token");
+    }
+
+    /**
+     * 캐시에 있으면 검증된 클레임, 없거나 exp 가 지났으면 null
+     */
+    public JWTClaims get(String token) {
+        JWTClaims claims = cache.getIfPresent(TokenDigest.sha256Hex(token));
+        if (claims == null || claims.getExpiration() <= System.currentTimeMillis()) {
+            return null;
+        }
+        return claims;
+    }
+
+    public void put(String token, JWTClaims claims) {
+        cache.put(TokenDigest.sha256Hex(token), claims);
+    }
+
+    public long hitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long missCount() {
+        return cache.stats().missCount();
+    }
+}
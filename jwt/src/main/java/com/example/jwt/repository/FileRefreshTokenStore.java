@@ -0,0 +1,466 @@
+package com.example.jwt.repository;
+
+import com.example.jwt.jwt.TokenDigest;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+import java.util.zip.CRC32C;
+
+/**
+ * 파일 기반 refresh 토큰 저장소 (spring.jwt.refresh-store=file)
+ *
+ * 재시작해도 토큰이 유지되면서, /reissue 마다 MySQL 을 거치지 않도록 한다.
+ *
+ * 1. index.dat : 메모리 매핑된 open addressing 해시 테이블 (MappedTokenIndex)
+ * 2. wal.log   : 추가/삭제/rotate 를 순서대로 기록하는 append-only 로그 (레코드마다 CRC32C)
+ *    - group fsync : 여러 요청이 동시에 기록하면 한 스레드의 force() 로 함께 디스크에 반영
+ *    - 요청은 자기 레코드가 디스크에 반영된 뒤에 반환된다.
+ *    - 로그 기록에 실패한 변경은 index 에도 남기지 않는다. (삭제는 기록 후 반영, 추가는 반영 후 기록에 실패하면 되돌림)
+ * 3. 체크포인트 (스냅샷) : index 를 force() 하고 로그를 비운다. 로그가 max-log-size 를 넘거나 checkpoint-interval 마다.
+ *    - tombstone 이 많이 쌓였으면 살아 있는 토큰만 새 index 파일에 옮겨 쓰고 교체 (압축)
+ * 4. 복구 : index 를 열고 마지막 체크포인트 이후의 로그만 다시 적용한다.
+ *    - 로그 크기가 제한되어 있으므로 복구 시간도 제한됨
+ *    - 마지막 레코드가 잘려 있거나 CRC 가 맞지 않으면 그 지점부터 버린다. (fsync 되기 전이므로 응답하지 않은 요청)
+ *
+ * 만료된 토큰은 1초마다 일부 슬롯씩 훑으면서 제거한다. (로그 기록 없음, 복구 후에도 만료된 토큰은 없는 것으로 취급)
+ * revokeAll 은 username 인덱스가 없어서 전체 슬롯을 훑는다. (드문 작업이라 복구 시간을 늘리는 보조 인덱스 대신 선택)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.jwt.refresh-store", havingValue = "file")
+public class FileRefreshTokenStore implements RefreshTokenStore, Closeable {
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final byte ROTATE = 3;
+    private static final int SWEEP_SLOTS = 1 << 16;
+
+    private final Path indexFile;
+    private final Path compactFile;
+    private final Path logFile;
+    private final long capacity;
+    private final long maxLogBytes;
+    private final long checkpointIntervalMs;
+    private final Clock clock;
+
+    // index, wal, record 버퍼는 lock 안에서만 사용 (읽기 : exists, 쓰기 : 나머지)
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final ByteBuffer record = ByteBuffer.allocate(128);
+    private final CRC32C crc = new CRC32C();
+    private MappedTokenIndex index;
+    private final FileChannel wal;
+    private long logBytes;
+    private long lastCheckpoint;
+    private long sweepCursor;
+
+    // 로그에 기록된 위치 / 디스크에 반영된 위치 (체크포인트로 로그를 비워도 계속 증가하는 논리 위치)
+    private volatile long writtenLsn;
+    private volatile long durableLsn;
+
+    @Getter
+    private final long recoveredRecords;
+    @Getter
+    private final long recoveryMillis;
+
+    @Autowired
+    public FileRefreshTokenStore(@Value("${spring.jwt.refresh-file.dir:./data/refresh}") Path dir,
+                                 @Value("${spring.jwt.refresh-file.capacity:1048576}") long capacity,
+                                 @Value("${spring.jwt.refresh-file.max-log-size:64MB}") DataSize maxLogSize,
+                                 @Value("${spring.jwt.refresh-file.checkpoint-interval:PT1M}") Duration checkpointInterval) throws IOException {
+        this(dir, capacity, maxLogSize.toBytes(), checkpointInterval, Clock.systemUTC());
+    }
+
+    public FileRefreshTokenStore(Path dir, long capacity, long maxLogBytes, Duration checkpointInterval, Clock clock) throws IOException {
+        this.indexFile = dir.resolve("index.dat");
+        this.compactFile = dir.resolve("index.dat.compact");
+        this.logFile = dir.resolve("wal.log");
+        this.capacity = capacity;
+        this.maxLogBytes = maxLogBytes;
+        this.checkpointIntervalMs = checkpointInterval.toMillis();
+        this.clock = clock;
+
+        long started = System.nanoTime();
+        Files.createDirectories(dir);
+        // 압축 도중 종료된 경우 (교체 전이므로 기존 index 가 유효)
+        Files.deleteIfExists(compactFile);
+
+        this.index = MappedTokenIndex.open(indexFile, capacity);
+        this.wal = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.recoveredRecords = replay();
+        checkpoint();
+        this.recoveryMillis = (System.nanoTime() - started) / 1_000_000;
+
+        log.info("refresh token file store opened : dir={}, live={}, replayed={}, recovery={}ms",
+                dir, index.live(), recoveredRecords, recoveryMillis);
+    }
+
+    @Override
+    public void save(String username, String tokenHash, long expiresAt) {
+        long[] key = key(tokenHash);
+        long userKey = userKey(username);
+
+        long lsn;
+        lock.writeLock().lock();
+        try {
+            lsn = putLogged(key, expiresAt, userKey, () -> append(PUT, key, null, expiresAt, userKey));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(lsn);
+    }
+
+    @Override
+    public boolean rotate(String oldHash, String newHash, long expiresAt) {
+        long[] oldKey = key(oldHash);
+        long[] newKey = key(newHash);
+
+        long lsn;
+        lock.writeLock().lock();
+        try {
+            long slot = index.find(oldKey);
+            if (slot < 0 || index.expiresAt(slot) <= clock.millis()) {
+                return false;
+            }
+            long userKey = index.userKey(slot);
+            // 새 토큰을 먼저 넣고 이전 토큰 제거 -> index 가 가득 차서 put 이 실패하면 이전 토큰이 그대로 남음 (로그와도 일치)
+            lsn = putLogged(newKey, expiresAt, userKey, () -> append(ROTATE, oldKey, newKey, expiresAt, userKey));
+            index.removeAt(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(lsn);
+        return true;
+    }
+
+    @Override
+    public boolean revoke(String tokenHash) {
+        long[] key = key(tokenHash);
+
+        long lsn;
+        lock.writeLock().lock();
+        try {
+            long slot = index.find(key);
+            if (slot < 0 || index.expiresAt(slot) <= clock.millis()) {
+                return false;
+            }
+            lsn = append(DELETE, key, null, 0, 0);
+            index.removeAt(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(lsn);
+        return true;
+    }
+
+    @Override
+    public int revokeAll(String username) {
+        long userKey = userKey(username);
+        long[] key = new long[4];
+
+        int revoked = 0;
+        long lsn;
+        lock.writeLock().lock();
+        try {
+            long now = clock.millis();
+            for (long slot = 0; slot < capacity; slot++) {
+                if (index.isLive(slot) && index.userKey(slot) == userKey && index.expiresAt(slot) > now) {
+                    index.readKey(slot, key);
+                    append(DELETE, key, null, 0, 0);
+                    index.removeAt(slot);
+                    revoked++;
+                }
+            }
+            lsn = writtenLsn;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(lsn);
+        return revoked;
+    }
+
+    @Override
+    public boolean exists(String tokenHash) {
+        long[] key = key(tokenHash);
+
+        lock.readLock().lock();
+        try {
+            long slot = index.find(key);
+            return slot >= 0 && index.expiresAt(slot) > clock.millis();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return index.live();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 1초마다 만료된 토큰 일부 정리 + 필요하면 체크포인트
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void maintenance() throws IOException {
+        lock.writeLock().lock();
+        try {
+            long now = clock.millis();
+            long end = Math.min(sweepCursor + SWEEP_SLOTS, capacity);
+            for (long slot = sweepCursor; slot < end; slot++) {
+                if (index.isLive(slot) && index.expiresAt(slot) <= now) {
+                    index.removeAt(slot);
+                }
+            }
+            sweepCursor = end == capacity ? 0 : end;
+
+            if (logBytes >= maxLogBytes || now - lastCheckpoint >= checkpointIntervalMs) {
+                checkpoint();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * index 를 디스크에 반영하고 로그를 비운다. tombstone 이 1/4 을 넘으면 새 파일로 압축.
+     */
+    public void checkpoint() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (index.tombstones() > capacity >>> 2) {
+                compact();
+            } else {
+                index.force();
+            }
+            wal.truncate(0);
+            wal.force(true);
+            logBytes = 0;
+            durableLsn = writtenLsn;
+            lastCheckpoint = clock.millis();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            checkpoint();
+            index.close();
+            wal.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void compact() throws IOException {
+        long now = clock.millis();
+        long[] key = new long[4];
+        try (MappedTokenIndex compacted = MappedTokenIndex.open(compactFile, capacity)) {
+            for (long slot = 0; slot < capacity; slot++) {
+                if (index.isLive(slot) && index.expiresAt(slot) > now) {
+                    index.readKey(slot, key);
+                    compacted.put(key, index.expiresAt(slot), index.userKey(slot));
+                }
+            }
+            compacted.force();
+        }
+        index.close();
+        Files.move(compactFile, indexFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        index = MappedTokenIndex.open(indexFile, capacity);
+    }
+
+    /**
+     * 쓰기 락 안에서 호출. 레코드를 로그 끝에 쓰고 논리 위치를 반환 (디스크 반영은 awaitDurable)
+     */
+    /**
+     * index 에 넣고 로그 기록, 기록에 실패하면 index 도 이전 상태로 되돌림
+     * (로그에 없는 변경이 다음 체크포인트에 디스크로 반영되지 않도록)
+     * put 을 먼저 하는 것은 index 가 가득 차서 거부될 변경을 로그에 남기지 않기 위해서
+     */
+    private long putLogged(long[] key, long expiresAt, long userKey, LongSupplier append) {
+        long previous = index.find(key);
+        long previousExpiresAt = previous >= 0 ? index.expiresAt(previous) : 0L;
+        long previousUserKey = previous >= 0 ? index.userKey(previous) : 0L;
+        index.put(key, expiresAt, userKey);
+        try {
+            return append.getAsLong();
+        } catch (RuntimeException e) {
+            if (previous >= 0) {
+                index.put(key, previousExpiresAt, previousUserKey);
+            } else {
+                index.remove(key);
+            }
+            throw e;
+        }
+    }
+
+    private long append(byte op, long[] key, long[] newKey, long expiresAt, long userKey) {
+        record.clear();
+        record.put(op);
+        putKey(key);
+        if (op == ROTATE) {
+            putKey(newKey);
+        }
+        if (op != DELETE) {
+            record.putLong(expiresAt);
+            record.putLong(userKey);
+        }
+        crc.reset();
+        crc.update(record.array(), 0, record.position());
+        record.putInt((int) crc.getValue());
+        record.flip();
+
+        int length = record.remaining();
+        try {
+            while (record.hasRemaining()) {
+                wal.write(record, logBytes + (length - record.remaining()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        logBytes += length;
+        writtenLsn += length;
+        return writtenLsn;
+    }
+
+    /**
+     * group fsync : 먼저 들어온 스레드가 그때까지 기록된 로그 전체를 force() 하고,
+     * 그동안 기다린 스레드들은 자기 위치가 이미 반영되었으면 force() 없이 반환한다.
+     */
+    private void awaitDurable(long lsn) {
+        if (durableLsn >= lsn) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (durableLsn >= lsn) {
+                return;
+            }
+            long target = writtenLsn;
+            wal.force(false);
+            durableLsn = Math.max(durableLsn, target);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * 마지막 체크포인트 이후의 로그를 index 에 다시 적용 (같은 레코드를 여러 번 적용해도 결과가 같음)
+     */
+    private long replay() throws IOException {
+        long records = 0;
+        long validBytes = 0;
+        long[] key = new long[4];
+        long[] newKey = new long[4];
+        byte[] buffer = new byte[128];
+
+        try (FileChannel reader = FileChannel.open(logFile, StandardOpenOption.READ);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(reader), 1 << 16))) {
+            while (true) {
+                int length;
+                try {
+                    buffer[0] = in.readByte();
+                    length = switch (buffer[0]) {
+                        case PUT -> 1 + 32 + 16;
+                        case DELETE -> 1 + 32;
+                        case ROTATE -> 1 + 64 + 16;
+                        default -> -1;
+                    };
+                    if (length < 0) {
+                        break;
+                    }
+                    in.readFully(buffer, 1, length - 1 + 4);
+                } catch (EOFException e) {
+                    break;
+                }
+
+                ByteBuffer rec = ByteBuffer.wrap(buffer, 0, length + 4);
+                crc.reset();
+                crc.update(buffer, 0, length);
+                if ((int) crc.getValue() != rec.getInt(length)) {
+                    break;
+                }
+
+                rec.position(1);
+                getKey(rec, key);
+                switch (buffer[0]) {
+                    case PUT -> index.put(key, rec.getLong(), rec.getLong());
+                    case DELETE -> index.remove(key);
+                    case ROTATE -> {
+                        getKey(rec, newKey);
+                        index.remove(key);
+                        index.put(newKey, rec.getLong(), rec.getLong());
+                    }
+                }
+                records++;
+                validBytes += length + 4;
+            }
+        }
+
+        if (validBytes < wal.size()) {
+            log.warn("refresh token log truncated at {} bytes (torn or corrupt tail, {} bytes dropped)", validBytes, wal.size() - validBytes);
+        }
+        return records;
+    }
+
+    private void putKey(long[] key) {
+        for (long part : key) {
+            record.putLong(part);
+        }
+    }
+
+    private static void getKey(ByteBuffer rec, long[] key) {
+        for (int i = 0; i < 4; i++) {
+            key[i] = rec.getLong();
+        }
+    }
+
+    private static long[] key(String tokenHash) {
+        if (tokenHash.length() != 64) {
+            throw new IllegalArgumentException("tokenHash 는 SHA-256 hex (64자) 여야 합니다.");
+        }
+        long[] key = new long[4];
+        for (int i = 0; i < 4; i++) {
+            key[i] = HexFormat.fromHexDigitsToLong(tokenHash, i * 16, i * 16 + 16);
+        }
+        return key;
+    }
+
+    private static long userKey(String username) {
+        return HexFormat.fromHexDigitsToLong(TokenDigest.sha256Hex(username), 0, 16);
+    }
+}
@@ -0,0 +1,328 @@
+package com.example.jwt.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 메모리 기반 refresh 토큰 저장소 (spring.jwt.refresh-store=memory)
+ *
+ * 단일 노드/엣지 배포에서 재발급 경로에 MySQL 을 거치지 않도록 한다. (재시작 시 토큰은 사라짐)
+ *
+ * - tokenHash 기준으로 SHARDS 개의 샤드로 나누고, 샤드마다 락 + HashMap + 타이밍 휠을 둔다. (lock striping)
+ * - 만료 : 샤드별 TimingWheel 에 등록해두고 1초마다 휠을 돌림 -> 토큰당 O(1), 전체 스캔 없음
+ *          rotate/revoke 된 토큰은 휠에서도 바로 취소 (O(1))
+ * - username -> tokenHash 보조 인덱스 : 모든 기기에서 로그아웃(revokeAll)
+ *   저장(로그인, rotate) 순서를 유지하는 LinkedHashSet -> max-sessions 를 넘으면 맨 앞(가장 오래 쓰지 않은 세션)을 O(1) 로 제거
+ *   추가와 제거가 같은 compute 안에서 일어나므로 동시 로그인에도 사용자당 max-sessions 개를 넘지 않음
+ * - 세션 목록 : 보조 인덱스의 토큰을 모아 만료 시각이 늦은 순서로 정렬 (사용자당 max-sessions 개라 정렬 비용이 작음)
+ *   세션 id 는 로그인마다 증가하는 번호, rotate 해도 유지 (jpa 저장소의 행 id 와 같은 의미)
+ */
+@Component
+@ConditionalOnProperty(name = "spring.jwt.refresh-store", havingValue = "memory")
+public class InMemoryRefreshTokenStore implements RefreshTokenStore, SessionListingStore {
+    private static final int SHARDS = 64;
+    private static final long TICK_MS = 1000L;
+    // 세션 목록 순서 (jpa 저장소의 order by expiresAt desc, id desc 와 같음)
+    private static final Comparator<RefreshSession> NEWEST_FIRST =
+            Comparator.comparing(RefreshSession::getExpiresAt).thenComparing(RefreshSession::getId).reversed();
+
+    private final Clock clock;
+    private final int maxSessions;
+    private final Shard[] shards = new Shard[SHARDS];
+    private final ConcurrentHashMap<String, Set<String>> tokensByUser = new ConcurrentHashMap<>();
+    private final AtomicLong sessionIds = new AtomicLong();
+
+    public InMemoryRefreshTokenStore() {
+        this(Clock.systemUTC());
+    }
+
+    @Autowired
+    public InMemoryRefreshTokenStore(@Value("${spring.jwt.refresh-max-sessions:0}") int maxSessions) {
+        this(Clock.systemUTC(), maxSessions);
+    }
+
+    public InMemoryRefreshTokenStore(Clock clock) {
+        this(clock, 0);
+    }
+
+    public InMemoryRefreshTokenStore(Clock clock, int maxSessions) {
+        this.clock = clock;
+        this.maxSessions = maxSessions;
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new Shard(clock.millis());
+        }
+    }
+
+    @Override
+    public void save(String username, String tokenHash, long expiresAt) {
+        save(username, tokenHash, expiresAt, null, null);
+    }
+
+    @Override
+    public void save(String username, String tokenHash, long expiresAt, String device, String ipAddress) {
+        store(new Entry(sessionIds.incrementAndGet(), username, tokenHash, expiresAt, clock.millis(), device, ipAddress));
+    }
+
+    @Override
+    public boolean rotate(String oldHash, String newHash, long expiresAt) {
+        // 이전 토큰 제거가 rotate 의 성공 지점 -> 동시에 여러 요청이 와도 한 요청만 성공
+        Entry old = shard(oldHash).remove(oldHash, clock.millis());
+        if (old == null) {
+            return false;
+        }
+        unindex(old);
+        // 같은 세션 (id, 로그인 시각, 기기 유지)
+        store(new Entry(old.id, old.username, newHash, expiresAt, old.issuedAt, old.device, old.ipAddress));
+        return true;
+    }
+
+    @Override
+    public boolean revoke(String tokenHash) {
+        Entry removed = shard(tokenHash).remove(tokenHash, clock.millis());
+        if (removed == null) {
+            return false;
+        }
+        unindex(removed);
+        return true;
+    }
+
+    @Override
+    public int revokeAll(String username) {
+        Set<String> tokenHashes = tokensByUser.remove(username);
+        if (tokenHashes == null) {
+            return 0;
+        }
+
+        int revoked = 0;
+        long now = clock.millis();
+        for (String tokenHash : tokenHashes) {
+            if (shard(tokenHash).remove(tokenHash, now) != null) {
+                revoked++;
+            }
+        }
+        return revoked;
+    }
+
+    @Override
+    public boolean exists(String tokenHash) {
+        return shard(tokenHash).contains(tokenHash, clock.millis());
+    }
+
+    @Override
+    public List<RefreshSession> sessions(String username, RefreshSession after, int limit) {
+        long now = clock.millis();
+        List<RefreshSession> sessions = new ArrayList<>();
+        for (String tokenHash : tokenHashes(username)) {
+            Entry entry = shard(tokenHash).get(tokenHash, now);
+            if (entry == null) {
+                continue;
+            }
+            RefreshSession session = new RefreshSession(entry.id, entry.issuedAt, entry.expiresAt, entry.device, entry.ipAddress);
+            // cursor 다음 항목만
+            if (after == null || NEWEST_FIRST.compare(session, after) > 0) {
+                sessions.add(session);
+            }
+        }
+        sessions.sort(NEWEST_FIRST);
+        return sessions.size() > limit ? List.copyOf(sessions.subList(0, limit)) : sessions;
+    }
+
+    @Override
+    public boolean revokeSession(String username, long sessionId) {
+        long now = clock.millis();
+        for (String tokenHash : tokenHashes(username)) {
+            Entry entry = shard(tokenHash).get(tokenHash, now);
+            if (entry != null && entry.id == sessionId) {
+                // 그 사이 rotate 되었으면 false
+                return revoke(tokenHash);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 타이밍 휠을 현재 시각까지 돌려서 만료된 토큰 제거
+     */
+    @Scheduled(fixedRate = TICK_MS)
+    public void expire() {
+        long now = clock.millis();
+        for (Shard shard : shards) {
+            shard.advance(now, this::unindex);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    private Shard shard(String tokenHash) {
+        int h = tokenHash.hashCode();
+        return shards[(h ^ (h >>> 16)) & (SHARDS - 1)];
+    }
+
+    private void store(Entry entry) {
+        if (shard(entry.tokenHash).put(entry)) {
+            index(entry);
+        }
+    }
+
+    /**
+     * 사용자의 토큰 해시 복사본 (LinkedHashSet 은 compute 안에서만 읽음)
+     */
+    private List<String> tokenHashes(String username) {
+        List<String> tokenHashes = new ArrayList<>();
+        tokensByUser.computeIfPresent(username, (key, set) -> {
+            tokenHashes.addAll(set);
+            return set;
+        });
+        return tokenHashes;
+    }
+
+    private void index(Entry entry) {
+        String[] evicted = new String[1];
+        tokensByUser.compute(entry.username, (username, tokenHashes) -> {
+            Set<String> set = tokenHashes != null ? tokenHashes : new LinkedHashSet<>();
+            set.add(entry.tokenHash);
+            if (maxSessions > 0 && set.size() > maxSessions) {
+                Iterator<String> oldest = set.iterator();
+                evicted[0] = oldest.next();
+                oldest.remove();
+            }
+            return set;
+        });
+        // 인덱스에서 빠진 세션 -> 토큰도 제거 (그 사이 rotate 되었으면 이미 없음)
+        if (evicted[0] != null) {
+            shard(evicted[0]).remove(evicted[0], clock.millis());
+        }
+    }
+
+    private void unindex(Entry entry) {
+        tokensByUser.computeIfPresent(entry.username, (username, tokenHashes) -> {
+            tokenHashes.remove(entry.tokenHash);
+            return tokenHashes.isEmpty() ? null : tokenHashes;
+        });
+    }
+
+    private static final class Entry {
+        final long id;
+        final String username;
+        final String tokenHash;
+        final long expiresAt;
+        final long issuedAt;
+        final String device;
+        final String ipAddress;
+        TimingWheel.Timeout<Entry> timeout;
+
+        Entry(long id, String username, String tokenHash, long expiresAt, long issuedAt, String device, String ipAddress) {
+            this.id = id;
+            this.username = username;
+            this.tokenHash = tokenHash;
+            this.expiresAt = expiresAt;
+            this.issuedAt = issuedAt;
+            this.device = device;
+            this.ipAddress = ipAddress;
+        }
+    }
+
+    private static final class Shard {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Entry> entries = new HashMap<>();
+        private final TimingWheel<Entry> wheel;
+
+        Shard(long startMs) {
+            this.wheel = new TimingWheel<>(TICK_MS, startMs);
+        }
+
+        /**
+         * @return false -> 이미 만료된 토큰이라 저장하지 않음
+         */
+        boolean put(Entry entry) {
+            lock.lock();
+            try {
+                entry.timeout = wheel.schedule(entry, entry.expiresAt);
+                if (entry.timeout == null) {
+                    return false;
+                }
+                Entry replaced = entries.put(entry.tokenHash, entry);
+                if (replaced != null) {
+                    wheel.cancel(replaced.timeout);
+                }
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Entry remove(String tokenHash, long now) {
+            lock.lock();
+            try {
+                Entry entry = entries.get(tokenHash);
+                // 휠이 아직 돌지 않았더라도 만료 시각이 지난 토큰은 없는 것으로 취급
+                if (entry == null || entry.expiresAt <= now) {
+                    return null;
+                }
+                entries.remove(tokenHash);
+                wheel.cancel(entry.timeout);
+                return entry;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean contains(String tokenHash, long now) {
+            return get(tokenHash, now) != null;
+        }
+
+        Entry get(String tokenHash, long now) {
+            lock.lock();
+            try {
+                Entry entry = entries.get(tokenHash);
+                return entry != null && entry.expiresAt > now ? entry : null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void advance(long now, Consumer<Entry> onExpired) {
+            lock.lock();
+            try {
+                wheel.advance(now, (entry) -> {
+                    entries.remove(entry.tokenHash);
+                    onExpired.accept(entry);
+                });
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return entries.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.jwt.repository;
+
+import com.example.jwt.entity.RefreshEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * max-sessions > 0 이면 로그인(save) 때마다 INSERT 후 RefreshRepository.evictOldest 로 가장 오래된 세션부터 정리
+ * -> 같은 사용자로 반복 로그인하는 클라이언트가 있어도 사용자당 행 수는 max-sessions 를 넘지 않음
+ *    INSERT 와 정리 DELETE 는 한 트랜잭션 (정리가 실패하면 INSERT 도 롤백 -> 상한을 넘는 행이 커밋되지 않음)
+ *    정리 전에 UserEntity 행을 잠가서 같은 사용자의 동시 로그인은 차례로 정리
+ *    -> 나중에 잠금을 얻은 트랜잭션의 DELETE 는 앞 트랜잭션이 커밋한 행까지 보고 지우므로 커밋 후 행 수는 max-sessions 이하
+ *    (UserEntity 에 없는 username 은 잠글 행이 없어서 동시 로그인 시 잠시 상한을 넘을 수 있음, 다음 로그인에서 정리)
+ */
+@Component
+@ConditionalOnProperty(name = "spring.jwt.refresh-store", havingValue = "jpa", matchIfMissing = true)
+public class JpaRefreshTokenStore implements RefreshTokenStore, SessionListingStore {
+    // 로그인 한 번에 지우는 최대 행 수 (상한 적용 전에 쌓인 행은 이후 로그인 / 만료 정리에서 나눠서 삭제)
+    static final int EVICT_LIMIT = 1000;
+
+    private final RefreshRepository refreshRepository;
+    private final int maxSessions;
+
+    public JpaRefreshTokenStore(RefreshRepository refreshRepository) {
+        this(refreshRepository, 0);
+    }
+
+    @Autowired
+    public JpaRefreshTokenStore(RefreshRepository refreshRepository,
+                                @Value("${spring.jwt.refresh-max-sessions:0}") int maxSessions) {
+        this.refreshRepository = refreshRepository;
+        this.maxSessions = maxSessions;
+    }
+
+    @Override
+    @Transactional
+    public void save(String username, String tokenHash, long expiresAt) {
+        save(username, tokenHash, expiresAt, null, null);
+    }
+
+    @Override
+    @Transactional
+    public void save(String username, String tokenHash, long expiresAt, String device, String ipAddress) {
+        RefreshEntity refreshEntity = new RefreshEntity();
+        refreshEntity.setUsername(username);
+        refreshEntity.setTokenHash(tokenHash);
+        refreshEntity.setExpiresAt(expiresAt);
+        refreshEntity.setIssuedAt(System.currentTimeMillis());
+        refreshEntity.setDevice(device);
+        refreshEntity.setIpAddress(ipAddress);
+
+        refreshRepository.save(refreshEntity);
+        evict(List.of(username));
+    }
+
+    /**
+     * 사용자마다 상한을 넘는 세션 정리 (호출하는 쪽의 트랜잭션 안에서)
+     * 잠금을 모두 잡은 뒤에 정리한다. (첫 DELETE 가 스냅샷을 만들기 전에 다른 트랜잭션의 커밋을 기다리도록)
+     * @param usernames 정렬된 목록 (노드마다 같은 순서로 잠가서 교착 방지)
+     * @return 삭제된 세션 수 (상한 없음 -> 0)
+     */
+    int evict(Collection<String> usernames) {
+        if (maxSessions <= 0) {
+            return 0;
+        }
+        usernames.forEach(refreshRepository::lockUser);
+        int evicted = 0;
+        for (String username : usernames) {
+            evicted += refreshRepository.evictOldest(username, maxSessions, EVICT_LIMIT);
+        }
+        return evicted;
+    }
+
+    @Override
+    public boolean rotate(String oldHash, String newHash, long expiresAt) {
+        return refreshRepository.rotate(oldHash, newHash, expiresAt) == 1;
+    }
+
+    @Override
+    public boolean revoke(String tokenHash) {
+        return refreshRepository.deleteByTokenHash(tokenHash) > 0;
+    }
+
+    @Override
+    public int revokeAll(String username) {
+        return refreshRepository.deleteByUsername(username);
+    }
+
+    @Override
+    public boolean exists(String tokenHash) {
+        return refreshRepository.existsByTokenHash(tokenHash);
+    }
+
+    @Override
+    public List<RefreshSession> sessions(String username, RefreshSession after, int limit) {
+        long afterExpiresAt = after != null ? after.getExpiresAt() : Long.MAX_VALUE;
+        long afterId = after != null ? after.getId() : Long.MAX_VALUE;
+        return refreshRepository.findSessions(username, System.currentTimeMillis(), afterExpiresAt, afterId,
+                PageRequest.ofSize(limit));
+    }
+
+    @Override
+    public boolean revokeSession(String username, long sessionId) {
+        return refreshRepository.deleteByIdAndUsername(sessionId, username) > 0;
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.jwt.repository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 메모리 매핑 파일 위의 open addressing(linear probing) 해시 테이블
+ *
+ * key : refresh 토큰 SHA-256 (32 byte = long 4개), value : expiresAt, userKey(username 다이제스트 앞 8 byte)
+ *
+ * 파일 구조
+ *  - 0 ~ 4KB : 헤더 (magic, capacity, live, tombstones, dirty)
+ *  - 이후     : 슬롯 64 byte * capacity (1GB 단위 세그먼트로 나눠서 매핑)
+ *      [0] state (0 empty, 1 live, 2 tombstone) [8] key 32 byte [40] expiresAt [48] userKey [56] 여분
+ *
+ * 한 번의 put/remove 는 슬롯 하나만 변경한다. (state 는 마지막에 기록)
+ * 그래서 크래시 후 일부 페이지만 디스크에 반영되어 있어도, 체크포인트 이후의 로그를 다시 적용하면 복구된다.
+ * 삭제는 tombstone 으로 표시하고, 삽입 시 재사용한다. tombstone 이 쌓이면 FileRefreshTokenStore 가 새 파일로 압축.
+ * 헤더의 카운터는 force() 시점에만 기록되므로, force() 이후 변경이 있었는데 크래시가 나면(dirty) 열 때 다시 센다.
+ *
+ * thread-safe 하지 않음. (FileRefreshTokenStore 의 락 안에서 사용)
+ */
+final class MappedTokenIndex implements Closeable {
+    static final int SLOT_BYTES = 64;
+    private static final int HEADER_BYTES = 4096;
+    private static final int SEGMENT_SHIFT = 24;
+    private static final long SEGMENT_SLOTS = 1L << SEGMENT_SHIFT;
+    private static final long MAGIC = 0x4A57545245465831L; // "JWTREFX1"
+
+    private static final long EMPTY = 0;
+    private static final long LIVE = 1;
+    private static final long TOMBSTONE = 2;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final MappedByteBuffer[] segments;
+    private final long capacity;
+    private final long mask;
+    private long live;
+    private long tombstones;
+    private boolean dirty;
+
+    private MappedTokenIndex(FileChannel channel, long capacity) throws IOException {
+        this.channel = channel;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+
+        int segmentCount = (int) ((capacity + SEGMENT_SLOTS - 1) >>> SEGMENT_SHIFT);
+        this.segments = new MappedByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            long slots = Math.min(SEGMENT_SLOTS, capacity - ((long) i << SEGMENT_SHIFT));
+            segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + ((long) i << SEGMENT_SHIFT) * SLOT_BYTES, slots * SLOT_BYTES);
+            segments[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * 파일이 없으면 capacity(2의 거듭제곱) 크기로 생성, 있으면 헤더를 검증하고 그대로 연다.
+     */
+    static MappedTokenIndex open(Path file, long capacity) throws IOException {
+        if (Long.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity 는 2의 거듭제곱이어야 합니다. : " + capacity);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            boolean created = channel.size() == 0;
+            if (!created && channel.size() != HEADER_BYTES + capacity * SLOT_BYTES) {
+                throw new IllegalStateException("index 파일 크기가 capacity 와 맞지 않습니다. : " + file);
+            }
+
+            MappedTokenIndex index = new MappedTokenIndex(channel, capacity);
+            if (created) {
+                index.header.putLong(0, MAGIC);
+                index.header.putLong(8, capacity);
+                index.force();
+            } else if (index.header.getLong(0) != MAGIC || index.header.getLong(8) != capacity) {
+                throw new IllegalStateException("refresh 토큰 index 파일이 아닙니다. : " + file);
+            } else if (index.header.getLong(32) != 0) {
+                index.recount();
+            } else {
+                index.live = index.header.getLong(16);
+                index.tombstones = index.header.getLong(24);
+            }
+            return index;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return key 가 저장된 슬롯 번호, 없으면 -1
+     */
+    long find(long[] key) {
+        long slot = home(key);
+        for (long probe = 0; probe < capacity; probe++, slot = (slot + 1) & mask) {
+            long state = state(slot);
+            if (state == EMPTY) {
+                return -1;
+            }
+            if (state == LIVE && keyEquals(slot, key)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    void put(long[] key, long expiresAt, long userKey) {
+        long slot = home(key);
+        long firstTombstone = -1;
+        for (long probe = 0; probe < capacity; probe++, slot = (slot + 1) & mask) {
+            long state = state(slot);
+            if (state == EMPTY) {
+                break;
+            }
+            if (state == TOMBSTONE) {
+                if (firstTombstone < 0) {
+                    firstTombstone = slot;
+                }
+            } else if (keyEquals(slot, key)) {
+                write(slot, key, expiresAt, userKey);
+                return;
+            }
+        }
+
+        if (firstTombstone >= 0) {
+            slot = firstTombstone;
+            tombstones--;
+        } else if (state(slot) != EMPTY || live + tombstones >= capacity - (capacity >>> 3)) {
+            // 빈 슬롯이 1/8 미만이면 탐색 길이가 급격히 늘어나므로 거부
+            throw new IllegalStateException("refresh 토큰 index 가 가득 찼습니다. (capacity " + capacity + ")");
+        }
+        write(slot, key, expiresAt, userKey);
+        live++;
+    }
+
+    boolean remove(long[] key) {
+        long slot = find(key);
+        if (slot < 0) {
+            return false;
+        }
+        removeAt(slot);
+        return true;
+    }
+
+    void removeAt(long slot) {
+        markDirty();
+        buffer(slot).putLong(offset(slot), TOMBSTONE);
+        live--;
+        tombstones++;
+    }
+
+    long expiresAt(long slot) {
+        return buffer(slot).getLong(offset(slot) + 40);
+    }
+
+    long userKey(long slot) {
+        return buffer(slot).getLong(offset(slot) + 48);
+    }
+
+    boolean isLive(long slot) {
+        return state(slot) == LIVE;
+    }
+
+    void readKey(long slot, long[] key) {
+        MappedByteBuffer buffer = buffer(slot);
+        int offset = offset(slot);
+        for (int i = 0; i < 4; i++) {
+            key[i] = buffer.getLong(offset + 8 + i * 8);
+        }
+    }
+
+    long capacity() {
+        return capacity;
+    }
+
+    long live() {
+        return live;
+    }
+
+    long tombstones() {
+        return tombstones;
+    }
+
+    /**
+     * 헤더에 카운터를 기록하고 매핑된 페이지를 디스크에 반영
+     */
+    void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+        header.putLong(16, live);
+        header.putLong(24, tombstones);
+        header.putLong(32, 0);
+        header.force();
+        dirty = false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * force() 이후 첫 변경 전에 dirty 표시를 디스크에 먼저 반영
+     */
+    private void markDirty() {
+        if (!dirty) {
+            header.putLong(32, 1);
+            header.force();
+            dirty = true;
+        }
+    }
+
+    private void recount() {
+        live = 0;
+        tombstones = 0;
+        for (long slot = 0; slot < capacity; slot++) {
+            long state = state(slot);
+            if (state == LIVE) {
+                live++;
+            } else if (state == TOMBSTONE) {
+                tombstones++;
+            }
+        }
+    }
+
+    private void write(long slot, long[] key, long expiresAt, long userKey) {
+        markDirty();
+        MappedByteBuffer buffer = buffer(slot);
+        int offset = offset(slot);
+        for (int i = 0; i < 4; i++) {
+            buffer.putLong(offset + 8 + i * 8, key[i]);
+        }
+        buffer.putLong(offset + 40, expiresAt);
+        buffer.putLong(offset + 48, userKey);
+        buffer.putLong(offset, LIVE);
+    }
+
+    private boolean keyEquals(long slot, long[] key) {
+        MappedByteBuffer buffer = buffer(slot);
+        int offset = offset(slot);
+        return buffer.getLong(offset + 8) == key[0]
+                && buffer.getLong(offset + 16) == key[1]
+                && buffer.getLong(offset + 24) == key[2]
+                && buffer.getLong(offset + 32) == key[3];
+    }
+
+    private long state(long slot) {
+        return buffer(slot).getLong(offset(slot));
+    }
+
+    private long home(long[] key) {
+        // key 는 SHA-256 이므로 앞 8 byte 만으로도 고르게 분포
+        return key[0] & mask;
+    }
+
+    private MappedByteBuffer buffer(long slot) {
+        return segments[(int) (slot >>> SEGMENT_SHIFT)];
+    }
+
+    private static int offset(long slot) {
+        return (int) ((slot & (SEGMENT_SLOTS - 1)) * SLOT_BYTES);
+    }
+}
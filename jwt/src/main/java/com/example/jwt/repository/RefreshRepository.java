@@ -1,12 +1,92 @@
 package com.example.jwt.repository;
 
 import com.example.jwt.entity.RefreshEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
+/**
+ * refresh 토큰은 TokenDigest.sha256Hex(token) 값(tokenHash)으로 조회한다. (unique 인덱스)
+ */
 public interface RefreshRepository extends JpaRepository<RefreshEntity, Long> {
-    Boolean existsByRefresh(@Param("refresh") String refresh);
+    Boolean existsByTokenHash(@Param("tokenHash") String tokenHash);
+
+    /**
+     * refresh rotate 를 한 문장으로 처리
+     * 이전 토큰 행이 아직 남아 있을 때만 새 토큰으로 교체한다. (조건부 update 는 행 락을 잡으므로 원자적)
+     * 반환값 0 -> 이미 사용된(rotate 된) 토큰이거나 저장되지 않은 토큰
+     */
+    @Transactional
+    @Modifying
+    @Query("update RefreshEntity r set r.tokenHash = :newHash, r.expiresAt = :expiresAt where r.tokenHash = :oldHash")
+    int rotate(@Param("oldHash") String oldHash, @Param("newHash") String newHash, @Param("expiresAt") long expiresAt);
+
+    /**
+     * 조회 없이 바로 delete. 삭제된 행 수로 존재 여부를 판단한다.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from RefreshEntity r where r.tokenHash = :tokenHash")
+    int deleteByTokenHash(@Param("tokenHash") String tokenHash);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RefreshEntity r where r.username = :username")
+    int deleteByUsername(@Param("username") String username);
+
+    /**
+     * 만료된 토큰을 만료 시각 순서로 한 청크씩 조회 (expiresAt 인덱스 범위 탐색)
+     * from : 이전 청크에서 마지막으로 지운 만료 시각 (keyset)
+     */
+    @Query("select r from RefreshEntity r where r.expiresAt >= :from and r.expiresAt < :now order by r.expiresAt")
+    List<RefreshEntity> findExpiredChunk(@Param("from") long from, @Param("now") long now, Pageable pageable);
+
+    long countByExpiresAtLessThan(long now);
+
+    /**
+     * 사용자의 만료되지 않은 세션을 (expiresAt, id) 내림차순으로 한 페이지 조회
+     * (username, expiresAt) 인덱스에서 username 이 같고 expiresAt 이 now ~ afterExpiresAt 인 범위만 읽음
+     *  -> 만료된 토큰이 아무리 많아도 읽지 않고, 뒤 페이지도 OFFSET 없이 이전 페이지 마지막 위치부터 시작
+     * 첫 페이지는 afterExpiresAt, afterId = Long.MAX_VALUE
+     */
+    @Query("select new com.example.jwt.repository.RefreshSession(r.id, r.issuedAt, r.expiresAt, r.device, r.ipAddress) " +
+            "from RefreshEntity r " +
+            "where r.username = :username and r.expiresAt > :now and r.expiresAt <= :afterExpiresAt " +
+            "and (r.expiresAt < :afterExpiresAt or r.id < :afterId) " +
+            "order by r.expiresAt desc, r.id desc")
+    List<RefreshSession> findSessions(@Param("username") String username, @Param("now") long now,
+                                      @Param("afterExpiresAt") long afterExpiresAt, @Param("afterId") long afterId,
+                                      Pageable pageable);
+
+    /**
+     * 사용자 행 잠금 (select ... for update, 트랜잭션 안에서 호출)
+     * 세션 정리 전에 사용자별로 줄을 세우기 위한 것 -> 먼저 잡은 트랜잭션이 커밋한 뒤에 다음 트랜잭션이 정리한다.
+     */
+    @Query(value = "select id from UserEntity where username = :username for update", nativeQuery = true)
+    List<Long> lockUser(@Param("username") String username);
+
+    /**
+     * 사용자의 세션 중 (expiresAt, id) 내림차순으로 keep 개를 넘는 세션을 최대 limit 개 삭제 (만료가 이른 것 = 가장 오래 쓰지 않은 세션)
+     * 개수를 세고 지우는 두 단계가 아니라 (username, expiresAt) 인덱스 순서로 경계를 찾아 한 문장으로 삭제
+     * 이 문장만으로는 동시 로그인에 원자적이지 않다. (MySQL REPEATABLE READ 에서 파생 테이블은 스냅샷을 읽으므로
+     * 다른 트랜잭션이 커밋 전에 넣은 행이 보이지 않음 -> 두 로그인이 같은 행을 골라 상한을 넘을 수 있음)
+     * 같은 트랜잭션에서 먼저 lockUser 로 사용자별로 줄을 세워야 한다. (JpaRefreshTokenStore.evict)
+     * MySQL 은 delete 대상 테이블을 서브쿼리에서 직접 읽거나 IN 서브쿼리에 LIMIT 를 쓸 수 없어서 파생 테이블로 감싼 native 쿼리
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "delete from RefreshEntity where username = :username and id in (" +
+            "select id from (select id from RefreshEntity where username = :username " +
+            "order by expiresAt desc, id desc limit :limit offset :keep) oldest)", nativeQuery = true)
+    int evictOldest(@Param("username") String username, @Param("keep") int keep, @Param("limit") int limit);
+
     @Transactional
-    void deleteByRefresh(String refresh);
+    @Modifying
+    @Query("delete from RefreshEntity r where r.id = :id and r.username = :username")
+    int deleteByIdAndUsername(@Param("id") long id, @Param("username") String username);
 }
@@ -0,0 +1,18 @@
+package com.example.jwt.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 세션 목록 한 행 (RefreshEntity 에서 토큰 해시를 뺀 것)
+ * id, expiresAt 은 다음 페이지 조회 위치(keyset)로도 사용
+ */
+@Getter
+@AllArgsConstructor
+public class RefreshSession {
+    private final Long id;
+    private final Long issuedAt;
+    private final Long expiresAt;
+    private final String device;
+    private final String ipAddress;
+}
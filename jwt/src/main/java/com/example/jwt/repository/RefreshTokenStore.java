@@ -0,0 +1,45 @@
+package com.example.jwt.repository;
+
+/**
+ * refresh 토큰 저장소
+ *
+ * LoginFilter(발급), ReissueService(rotate), CustomLogoutFilter(로그아웃)는 이 인터페이스만 사용한다.
+ * 토큰은 원문 대신 TokenDigest.sha256Hex(token) 값으로 다룬다.
+ *
+ * spring.jwt.refresh-store
+ *  - jpa (기본값) : JpaRefreshTokenStore, RefreshRepository(MySQL) 사용
+ *  - memory      : InMemoryRefreshTokenStore, 단일 노드/엣지 배포용 (재시작 시 토큰 유실)
+ *  - file        : FileRefreshTokenStore
+ * 세션 목록은 SessionListingStore 를 함께 구현한 저장소만 지원 (jpa, memory)
+ * 사용자당 세션 상한(spring.jwt.refresh-max-sessions)은 jpa, memory 저장소만 적용 (file 저장소는 username 인덱스가 없음)
+ */
+public interface RefreshTokenStore {
+    void save(String username, String tokenHash, long expiresAt);
+
+    /**
+     * 로그인 시 저장 (device : User-Agent, ipAddress : 접속 IP -> 세션 목록에 표시)
+     * 세션 목록을 지원하지 않는 저장소는 메타데이터 없이 저장
+     */
+    default void save(String username, String tokenHash, long expiresAt, String device, String ipAddress) {
+        save(username, tokenHash, expiresAt);
+    }
+
+    /**
+     * oldHash 가 아직 저장되어 있을 때만 newHash 로 교체 (원자적)
+     * @return false -> 이미 rotate 되었거나 저장되지 않은 토큰
+     */
+    boolean rotate(String oldHash, String newHash, long expiresAt);
+
+    /**
+     * @return false -> 저장되지 않은 토큰
+     */
+    boolean revoke(String tokenHash);
+
+    /**
+     * 해당 사용자의 모든 refresh 토큰 삭제 (모든 기기에서 로그아웃)
+     * @return 삭제된 토큰 수
+     */
+    int revokeAll(String username);
+
+    boolean exists(String tokenHash);
+}
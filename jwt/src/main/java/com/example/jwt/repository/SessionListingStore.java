@@ -0,0 +1,21 @@
+package com.example.jwt.repository;
+
+import java.util.List;
+
+/**
+ * 사용자별 세션 목록을 지원하는 refresh 토큰 저장소 (jpa, memory, write-behind)
+ *
+ * file 저장소는 username 인덱스가 없어서 구현하지 않음 -> RefreshSessionService 가 시작 시 확인하고 세션 API 를 끔
+ */
+public interface SessionListingStore {
+    /**
+     * 사용자의 만료되지 않은 세션을 (expiresAt, id) 내림차순으로 limit 개 (keyset 페이지)
+     * @param after 이전 페이지의 마지막 세션, 첫 페이지는 null
+     */
+    List<RefreshSession> sessions(String username, RefreshSession after, int limit);
+
+    /**
+     * 세션 하나 폐기 (다른 사용자의 세션 id 이면 false)
+     */
+    boolean revokeSession(String username, long sessionId);
+}
@@ -0,0 +1,167 @@
+package com.example.jwt.repository;
+
+import java.util.function.Consumer;
+
+/**
+ * 계층형 타이밍 휠 (hierarchical timing wheel)
+ *
+ * 만료 시각을 tick 단위로 나눠서 64칸짜리 휠 4단계에 넣어둔다.
+ *  - level 0 : 1 tick 단위 64칸
+ *  - level 1 : 64 tick 단위 64칸
+ *  - level 2 : 64^2 tick 단위 64칸
+ *  - level 3 : 64^3 tick 단위 64칸 (tick 1초 기준 약 194일)
+ * 상위 레벨 칸에 도달하면 그 칸의 엔트리를 하위 레벨로 내려보내고(cascade), level 0 칸에 도달하면 만료시킨다.
+ *
+ * 각 칸은 이중 연결 리스트라서 등록/취소/만료 모두 엔트리당 O(1) (cascade 는 최대 레벨 수만큼), 전체 스캔이 필요 없다.
+ *
+ * thread-safe 하지 않음. (호출하는 쪽의 락 안에서 사용)
+ */
+final class TimingWheel<T> {
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int LEVELS = 4;
+    private static final int MASK = SLOTS - 1;
+
+    private final long tickMs;
+    private final Timeout<T>[] slots;
+    // 휠 범위(64^4 tick)를 벗어나는 엔트리. 최상위 휠이 한 바퀴 돌 때 다시 배치
+    private final Timeout<T> overflow = Timeout.sentinel();
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMs, long startMs) {
+        this.tickMs = tickMs;
+        this.currentTick = startMs / tickMs;
+        this.slots = new Timeout[LEVELS * SLOTS];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = Timeout.sentinel();
+        }
+    }
+
+    /**
+     * @return 취소할 때 사용하는 핸들, 이미 만료 시각이 지났으면 null (등록하지 않음)
+     */
+    Timeout<T> schedule(T item, long expiresAtMs) {
+        // 만료 시각이 속한 tick 이 지나가야 만료 (올림)
+        long expireTick = (expiresAtMs + tickMs - 1) / tickMs;
+        if (expireTick <= currentTick) {
+            return null;
+        }
+        Timeout<T> timeout = new Timeout<>(item, expireTick);
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    void cancel(Timeout<T> timeout) {
+        if (timeout.linked()) {
+            timeout.unlink();
+            size--;
+        }
+    }
+
+    /**
+     * nowMs 까지 휠을 돌리면서 만료된 엔트리를 expired 로 전달한다.
+     */
+    void advance(long nowMs, Consumer<T> expired) {
+        long targetTick = nowMs / tickMs;
+        while (currentTick < targetTick) {
+            currentTick++;
+
+            if ((currentTick & ((1L << (BITS * LEVELS)) - 1)) == 0) {
+                cascade(overflow);
+            }
+            for (int level = LEVELS - 1; level >= 1; level--) {
+                if ((currentTick & ((1L << (BITS * level)) - 1)) == 0) {
+                    cascade(slot(level, (int) ((currentTick >>> (BITS * level)) & MASK)));
+                }
+            }
+
+            Timeout<T> due = slot(0, (int) (currentTick & MASK));
+            while (due.next != due) {
+                Timeout<T> timeout = due.next;
+                timeout.unlink();
+                size--;
+                expired.accept(timeout.item);
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void cascade(Timeout<T> bucket) {
+        // 다시 배치하는 동안 같은 칸에 들어올 수 있으므로 먼저 떼어낸다.
+        Timeout<T> first = bucket.next;
+        bucket.prev.next = null;
+        bucket.next = bucket;
+        bucket.prev = bucket;
+
+        for (Timeout<T> timeout = first; timeout != null && timeout != bucket; ) {
+            Timeout<T> next = timeout.next;
+            place(timeout);
+            timeout = next;
+        }
+    }
+
+    /**
+     * 현재 tick 과 같은 상위 구간을 공유하는 가장 낮은 레벨에 배치
+     * (level L 에 놓인 엔트리는 현재 tick 이 해당 칸에 도달하는 순간 cascade 된다)
+     */
+    private void place(Timeout<T> timeout) {
+        long diff = timeout.expireTick ^ currentTick;
+        for (int level = 0; level < LEVELS; level++) {
+            if ((diff >>> (BITS * (level + 1))) == 0) {
+                slot(level, (int) ((timeout.expireTick >>> (BITS * level)) & MASK)).append(timeout);
+                return;
+            }
+        }
+        overflow.append(timeout);
+    }
+
+    private Timeout<T> slot(int level, int index) {
+        return slots[level * SLOTS + index];
+    }
+
+    /**
+     * 휠에 등록된 엔트리 (칸마다 sentinel 을 head 로 하는 원형 이중 연결 리스트)
+     */
+    static final class Timeout<T> {
+        private final T item;
+        private final long expireTick;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(T item, long expireTick) {
+            this.item = item;
+            this.expireTick = expireTick;
+        }
+
+        private static <T> Timeout<T> sentinel() {
+            Timeout<T> sentinel = new Timeout<>(null, 0);
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            return sentinel;
+        }
+
+        private void append(Timeout<T> timeout) {
+            timeout.prev = prev;
+            timeout.next = this;
+            prev.next = timeout;
+            prev = timeout;
+        }
+
+        private boolean linked() {
+            return next != null;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.jwt.repository;
+
+import com.example.jwt.entity.UserGeneration;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface UserGenerationRepository extends JpaRepository<UserGeneration, String> {
+    // 세대 +1 (행이 없으면 0 반환 -> 호출 측에서 insert)
+    @Transactional
+    @Modifying
+    @Query("update UserGeneration g set g.generation = g.generation + 1, g.updatedAt = :now where g.username = :username")
+    int increment(@Param("username") String username, @Param("now") long now);
+}
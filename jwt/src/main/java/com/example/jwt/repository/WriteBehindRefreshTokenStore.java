@@ -0,0 +1,415 @@
+package com.example.jwt.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 로그인 시 refresh 토큰 INSERT 를 모아서 처리하는 write-behind 저장소 (spring.jwt.refresh-write-behind.enabled=true)
+ *
+ * 로그인 폭주(배포 직후 전체 클라이언트 재접속 등) 때 로그인 한 건마다 INSERT 트랜잭션 하나가 생기지 않도록
+ *  1. save 는 bounded 큐에 넣고 바로 반환 (큐가 가득 차면 요청 스레드에서 바로 INSERT)
+ *  2. flusher 스레드가 batch-size 개가 모이거나 max-delay 가 지나면 JDBC batch INSERT 하나의 트랜잭션으로 반영
+ *  3. 아직 반영되지 않은 토큰은 overlay 에서 조회 -> 반영 전에 재발급/로그아웃이 와도 DB 없이 처리
+ *  4. 종료 시 큐를 모두 비운 뒤 멈춤
+ *
+ * 반영되지 않은 토큰은 프로세스가 비정상 종료되면 사라진다. (해당 사용자는 다시 로그인)
+ * batch 가 제약 조건 위반 등으로 거부되거나 재시도를 MAX_FLUSH_ATTEMPTS 번 넘게 실패하면 한 행씩 반영하고 실패한 행은 버린다.
+ * (한 행 때문에 flusher 가 멈추지 않도록, 버린 행 수는 jwt.refresh.write-behind.dropped)
+ * 사용자당 세션 상한(refresh-max-sessions)은 batch INSERT 와 같은 트랜잭션에서 batch 에 포함된 사용자별로 적용
+ * (반영 전인 토큰은 세지 않으므로 max-delay 동안은 상한을 넘을 수 있음)
+ * 그 외 동작(rotate 의 원자성 등)은 JpaRefreshTokenStore 와 같다.
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(name = "spring.jwt.refresh-write-behind.enabled", havingValue = "true")
+public class WriteBehindRefreshTokenStore implements RefreshTokenStore, SessionListingStore {
+    private static final String INSERT = "insert into RefreshEntity (username, tokenHash, expiresAt, issuedAt, device, ipAddress) values (?, ?, ?, ?, ?, ?)";
+    // flush 중인 토큰을 rotate/revoke 할 때 반영을 기다리는 최대 시간
+    private static final long FLUSH_WAIT_MS = 5_000L;
+    // batch 반영 재시도 횟수 (DB 장애 등), 넘으면 한 행씩 반영하고 실패한 행은 버림
+    private static final int MAX_FLUSH_ATTEMPTS = 5;
+
+    private static final int PENDING = 0;
+    private static final int FLUSHING = 1;
+    private static final int FLUSHED = 2;
+    private static final int CANCELLED = 3;
+
+    private final JpaRefreshTokenStore delegate;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long maxDelayNanos;
+
+    private final BlockingQueue<PendingToken> queue;
+    private final ConcurrentHashMap<String, PendingToken> overlay = new ConcurrentHashMap<>();
+    private final Thread flusher;
+    private volatile boolean closed;
+    // flusher 스레드에서만 사용
+    private int failedAttempts;
+
+    private final Counter flushedRows;
+    private final Counter flushedBatches;
+    private final Counter directInserts;
+    private final Counter droppedRows;
+
+    public WriteBehindRefreshTokenStore(JpaRefreshTokenStore delegate,
+                                        JdbcTemplate jdbcTemplate,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${spring.jwt.refresh-write-behind.queue-capacity:10000}") int queueCapacity,
+                                        @Value("${spring.jwt.refresh-write-behind.batch-size:500}") int batchSize,
+                                        @Value("${spring.jwt.refresh-write-behind.max-delay:50ms}") Duration maxDelay,
+                                        MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        Gauge.builder("jwt.refresh.write-behind.queue", queue, BlockingQueue::size).register(meterRegistry);
+        this.flushedRows = Counter.builder("jwt.refresh.write-behind.rows").register(meterRegistry);
+        this.flushedBatches = Counter.builder("jwt.refresh.write-behind.batches").register(meterRegistry);
+        this.directInserts = Counter.builder("jwt.refresh.write-behind.direct").register(meterRegistry);
+        this.droppedRows = Counter.builder("jwt.refresh.write-behind.dropped").register(meterRegistry);
+
+        this.flusher = new Thread(this::flushLoop, "refresh-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @Override
+    public void save(String username, String tokenHash, long expiresAt) {
+        save(username, tokenHash, expiresAt, null, null);
+    }
+
+    @Override
+    public void save(String username, String tokenHash, long expiresAt, String device, String ipAddress) {
+        enqueue(new PendingToken(username, tokenHash, expiresAt, System.currentTimeMillis(), device, ipAddress));
+    }
+
+    private void enqueue(PendingToken pending) {
+        overlay.put(pending.tokenHash, pending);
+
+        if (closed || !queue.offer(pending)) {
+            // 큐가 가득 찼거나 종료 중 -> 요청 스레드에서 바로 INSERT (대기열이 무한히 늘어나지 않도록)
+            overlay.remove(pending.tokenHash, pending);
+            delegate.save(pending.username, pending.tokenHash, pending.expiresAt, pending.device, pending.ipAddress);
+            directInserts.increment();
+        }
+    }
+
+    @Override
+    public boolean rotate(String oldHash, String newHash, long expiresAt) {
+        PendingToken pending = overlay.get(oldHash);
+        if (pending != null) {
+            int claimed = pending.claim();
+            if (claimed == PENDING) {
+                // 아직 DB 에 반영되지 않은 토큰 -> DB 를 거치지 않고 교체 (세션 정보는 유지)
+                overlay.remove(oldHash, pending);
+                enqueue(new PendingToken(pending.username, newHash, expiresAt, pending.issuedAt, pending.device, pending.ipAddress));
+                return true;
+            }
+            if (claimed != FLUSHED) {
+                return false;
+            }
+        }
+        return delegate.rotate(oldHash, newHash, expiresAt);
+    }
+
+    @Override
+    public boolean revoke(String tokenHash) {
+        PendingToken pending = overlay.get(tokenHash);
+        if (pending != null) {
+            int claimed = pending.claim();
+            if (claimed == PENDING) {
+                overlay.remove(tokenHash, pending);
+                return true;
+            }
+            if (claimed != FLUSHED) {
+                return false;
+            }
+        }
+        return delegate.revoke(tokenHash);
+    }
+
+    @Override
+    public int revokeAll(String username) {
+        int revoked = 0;
+        for (PendingToken pending : overlay.values()) {
+            if (!pending.username.equals(username)) {
+                continue;
+            }
+            // 반영된 토큰은 아래 delegate.revokeAll 에서 삭제
+            if (pending.claim() == PENDING) {
+                overlay.remove(pending.tokenHash, pending);
+                revoked++;
+            }
+        }
+        return revoked + delegate.revokeAll(username);
+    }
+
+    @Override
+    public boolean exists(String tokenHash) {
+        PendingToken pending = overlay.get(tokenHash);
+        if (pending != null && pending.state.get() != CANCELLED) {
+            return true;
+        }
+        return delegate.exists(tokenHash);
+    }
+
+    /**
+     * 반영된 세션만 조회 (방금 로그인한 세션은 max-delay 이내에 나타남)
+     */
+    @Override
+    public List<RefreshSession> sessions(String username, RefreshSession after, int limit) {
+        return delegate.sessions(username, after, limit);
+    }
+
+    @Override
+    public boolean revokeSession(String username, long sessionId) {
+        return delegate.revokeSession(username, sessionId);
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    /**
+     * 새 토큰은 바로 INSERT 하도록 바꾸고, 큐에 남은 토큰을 모두 반영한 뒤 flusher 종료
+     */
+    @PreDestroy
+    public void close() throws InterruptedException {
+        closed = true;
+        flusher.interrupt();
+        flusher.join();
+    }
+
+    private void flushLoop() {
+        List<PendingToken> batch = new ArrayList<>(batchSize);
+        while (true) {
+            try {
+                if (!collect(batch)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                // 종료 요청 -> 남은 큐는 아래에서 모두 반영
+                break;
+            }
+            flush(batch);
+        }
+
+        Thread.interrupted();
+        while (!queue.isEmpty() || !batch.isEmpty()) {
+            queue.drainTo(batch, batchSize - batch.size());
+            if (!flush(batch)) {
+                log.error("refresh token write-behind stopped with {} unflushed rows", batch.size() + queue.size());
+                return;
+            }
+        }
+    }
+
+    /**
+     * batch-size 개가 모이거나, 첫 토큰이 들어온 뒤 max-delay 가 지날 때까지 모은다.
+     * @return false -> 종료
+     */
+    private boolean collect(List<PendingToken> batch) throws InterruptedException {
+        if (batch.isEmpty()) {
+            PendingToken first = queue.poll(100, TimeUnit.MILLISECONDS);
+            if (first == null) {
+                return !closed;
+            }
+            batch.add(first);
+        }
+
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                break;
+            }
+            PendingToken next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return true;
+    }
+
+    /**
+     * @return false -> DB 반영 실패 (batch 는 그대로 남겨 재시도)
+     */
+    private boolean flush(List<PendingToken> batch) {
+        List<PendingToken> flushing = new ArrayList<>(batch.size());
+        for (PendingToken pending : batch) {
+            // 반영 전에 rotate/revoke 된 토큰은 제외
+            if (pending.state.compareAndSet(PENDING, FLUSHING)) {
+                flushing.add(pending);
+            }
+        }
+        if (flushing.isEmpty()) {
+            batch.clear();
+            return true;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult((status) -> {
+                jdbcTemplate.batchUpdate(INSERT, flushing, flushing.size(), (ps, pending) -> bind(ps, pending));
+                Set<String> usernames = new TreeSet<>();
+                flushing.forEach((pending) -> usernames.add(pending.username));
+                delegate.evict(usernames);
+            });
+        } catch (NonTransientDataAccessException e) {
+            // 제약 조건 위반 등 특정 행 때문에 실패 -> 한 행씩 반영하고 실패한 행만 버림
+            log.warn("refresh token write-behind batch rejected ({} rows), flushing row by row", flushing.size(), e);
+            flushEach(flushing);
+            batch.clear();
+            return true;
+        } catch (RuntimeException e) {
+            // 트랜잭션 전체가 롤백됨 -> 다시 PENDING 으로 돌리고 다음 주기에 재시도 (최대 MAX_FLUSH_ATTEMPTS 번)
+            if (++failedAttempts >= MAX_FLUSH_ATTEMPTS) {
+                log.error("refresh token write-behind flush failed {} times ({} rows), flushing row by row",
+                        failedAttempts, flushing.size(), e);
+                flushEach(flushing);
+                batch.clear();
+                return true;
+            }
+            log.error("refresh token write-behind flush failed ({} rows), retrying", flushing.size(), e);
+            // 반영을 기다리던 rotate/revoke 는 깨어나서 다시 취소를 시도
+            flushing.forEach((pending) -> pending.settle(PENDING));
+            if (!closed) {
+                backoff();
+            }
+            return false;
+        }
+
+        flushing.forEach(this::flushed);
+        flushedBatches.increment();
+        batch.clear();
+        return true;
+    }
+
+    /**
+     * 한 행씩 각자의 트랜잭션으로 반영, 실패한 행은 로그를 남기고 버림 (해당 사용자는 다시 로그인)
+     */
+    private void flushEach(List<PendingToken> flushing) {
+        failedAttempts = 0;
+        for (PendingToken pending : flushing) {
+            try {
+                transactionTemplate.executeWithoutResult((status) -> {
+                    jdbcTemplate.update(INSERT, (ps) -> bind(ps, pending));
+                    delegate.evict(List.of(pending.username));
+                });
+                flushed(pending);
+            } catch (RuntimeException e) {
+                log.error("refresh token write-behind dropped token of {}", pending.username, e);
+                overlay.remove(pending.tokenHash, pending);
+                // 반영을 기다리던 rotate/revoke 는 실패
+                pending.settle(CANCELLED);
+                droppedRows.increment();
+            }
+        }
+    }
+
+    private void flushed(PendingToken pending) {
+        pending.settle(FLUSHED);
+        overlay.remove(pending.tokenHash, pending);
+        flushedRows.increment();
+    }
+
+    private static void bind(PreparedStatement ps, PendingToken pending) throws SQLException {
+        ps.setString(1, pending.username);
+        ps.setString(2, pending.tokenHash);
+        ps.setLong(3, pending.expiresAt);
+        ps.setLong(4, pending.issuedAt);
+        ps.setString(5, pending.device);
+        ps.setString(6, pending.ipAddress);
+    }
+
+    private void backoff() {
+        try {
+            Thread.sleep(1_000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class PendingToken {
+        final String username;
+        final String tokenHash;
+        final long expiresAt;
+        final long issuedAt;
+        final String device;
+        final String ipAddress;
+        final AtomicInteger state = new AtomicInteger(PENDING);
+
+        PendingToken(String username, String tokenHash, long expiresAt, long issuedAt, String device, String ipAddress) {
+            this.username = username;
+            this.tokenHash = tokenHash;
+            this.expiresAt = expiresAt;
+            this.issuedAt = issuedAt;
+            this.device = device;
+            this.ipAddress = ipAddress;
+        }
+
+        /**
+         * 반영 전이면 취소 (rotate/revoke 의 성공 지점), flush 중이면 결과가 나올 때까지 대기
+         * flush 가 실패해서 PENDING 으로 돌아오면 다시 취소를 시도한다.
+         * @return PENDING -> 이 호출이 취소함, FLUSHED -> DB 에 반영됨 (DB 에서 처리),
+         *         CANCELLED -> 다른 요청이 취소했거나 버려진 토큰, FLUSHING -> FLUSH_WAIT_MS 초과
+         */
+        synchronized int claim() {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FLUSH_WAIT_MS);
+            while (true) {
+                if (state.compareAndSet(PENDING, CANCELLED)) {
+                    return PENDING;
+                }
+                int current = state.get();
+                long remaining = deadline - System.nanoTime();
+                if (current != FLUSHING || remaining <= 0) {
+                    return current;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return FLUSHING;
+                }
+            }
+        }
+
+        /**
+         * flush 결과 기록 (FLUSHED, CANCELLED, 재시도면 PENDING) 후 claim 에서 기다리는 요청을 깨움
+         */
+        synchronized void settle(int result) {
+            state.set(result);
+            notifyAll();
+        }
+    }
+}
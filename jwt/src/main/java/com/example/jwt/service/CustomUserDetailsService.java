@@ -5,18 +5,24 @@ import com.example.jwt.dto.CustomUserDetails;
 import com.example.jwt.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        // DB 에서 조회
+        // 캐시에 없을 때만 DB 에서 조회 (없는 사용자도 잠깐 캐시)
+        return userDetailsCache.get(username, this::loadFromDatabase);
+    }
+
+    private UserDetails loadFromDatabase(String username) {
         UserEntity userData = userRepository.findByUsername(username);
 
         if (userData != null) {
@@ -25,4 +31,17 @@ public class CustomUserDetailsService implements UserDetailsService {
         }
         return null;
     }
+
+    // 로그인 성공 후 저장된 해시가 현재 설정(cost)과 다르면 DaoAuthenticationProvider 가 호출
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserEntity userData = userRepository.findByUsername(user.getUsername());
+        if (userData == null || userRepository.updatePassword(user.getUsername(), newPassword) == 0) {
+            return user;
+        }
+        userDetailsCache.invalidate(user.getUsername());
+
+        userData.setPassword(newPassword);
+        return new CustomUserDetails(userData);
+    }
 }
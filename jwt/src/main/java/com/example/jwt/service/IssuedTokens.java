@@ -0,0 +1,19 @@
+package com.example.jwt.service;
+
+import lombok.Getter;
+
+/**
+ * 재발급 결과 (access, refresh 토큰 한 쌍)
+ */
+@Getter
+public final class IssuedTokens {
+    private final String username;
+    private final String access;
+    private final String refresh;
+
+    public IssuedTokens(String username, String access, String refresh) {
+        this.username = username;
+        this.access = access;
+        this.refresh = refresh;
+    }
+}
@@ -4,31 +4,50 @@ import com.example.jwt.dto.JoinDto;
 import com.example.jwt.entity.UserEntity;
 import com.example.jwt.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
 public class JoinService {
     private final UserRepository userRepository;
-    private final BCryptPasswordEncoder bCryptPasswordEncoder;
+    private final PasswordEncoder passwordEncoder;
+    private final UserDetailsCache userDetailsCache;
+    // spring.jwt.username-filter.enabled=false 이면 없음
+    private final ObjectProvider<UsernameExistenceFilter> usernameFilter;
 
     public void join(JoinDto joinDto){
         String username = joinDto.getUsername();
         String password = joinDto.getPassword();
 
-        Boolean isExist = userRepository.existsByUsername(username);
+        // Bloom filter 에 없으면 확실히 새 username -> exists 쿼리 생략
+        UsernameExistenceFilter filter = usernameFilter.getIfAvailable();
+        if (filter == null || filter.mightExist(username)) {
+            Boolean isExist = userRepository.existsByUsername(username);
 
-        if(isExist){
-            return;
+            if(isExist){
+                return;
+            }
         }
 
         UserEntity data = new UserEntity();
 
         data.setUsername(username);
-        data.setPassword(bCryptPasswordEncoder.encode(password));
-        data.setRole("ROLE_ADMIN");
+        data.setPassword(passwordEncoder.encode(password));
+        data.setRole("ROLE_USER");
 
-        userRepository.save(data);
+        try {
+            userRepository.save(data);
+        } catch (DataIntegrityViolationException e) {
+            // 확인 후 저장 사이에 같은 username 이 먼저 가입됨 (unique 제약이 최종 판단)
+            return;
+        }
+        if (filter != null) {
+            filter.add(username);
+        }
+        // 가입 전에 캐시된 "없는 사용자" 결과 제거
+        userDetailsCache.invalidate(username);
     }
 }
@@ -0,0 +1,30 @@
+package com.example.jwt.service;
+
+import com.example.jwt.jwt.UserGenerations;
+import com.example.jwt.repository.RefreshTokenStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+/**
+ * 모든 기기에서 로그아웃
+ *  - 세대 번호 +1 : 이미 발급된 access / refresh 토큰 모두 무효 (JWTFilter, ReissueService 에서 거절)
+ *  - 저장된 refresh 토큰 삭제 : 저장소 정리
+ *  - 재발급 grace-window 에 보관된 결과 제거
+ */
+@Service
+@RequiredArgsConstructor
+public class LogoutAllService {
+    private final UserGenerations userGenerations;
+    private final RefreshTokenStore refreshTokenStore;
+    private final ReissueCoalescer reissueCoalescer;
+
+    public Map<String, Object> logoutAll(String username) {
+        int generation = userGenerations.bump(username);
+        int revoked = refreshTokenStore.revokeAll(username);
+        reissueCoalescer.invalidateUser(username);
+
+        return Map.of("username", username, "generation", generation, "revokedRefreshTokens", revoked);
+    }
+}
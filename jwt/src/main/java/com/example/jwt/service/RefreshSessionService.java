@@ -0,0 +1,77 @@
+package com.example.jwt.service;
+
+import com.example.jwt.repository.RefreshSession;
+import com.example.jwt.repository.SessionListingStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 사용자별 활성 세션(만료되지 않은 refresh 토큰) 목록 / 세션 하나 로그아웃
+ *
+ * 목록은 만료 시각이 늦은 순서, 다음 페이지는 cursor("expiresAt.id") 로 이어서 조회 (OFFSET 없음)
+ *  -> 페이지를 넘겨도 비용이 같고, 조회 중에 세션이 추가/삭제되어도 항목이 밀리거나 중복되지 않음
+ * 저장소가 SessionListingStore 를 구현해야 사용 가능 (jpa, memory, write-behind)
+ * 시작 시 한 번 확인 -> 구현하지 않은 저장소(file)면 enabled=false, 세션 API 는 404 disabled
+ */
+@Slf4j
+@Service
+public class RefreshSessionService {
+    static final int MAX_LIMIT = 200;
+
+    // 세션 목록을 지원하지 않는 저장소면 null
+    private final SessionListingStore sessionStore;
+
+    public RefreshSessionService(ObjectProvider<SessionListingStore> sessionStore) {
+        this.sessionStore = sessionStore.getIfAvailable();
+        if (this.sessionStore == null) {
+            log.info("refresh store does not support session listing : /admin/users/{username}/sessions disabled");
+        }
+    }
+
+    public boolean isEnabled() {
+        return sessionStore != null;
+    }
+
+    public Map<String, Object> sessions(String username, int limit, String after) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive");
+        }
+        limit = Math.min(limit, MAX_LIMIT);
+
+        List<RefreshSession> sessions = sessionStore.sessions(username, parseCursor(after), limit);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("sessions", sessions);
+        // 마지막 페이지면 null
+        result.put("next", sessions.size() < limit ? null : cursor(sessions.get(sessions.size() - 1)));
+        return result;
+    }
+
+    public boolean revoke(String username, long sessionId) {
+        return sessionStore.revokeSession(username, sessionId);
+    }
+
+    static String cursor(RefreshSession session) {
+        return session.getExpiresAt() + "." + session.getId();
+    }
+
+    static RefreshSession parseCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        int dot = cursor.indexOf('.');
+        try {
+            return new RefreshSession(Long.parseLong(cursor.substring(dot + 1)), null,
+                    Long.parseLong(cursor.substring(0, Math.max(dot, 0))), null, null);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid cursor");
+        }
+    }
+}
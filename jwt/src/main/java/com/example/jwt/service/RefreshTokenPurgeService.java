@@ -0,0 +1,148 @@
+package com.example.jwt.service;
+
+import com.example.jwt.entity.RefreshEntity;
+import com.example.jwt.repository.RefreshRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 만료된 refresh 토큰 정리 (ReissueService 주석의 "주기적으로 배치 or 스케줄링 통해 삭제 필요")
+ *
+ * 한 번에 전부 지우면 긴 트랜잭션 동안 테이블 락을 오래 잡게 되므로
+ *  1. 만료 시각 순서로 batchSize 개씩 조회 (expiresAt 인덱스)
+ *  2. 청크 단위로 id IN (...) 삭제 -> 청크마다 짧은 트랜잭션
+ *  3. 청크 사이에 pause 만큼 쉬어서 다른 요청이 DB 를 사용할 수 있도록 함
+ *
+ * 재시작 : 오래된 토큰부터 지우므로 남아 있는 만료 토큰 중 가장 오래된 것이 곧 중단 지점이다.
+ *         (중단/종료 후 다음 실행은 자연스럽게 그 지점부터 이어서 진행)
+ *         실행 중에는 마지막으로 지운 만료 시각을 keyset 으로 사용해서 이미 지운 구간을 다시 탐색하지 않음.
+ *
+ * JPA 저장소를 사용할 때만 등록 (메모리 저장소는 타이밍 휠로 만료 처리)
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "spring.jwt.refresh-store", havingValue = "jpa", matchIfMissing = true)
+public class RefreshTokenPurgeService {
+    private final RefreshRepository refreshRepository;
+    private final int batchSize;
+    private final Duration pause;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile boolean stopRequested;
+    private volatile long watermark;
+    @Getter
+    private volatile PurgeReport lastReport = new PurgeReport(0, 0, 0, 0);
+
+    public RefreshTokenPurgeService(RefreshRepository refreshRepository,
+                                    @Value("${spring.jwt.refresh-purge.batch-size:1000}") int batchSize,
+                                    @Value("${spring.jwt.refresh-purge.pause:100ms}") Duration pause,
+                                    MeterRegistry meterRegistry) {
+        this.refreshRepository = refreshRepository;
+        this.batchSize = batchSize;
+        this.pause = pause;
+
+        Gauge.builder("jwt.refresh.purge.rate", this, (service) -> service.lastReport.getRowsPerSecond())
+                .description("rows deleted per second in the last purge run")
+                .register(meterRegistry);
+        Gauge.builder("jwt.refresh.purge.backlog", this, (service) -> service.lastReport.getBacklog())
+                .description("expired refresh tokens left after the last purge run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${spring.jwt.refresh-purge.interval:PT10M}", initialDelayString = "${spring.jwt.refresh-purge.interval:PT10M}")
+    public void scheduledPurge() {
+        purgeExpired(System.currentTimeMillis());
+    }
+
+    /**
+     * now 이전에 만료된 토큰을 모두 지울 때까지 청크 단위로 삭제한다.
+     * 이미 실행 중이면 바로 반환. stop() 이 호출되면 현재 청크까지만 지우고 멈춘다.
+     */
+    public PurgeReport purgeExpired(long now) {
+        if (!running.compareAndSet(false, true)) {
+            return lastReport;
+        }
+
+        long started = System.nanoTime();
+        long deleted = 0;
+        try {
+            while (!stopRequested) {
+                List<RefreshEntity> chunk = refreshRepository.findExpiredChunk(watermark, now, PageRequest.ofSize(batchSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+
+                refreshRepository.deleteAllByIdInBatch(chunk.stream().map(RefreshEntity::getId).toList());
+                deleted += chunk.size();
+                watermark = chunk.get(chunk.size() - 1).getExpiresAt();
+
+                if (chunk.size() < batchSize) {
+                    break;
+                }
+                pause();
+            }
+        } finally {
+            long elapsedNanos = System.nanoTime() - started;
+            lastReport = new PurgeReport(deleted, elapsedNanos / 1_000_000, rowsPerSecond(deleted, elapsedNanos),
+                    refreshRepository.countByExpiresAtLessThan(now));
+            running.set(false);
+        }
+
+        log.info("refresh token purge : deleted={}, elapsed={}ms, rows/s={}, backlog={}",
+                lastReport.getDeleted(), lastReport.getElapsedMillis(), lastReport.getRowsPerSecond(), lastReport.getBacklog());
+        return lastReport;
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopRequested = true;
+    }
+
+    public void resume() {
+        stopRequested = false;
+    }
+
+    private void pause() {
+        if (pause.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(pause.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopRequested = true;
+        }
+    }
+
+    private static long rowsPerSecond(long deleted, long elapsedNanos) {
+        return elapsedNanos == 0 ? 0 : deleted * 1_000_000_000L / elapsedNanos;
+    }
+
+    @Getter
+    public static final class PurgeReport {
+        private final long deleted;
+        private final long elapsedMillis;
+        private final long rowsPerSecond;
+        // 실행이 끝난 시점에 남아 있는 만료 토큰 수
+        private final long backlog;
+
+        public PurgeReport(long deleted, long elapsedMillis, long rowsPerSecond, long backlog) {
+            this.deleted = deleted;
+            this.elapsedMillis = elapsedMillis;
+            this.rowsPerSecond = rowsPerSecond;
+            this.backlog = backlog;
+        }
+    }
+}
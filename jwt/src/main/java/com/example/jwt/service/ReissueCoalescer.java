@@ -0,0 +1,114 @@
+package com.example.jwt.service;
+
+import com.example.jwt.jwt.TokenDigest;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * 같은 refresh 토큰으로 동시에 들어온 재발급 요청 합치기 (single-flight)
+ *
+ * 클라이언트가 탭 여러 개 / 병렬 요청으로 access 만료 직후 같은 쿠키로 /reissue 를 여러 번 보내면
+ * 하나만 rotate 에 성공하고 나머지는 모두 400 -> 사용자 입장에서는 로그아웃된 것처럼 보인다.
+ *
+ *  - 처음 요청만 rotate 를 실행하고, 실행 중에 들어온 같은 토큰의 요청은 그 결과를 함께 받는다. (DB 접근 없음)
+ *  - 성공한 결과는 grace-window 동안 보관 -> 직후에 도착한 요청도 같은 토큰 쌍을 받는다.
+ *    (그 시간 동안은 이전 refresh 토큰으로도 같은 결과를 받을 수 있으므로 짧게 유지)
+ *  - 실패/예외는 보관하지 않음
+ *  - 로그아웃 / 모든 기기에서 로그아웃 시 보관 중인 결과도 버림 (invalidate, invalidateUser)
+ *    -> 로그아웃 직후 탈취된 이전 refresh 쿠키를 보내도 보관된 토큰 쌍을 받지 못함
+ */
+@Component
+public class ReissueCoalescer {
+    private final ConcurrentMap<String, CompletableFuture<IssuedTokens>> inflight;
+    // 재발급으로 받은 refresh 토큰 digest -> 재발급에 사용한 refresh 토큰 digest (보관 기간 동안만)
+    private final ConcurrentMap<String, String> issuedFrom;
+    private final Counter joinedInflight;
+    private final Counter servedFromGrace;
+
+    public ReissueCoalescer(@Value("${spring.jwt.reissue.grace-window:5s}") Duration graceWindow,
+                            MeterRegistry meterRegistry) {
+        Cache<String, CompletableFuture<IssuedTokens>> cache = Caffeine.newBuilder()
+                .expireAfterWrite(graceWindow)
+                .maximumSize(100_000)
+                .build();
+        this.inflight = cache.asMap();
+        Cache<String, String> issuedFromCache = Caffeine.newBuilder()
+                .expireAfterWrite(graceWindow)
+                .maximumSize(100_000)
+                .build();
+        this.issuedFrom = issuedFromCache.asMap();
+        this.joinedInflight = Counter.builder("jwt.reissue.coalesced").tag("source", "inflight").register(meterRegistry);
+        this.servedFromGrace = Counter.builder("jwt.reissue.coalesced").tag("source", "grace").register(meterRegistry);
+    }
+
+    /**
+     * @param refreshHash 요청 refresh 토큰의 digest
+     * @param rotation    실제 재발급 (실패 시 null)
+     */
+    public IssuedTokens reissue(String refreshHash, Supplier<IssuedTokens> rotation) {
+        CompletableFuture<IssuedTokens> mine = new CompletableFuture<>();
+        CompletableFuture<IssuedTokens> existing = inflight.putIfAbsent(refreshHash, mine);
+        if (existing != null) {
+            (existing.isDone() ? servedFromGrace : joinedInflight).increment();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        IssuedTokens issued;
+        try {
+            issued = rotation.get();
+        } catch (RuntimeException e) {
+            inflight.remove(refreshHash, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+
+        if (issued == null) {
+            inflight.remove(refreshHash, mine);
+        } else {
+            // grace-window 는 rotate 가 끝난 시점부터
+            inflight.replace(refreshHash, mine, mine);
+            issuedFrom.put(TokenDigest.sha256Hex(issued.getRefresh()), refreshHash);
+        }
+        mine.complete(issued);
+        return issued;
+    }
+
+    /**
+     * 로그아웃한 refresh 토큰으로 보관된 결과, 그 토큰을 발급한 이전 재발급의 결과까지 버림
+     * (이전 토큰으로 다시 요청하면 로그아웃한 토큰 쌍을 받게 되므로)
+     */
+    public void invalidate(String refreshHash) {
+        String hash = refreshHash;
+        while (hash != null) {
+            inflight.remove(hash);
+            hash = issuedFrom.remove(hash);
+        }
+    }
+
+    /**
+     * 해당 사용자에게 보관된 결과 모두 버림 (모든 기기에서 로그아웃)
+     */
+    public void invalidateUser(String username) {
+        inflight.values().removeIf((future) -> {
+            IssuedTokens issued = future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+            return issued != null && issued.getUsername().equals(username);
+        });
+    }
+}
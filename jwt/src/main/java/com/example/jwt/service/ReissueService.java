@@ -1,8 +1,9 @@
 package com.example.jwt.service;
 
-import com.example.jwt.entity.RefreshEntity;
+import com.example.jwt.jwt.JWTClaims;
 import com.example.jwt.jwt.JWTUtil;
-import com.example.jwt.repository.RefreshRepository;
+import com.example.jwt.jwt.TokenDigest;
+import com.example.jwt.repository.RefreshTokenStore;
 import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
@@ -13,13 +14,13 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
 import java.util.Arrays;
-import java.util.Date;
 
 @Service
 @RequiredArgsConstructor
 public class ReissueService {
     private final JWTUtil jwtUtil;
-    private final RefreshRepository refreshRepository;
+    private final RefreshTokenStore refreshTokenStore;
+    private final ReissueCoalescer reissueCoalescer;
 
     public ResponseEntity<?> reissueToken(HttpServletRequest request, HttpServletResponse response) {
         // get refresh token
@@ -35,29 +36,47 @@ public class ReissueService {
         }
 
         // expired check
+        JWTClaims claims;
         try {
-            jwtUtil.isExpired(refresh);
+            claims = jwtUtil.parse(refresh);
         } catch(ExpiredJwtException e){
             // response status code
             return new ResponseEntity("access token expired", HttpStatus.BAD_REQUEST);
         }
 
         // 토큰이 refresh 인지 확인 (발급 시 페이로드에 명시)
-        if (!jwtUtil.getCategory(refresh).equals("refresh")) {
+        // 모든 기기에서 로그아웃 이전에 발급된 토큰도 거절
+        if (!claims.isCategory("refresh") || jwtUtil.isStaleGeneration(claims)) {
             // response status code
             return new ResponseEntity<>("invalid refresh token", HttpStatus.BAD_REQUEST);
         }
 
-        String username = jwtUtil.getUsername(refresh);
-        String role = jwtUtil.getRole(refresh);
-
-        // DB 에 저장되어 있는지 확인
-        Boolean isExist = refreshRepository.existsByRefresh(refresh);
-        if(!isExist){
+        // 같은 토큰으로 동시에 들어온 요청은 한 번만 rotate 하고 같은 결과를 받음
+        String refreshHash = TokenDigest.sha256Hex(refresh);
+        IssuedTokens issued = reissueCoalescer.reissue(refreshHash, () -> rotate(refreshHash, claims));
+        if (issued == null) {
             // response status code
             return new ResponseEntity<>("invalid refresh token", HttpStatus.BAD_REQUEST);
         }
 
+        /**
+         * 모든 계정에서 로그아웃 시 username 을 사용하여 모든 액세스 토큰 삭제 가능.
+         */
+
+        // response
+        response.setHeader("access", issued.getAccess());
+        response.addCookie(createCookie("refresh", issued.getRefresh()));
+
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+
+    /**
+     * @return 새 토큰 쌍, 저장되어 있지 않은(이미 사용된) refresh 토큰이면 null
+     */
+    private IssuedTokens rotate(String refreshHash, JWTClaims claims) {
+        String username = claims.getUsername();
+        String role = claims.getRole();
+
         // create new JWT(access token)
         String newAccess = jwtUtil.createJwt("access", username, role, 60 * 10 * 1000L);
         /**
@@ -88,30 +107,16 @@ public class ReissueService {
         Long expiredMs = 60 * 60 * 24 * 1000L;
         String newRefresh = jwtUtil.createJwt("refresh", username, role, expiredMs);
 
-        refreshRepository.deleteByRefresh(refresh);
-        addRefreshEntity(username, newRefresh, expiredMs);
-
-        /**
-         * 모든 계정에서 로그아웃 시 username 을 사용하여 모든 액세스 토큰 삭제 가능.
-         */
-
-        // response
-        response.setHeader("access", newAccess);
-        response.addCookie(createCookie("refresh", refresh));
-
-        return new ResponseEntity<>(HttpStatus.OK);
+        // 저장되어 있는지 확인 + 교체를 원자적으로 한 번에 처리 (JPA : 조건부 update 한 문장)
+        // 동시에 같은 쿠키로 재발급 요청이 와도 한 요청만 성공하고, 나머지는 재사용/잘못된 토큰
+        boolean rotated = refreshTokenStore.rotate(refreshHash, TokenDigest.sha256Hex(newRefresh),
+                System.currentTimeMillis() + expiredMs);
+        if (!rotated) {
+            return null;
+        }
+        return new IssuedTokens(username, newAccess, newRefresh);
     }
 
-    private void addRefreshEntity(String username, String refresh, Long expiredMs){
-        Date date = new Date(System.currentTimeMillis() + expiredMs);
-
-        RefreshEntity refreshEntity = new RefreshEntity();
-        refreshEntity.setUsername(username);
-        refreshEntity.setRefresh(refresh);
-        refreshEntity.setExpiration(date.toString());
-
-        refreshRepository.save(refreshEntity);
-    }
     private Cookie createCookie(String key, String value) {
         Cookie cookie = new Cookie(key, value);
         cookie.setMaxAge(24*60*60);
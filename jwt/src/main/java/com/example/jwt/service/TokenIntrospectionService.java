@@ -0,0 +1,208 @@
+package com.example.jwt.service;
+
+import com.example.jwt.jwt.JWTClaims;
+import com.example.jwt.jwt.JWTUtil;
+import com.example.jwt.jwt.TokenDigest;
+import com.example.jwt.jwt.TokenRevocationList;
+import com.example.jwt.jwt.VerifiedTokenCache;
+import com.example.jwt.repository.RefreshTokenStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 토큰 일괄 검사 (RFC 7662 introspection 과 같은 응답 필드, 여러 토큰을 한 요청으로)
+ *
+ * 검증 코드를 넣을 수 없는 내부 게이트웨이가 토큰마다 요청하지 않도록, 한 요청에 최대 max-batch-size 개를 받는다.
+ *  - access  : 서명/만료 검증 (VerifiedTokenCache 가 있으면 재사용) + 폐기 목록 + 사용자 세대 (JWTFilter 와 같은 규칙)
+ *  - refresh : 서명/만료 검증 + 사용자 세대 + 저장소에 남아 있는지 (ReissueService 와 같은 규칙)
+ *  - 토큰을 chunk-size 개씩 나눠 전용 스레드 풀(threads 개)에서 검사 -> 요청 수와 상관없이 동시에 검사하는 스레드 수는 고정
+ *    대기열(queue-capacity 청크)이 가득 차면 503
+ *  - 결과는 입력 순서대로 청크가 끝나는 대로 NDJSON 으로 씀
+ *    {"index":0,"active":true,"category":"access","username":"user1","role":"ROLE_USER","exp":1700000000}
+ *    {"index":1,"active":false}  (무효인 이유는 알려주지 않음)
+ */
+@Service
+public class TokenIntrospectionService {
+    private final JWTUtil jwtUtil;
+    private final RefreshTokenStore refreshTokenStore;
+    // 비활성화되어 있으면 없음
+    private final ObjectProvider<TokenRevocationList> revocationList;
+    private final ObjectProvider<VerifiedTokenCache> verifiedTokenCache;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor executor;
+    @Getter
+    private final int maxBatchSize;
+    private final int chunkSize;
+
+    private final Timer batchTimer;
+    private final Counter active;
+    private final Counter inactive;
+
+    public TokenIntrospectionService(JWTUtil jwtUtil, RefreshTokenStore refreshTokenStore,
+                                     ObjectProvider<TokenRevocationList> revocationList,
+                                     ObjectProvider<VerifiedTokenCache> verifiedTokenCache, ObjectMapper objectMapper,
+                                     @Value("${spring.jwt.introspection.threads:0}") int threads,
+                                     @Value("${spring.jwt.introspection.queue-capacity:256}") int queueCapacity,
+                                     @Value("${spring.jwt.introspection.chunk-size:50}") int chunkSize,
+                                     @Value("${spring.jwt.introspection.max-batch-size:1000}") int maxBatchSize,
+                                     MeterRegistry meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        this.refreshTokenStore = refreshTokenStore;
+        this.revocationList = revocationList;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.objectMapper = objectMapper;
+        this.maxBatchSize = maxBatchSize;
+        this.chunkSize = Math.max(1, chunkSize);
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("introspection-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("jwt.introspection.queue", executor.getQueue(), BlockingQueue::size).register(meterRegistry);
+        this.batchTimer = Timer.builder("jwt.introspection.batch").register(meterRegistry);
+        this.active = Counter.builder("jwt.introspection.tokens").tag("result", "active").register(meterRegistry);
+        this.inactive = Counter.builder("jwt.introspection.tokens").tag("result", "inactive").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * tokens 를 검사하고 결과를 out 에 NDJSON 으로 쓴다. (토큰 하나당 한 줄, 입력 순서)
+     * @throws ResponseStatusException 400 : 토큰이 없거나 max-batch-size 초과, 503 : 검사 대기열이 가득 참
+     */
+    public void introspect(List<String> tokens, OutputStream out) throws IOException {
+        if (tokens == null || tokens.isEmpty() || tokens.size() > maxBatchSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "tokens must contain 1.." + maxBatchSize + " tokens");
+        }
+
+        long startedAt = System.nanoTime();
+        List<Future<List<Map<String, Object>>>> chunks = new ArrayList<>();
+        try {
+            for (int from = 0; from < tokens.size(); from += chunkSize) {
+                int start = from;
+                List<String> chunk = tokens.subList(from, Math.min(tokens.size(), from + chunkSize));
+                chunks.add(executor.submit(() -> introspectChunk(start, chunk)));
+            }
+        } catch (RejectedExecutionException e) {
+            chunks.forEach((chunk) -> chunk.cancel(false));
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "introspection queue is full");
+        }
+
+        try {
+            for (Future<List<Map<String, Object>>> chunk : chunks) {
+                for (Map<String, Object> result : await(chunk)) {
+                    out.write(objectMapper.writeValueAsBytes(result));
+                    out.write('\n');
+                }
+                out.flush();
+            }
+        } finally {
+            // 클라이언트가 끊긴 경우 남은 청크는 검사하지 않음
+            chunks.forEach((chunk) -> chunk.cancel(false));
+            batchTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private List<Map<String, Object>> introspectChunk(int start, List<String> chunk) {
+        List<Map<String, Object>> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            JWTClaims claims = introspect(chunk.get(i));
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("index", start + i);
+            result.put("active", claims != null);
+            if (claims != null) {
+                result.put("category", claims.getCategory());
+                result.put("username", claims.getUsername());
+                result.put("role", claims.getRole());
+                result.put("exp", claims.getExpiration() / 1000);
+                active.increment();
+            } else {
+                inactive.increment();
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    /**
+     * @return 유효한 토큰의 클레임, 무효이면 null
+     */
+    JWTClaims introspect(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        VerifiedTokenCache cache = verifiedTokenCache.getIfAvailable();
+        JWTClaims claims = cache != null ? cache.get(token) : null;
+        if (claims == null) {
+            try {
+                claims = jwtUtil.parse(token);
+            } catch (JwtException | IllegalArgumentException e) {
+                // 만료, 서명 불일치, 형식 오류
+                return null;
+            }
+        }
+        if (jwtUtil.isStaleGeneration(claims)) {
+            return null;
+        }
+
+        if (claims.isCategory("access")) {
+            TokenRevocationList revocations = revocationList.getIfAvailable();
+            if (revocations != null && revocations.isRevoked(claims.getId(), claims.getExpiration())) {
+                return null;
+            }
+            if (cache != null) {
+                cache.put(token, claims);
+            }
+            return claims;
+        }
+        if (claims.isCategory("refresh")) {
+            return refreshTokenStore.exists(TokenDigest.sha256Hex(token)) ? claims : null;
+        }
+        return null;
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("introspection interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
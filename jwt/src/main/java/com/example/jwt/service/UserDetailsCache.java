@@ -0,0 +1,103 @@
+package com.example.jwt.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * 로그인 시 조회하는 UserDetails 캐시 (CustomUserDetailsService 앞단)
+ *
+ * 같은 username 으로 로그인 시도가 반복되면(실패 반복 포함) 매번 findByUsername 을 실행하지 않도록 결과를 보관한다.
+ *
+ *  - 있는 사용자는 ttl, 없는 사용자(Optional.empty)는 negative-ttl 동안 보관 -> 없는 계정 대입 시도도 DB 까지 가지 않음
+ *  - 같은 키를 동시에 조회하면 처음 요청한 스레드만 로더를 실행하고 나머지는 그 결과를 기다림 (miss 당 쿼리 1번)
+ *    로더(DB 조회)는 캐시 내부 락(ConcurrentHashMap bin 의 synchronized) 밖에서 실행
+ *    -> 가상 스레드 모드에서 쿼리 대기 중 carrier 스레드를 잡지 않고, 기다리는 쪽도 CompletableFuture 로 park
+ *  - 가입 / 비밀번호 재저장 시 invalidate() 로 해당 키만 제거
+ *    (다른 노드의 캐시는 ttl 이 지나야 반영되므로 ttl 은 짧게 유지, ttl 0 이면 캐시 안 함)
+ *  - hit / miss 는 메트릭(jwt.user-details 의 cache.gets)으로 노출
+ */
+@Component
+public class UserDetailsCache {
+    private final AsyncCache<String, Optional<UserDetails>> cache;
+
+    public UserDetailsCache(@Value("${spring.jwt.user-cache.max-size:10000}") long maxSize,
+                            @Value("${spring.jwt.user-cache.ttl:1m}") Duration ttl,
+                            @Value("${spring.jwt.user-cache.negative-ttl:10s}") Duration negativeTtl,
+                            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Optional<UserDetails>>() {
+                    @Override
+                    public long expireAfterCreate(String key, Optional<UserDetails> user, long currentTime) {
+                        return (user.isPresent() ? ttl : negativeTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Optional<UserDetails> user, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, user, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Optional<UserDetails> user, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.user-details");
+    }
+
+    /**
+     * 캐시에 없으면 loader 로 조회 (없는 사용자는 null 을 반환)
+     * @return 사용자, 없으면 null
+     */
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        CompletableFuture<Optional<UserDetails>> loading = new CompletableFuture<>();
+        CompletableFuture<Optional<UserDetails>> future = cache.get(username, (key, executor) -> loading);
+        if (future == loading) {
+            // 이 스레드가 넣은 자리 -> 락 밖에서 조회 후 완료 (실패하면 Caffeine 이 항목을 제거)
+            try {
+                loading.complete(Optional.ofNullable(loader.apply(username)));
+            } catch (RuntimeException | Error e) {
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return future.join().orElse(null);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public void invalidate(String username) {
+        cache.synchronous().invalidate(username);
+    }
+
+    public long hitCount() {
+        return cache.synchronous().stats().hitCount();
+    }
+
+    public long missCount() {
+        return cache.synchronous().stats().missCount();
+    }
+}
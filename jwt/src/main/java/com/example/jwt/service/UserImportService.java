@@ -0,0 +1,392 @@
+package com.example.jwt.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 대량 사용자 등록 (CSV / NDJSON 스트리밍)
+ *
+ * JoinService.join 은 요청 1번에 사용자 1명 (exists 쿼리 + 요청 스레드에서 해시 + 단건 save) 이라
+ * 수십만 명 등록에는 맞지 않는다. 여기서는 본문을 한 줄씩 읽으면서 batch-size 행 단위로 처리한다.
+ *
+ *  - 본문 전체를 메모리에 올리지 않음 (처리 중인 청크 2개만 보관)
+ *  - 비밀번호 해시는 전용 스레드 풀에서 병렬로 실행하고, 그동안 요청 스레드는 다음 청크를 읽음
+ *  - 중복 확인은 청크마다 username in (...) 쿼리 1번 + 파일 안 중복은 청크 안에서 확인
+ *  - INSERT 는 Hibernate 를 거치지 않고 JdbcTemplate batch (청크 단위 트랜잭션)
+ *    UserEntity 의 IDENTITY 는 Hibernate 가 생성된 id 를 바로 받아야 해서 batch 가 꺼지는 것이고,
+ *    JDBC batch 는 id 를 돌려받지 않으므로 그대로 batch 된다. (MySQL 은 rewriteBatchedStatements 로 multi-row INSERT)
+ *  - 동시에 가입된 username 과 부딪혀 batch 가 실패하면 그 청크만 한 행씩 다시 넣고 실패 행을 오류로 보고
+ *  - 진행 상황과 행별 오류는 NDJSON 으로 바로바로 응답에 씀
+ *
+ * CSV : username,password[,role] (첫 줄이 username 으로 시작하면 헤더로 보고 건너뜀, 큰따옴표 필드 지원)
+ * NDJSON : {"username": "...", "password": "...", "role": "..."}
+ * role 이 없으면 ROLE_USER
+ */
+@Slf4j
+@Service
+public class UserImportService {
+    private static final String SELECT_EXISTING = "select username from UserEntity where username in (:usernames)";
+    private static final String INSERT = "insert into UserEntity (username, password, role) values (?, ?, ?)";
+    private static final String DEFAULT_ROLE = "ROLE_USER";
+    private static final int MAX_LENGTH = 255;
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format of(String contentType) {
+            return contentType != null && contentType.contains("ndjson") ? NDJSON : CSV;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final UserDetailsCache userDetailsCache;
+    private final ObjectProvider<UsernameExistenceFilter> usernameFilter;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService hashExecutor;
+    private final int threads;
+    private final int batchSize;
+
+    private final Counter imported;
+    private final Counter failed;
+
+    public UserImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             PasswordEncoder passwordEncoder, UserDetailsCache userDetailsCache,
+                             ObjectProvider<UsernameExistenceFilter> usernameFilter, ObjectMapper objectMapper,
+                             @Value("${spring.jwt.user-import.threads:0}") int threads,
+                             @Value("${spring.jwt.user-import.batch-size:1000}") int batchSize,
+                             MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordEncoder = passwordEncoder;
+        this.userDetailsCache = userDetailsCache;
+        this.usernameFilter = usernameFilter;
+        this.objectMapper = objectMapper;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.batchSize = batchSize;
+        this.hashExecutor = Executors.newFixedThreadPool(this.threads, new CustomizableThreadFactory("user-import-hash-"));
+
+        this.imported = Counter.builder("jwt.user-import.rows").tag("result", "imported").register(meterRegistry);
+        this.failed = Counter.builder("jwt.user-import.rows").tag("result", "failed").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashExecutor.shutdownNow();
+    }
+
+    /**
+     * body 를 끝까지 읽으면서 등록하고, 진행 상황을 out 에 NDJSON 으로 쓴다.
+     *  {"type":"error","line":3,"username":"a","message":"duplicate username"}
+     *  {"type":"progress","rows":1000,"imported":998,"failed":2,"rowsPerSecond":5230}
+     *  {"type":"done", ...} (progress 와 같은 필드)
+     */
+    public void importUsers(InputStream body, Format format, OutputStream out) throws IOException {
+        Progress progress = new Progress(out);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+
+        List<Row> pending = null;
+        CompletableFuture<Void> hashing = CompletableFuture.completedFuture(null);
+        long lineNumber = 0;
+        boolean first = true;
+
+        while (true) {
+            // 1. 다음 청크 읽기 (이전 청크 해시와 동시에 진행)
+            List<Row> chunk = new ArrayList<>(batchSize);
+            Set<String> seen = new HashSet<>();
+            String line;
+            while (chunk.size() < batchSize && (line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                Row row = parse(line, lineNumber, format);
+                // 첫 필드가 정확히 username 인 첫 줄만 헤더 (username1,... 같은 사용자는 등록)
+                if (first && format == Format.CSV && "username".equals(row.username)) {
+                    first = false;
+                    continue;
+                }
+                first = false;
+
+                if (row.error == null && !seen.add(row.username)) {
+                    row.error = "duplicate username in file";
+                }
+                chunk.add(row);
+            }
+
+            // 2. 이전 청크 해시가 끝나면 INSERT
+            if (pending != null) {
+                hashing.join();
+                insert(pending);
+                progress.report(pending);
+            }
+            if (chunk.isEmpty()) {
+                break;
+            }
+
+            // 3. 이번 청크 중복 확인 (이전 청크까지 DB 에 반영된 뒤) 후 해시 시작
+            markExisting(chunk);
+            hashing = hash(chunk);
+            pending = chunk;
+        }
+
+        progress.done();
+    }
+
+    private Row parse(String line, long lineNumber, Format format) {
+        Row row = new Row(lineNumber);
+        try {
+            if (format == Format.NDJSON) {
+                JsonNode node = objectMapper.readTree(line);
+                row.username = text(node, "username");
+                row.password = text(node, "password");
+                row.role = text(node, "role");
+            } else {
+                List<String> fields = splitCsv(line);
+                row.username = fields.size() > 0 ? fields.get(0) : null;
+                row.password = fields.size() > 1 ? fields.get(1) : null;
+                row.role = fields.size() > 2 ? fields.get(2) : null;
+            }
+        } catch (IOException | RuntimeException e) {
+            row.error = "malformed row";
+            return row;
+        }
+
+        if (row.role == null || row.role.isEmpty()) {
+            row.role = DEFAULT_ROLE;
+        }
+        if (row.username == null || row.username.isBlank()) {
+            row.error = "username is required";
+        } else if (row.password == null || row.password.isEmpty()) {
+            row.error = "password is required";
+        } else if (row.username.length() > MAX_LENGTH || row.role.length() > MAX_LENGTH) {
+            row.error = "value is too long";
+        } else if (!row.role.startsWith("ROLE_")) {
+            row.error = "role must start with ROLE_";
+        }
+        return row;
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    /**
+     * 한 줄 CSV (큰따옴표로 감싼 필드 안의 쉼표, "" 이스케이프 지원. 필드 안 줄바꿈은 지원 안 함)
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quote");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // 이미 등록된 username (쿼리 1번)
+    private void markExisting(List<Row> chunk) {
+        List<String> usernames = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            if (row.error == null) {
+                usernames.add(row.username);
+            }
+        }
+        if (usernames.isEmpty()) {
+            return;
+        }
+
+        Set<String> existing = new HashSet<>(namedParameterJdbcTemplate.queryForList(SELECT_EXISTING,
+                Map.of("usernames", usernames), String.class));
+        for (Row row : chunk) {
+            if (row.error == null && existing.contains(row.username)) {
+                row.error = "duplicate username";
+            }
+        }
+    }
+
+    // 청크를 스레드 수만큼 나눠서 병렬 해시
+    private CompletableFuture<Void> hash(List<Row> chunk) {
+        int slice = (chunk.size() + threads - 1) / threads;
+        List<CompletableFuture<Void>> slices = new ArrayList<>(threads);
+        for (int from = 0; from < chunk.size(); from += slice) {
+            List<Row> rows = chunk.subList(from, Math.min(chunk.size(), from + slice));
+            slices.add(CompletableFuture.runAsync(() -> {
+                for (Row row : rows) {
+                    if (row.error == null) {
+                        row.hash = passwordEncoder.encode(row.password);
+                    }
+                    // 해시 후에는 평문을 들고 있지 않음
+                    row.password = null;
+                }
+            }, hashExecutor));
+        }
+        return CompletableFuture.allOf(slices.toArray(CompletableFuture[]::new));
+    }
+
+    private void insert(List<Row> chunk) {
+        List<Object[]> args = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            if (row.error == null) {
+                args.add(new Object[]{row.username, row.hash, row.role});
+            }
+        }
+        if (args.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult((status) -> jdbcTemplate.batchUpdate(INSERT, args));
+        } catch (DataIntegrityViolationException e) {
+            // 중복 확인 이후에 다른 요청이 같은 username 으로 가입 -> 이 청크만 한 행씩
+            for (Row row : chunk) {
+                if (row.error != null) {
+                    continue;
+                }
+                try {
+                    jdbcTemplate.update(INSERT, row.username, row.hash, row.role);
+                } catch (DataIntegrityViolationException duplicate) {
+                    row.error = "duplicate username";
+                }
+            }
+        }
+
+        // 가입 전에 캐시된 "없는 사용자" 결과 제거 + 가입 여부 Bloom filter 반영
+        UsernameExistenceFilter filter = usernameFilter.getIfAvailable();
+        for (Row row : chunk) {
+            if (row.error == null) {
+                userDetailsCache.invalidate(row.username);
+                if (filter != null) {
+                    filter.add(row.username);
+                }
+            }
+        }
+    }
+
+    private static final class Row {
+        final long line;
+        String username;
+        String password;
+        String role;
+        String hash;
+        String error;
+
+        Row(long line) {
+            this.line = line;
+        }
+    }
+
+    private final class Progress {
+        private final OutputStream out;
+        private final long startedAt = System.nanoTime();
+        private long rows;
+        private long importedRows;
+        private long failedRows;
+
+        Progress(OutputStream out) {
+            this.out = out;
+        }
+
+        void report(List<Row> chunk) throws IOException {
+            long chunkFailed = 0;
+            for (Row row : chunk) {
+                if (row.error == null) {
+                    continue;
+                }
+                chunkFailed++;
+                Map<String, Object> error = new LinkedHashMap<>();
+                error.put("type", "error");
+                error.put("line", row.line);
+                error.put("username", row.username);
+                error.put("message", row.error);
+                write(error);
+            }
+            rows += chunk.size();
+            importedRows += chunk.size() - chunkFailed;
+            failedRows += chunkFailed;
+            imported.increment(chunk.size() - chunkFailed);
+            failed.increment(chunkFailed);
+
+            write(summary("progress"));
+            out.flush();
+        }
+
+        void done() throws IOException {
+            write(summary("done"));
+            out.flush();
+            log.info("imported {} users ({} failed) in {} ms", importedRows, failedRows,
+                    (System.nanoTime() - startedAt) / 1_000_000);
+        }
+
+        private Map<String, Object> summary(String type) {
+            long elapsedNanos = Math.max(1L, System.nanoTime() - startedAt);
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("type", type);
+            summary.put("rows", rows);
+            summary.put("imported", importedRows);
+            summary.put("failed", failedRows);
+            summary.put("rowsPerSecond", rows * 1_000_000_000L / elapsedNanos);
+            return summary;
+        }
+
+        private void write(Map<String, Object> line) throws IOException {
+            out.write(objectMapper.writeValueAsBytes(line));
+            out.write('\n');
+        }
+    }
+}
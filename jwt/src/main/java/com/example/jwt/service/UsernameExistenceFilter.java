@@ -0,0 +1,174 @@
+package com.example.jwt.service;
+
+import com.example.jwt.jwt.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 가입된 username 의 Bloom filter (spring.jwt.username-filter.enabled 기본 활성화)
+ *
+ * JoinService.join 은 가입마다 existsByUsername 을 실행한다. 가입이 몰리면 대부분은 새 username 이라
+ * 이 쿼리는 거의 항상 false 인데도 INSERT 와 같은 수만큼 DB 에 나간다.
+ *
+ *  - Bloom filter 에 없으면 "확실히 새 username" -> exists 쿼리 생략
+ *  - 있으면(fpp 확률로 오탐) 지금처럼 exists 쿼리로 확인
+ *  - 최종 판단은 UserEntity.username 의 unique 제약 (동시에 같은 username 으로 가입해도 하나만 저장)
+ *  - 시작 시 UserEntity 를 id 순서로 page-size 개씩 읽어서 채움 (로드 전에는 항상 DB 확인)
+ *  - 가입 / 대량 등록 성공 시 add(), 삭제는 반영 안 됨 (오탐만 늘어나므로 rebuild 로 정리)
+ *  - 크기 : 현재 사용자 수의 2배(최소 min-capacity)를 fpp 로 담는 크기, 단 max-memory 를 넘지 않음
+ *           담을 수 있는 개수를 넘으면 오탐률만 올라가므로 rebuild (/admin/username-filter/rebuild)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.jwt.username-filter.enabled", havingValue = "true", matchIfMissing = true)
+public class UsernameExistenceFilter {
+    private static final String COUNT = "select count(*) from UserEntity";
+    private static final String SELECT_PAGE = "select id, username from UserEntity where id > ? order by id limit ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final double fpp;
+    private final long maxMemoryBytes;
+    private final long minCapacity;
+    private final int pageSize;
+
+    // null 이면 아직 로드 전 -> 항상 DB 확인
+    private volatile BloomFilter filter;
+    // rebuild 중에 가입한 username 도 새 filter 에 넣기 위함
+    private volatile BloomFilter building;
+    private volatile long capacity;
+    private final AtomicLong count = new AtomicLong();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private final Counter definitelyNew;
+    private final Counter mightExist;
+
+    public UsernameExistenceFilter(JdbcTemplate jdbcTemplate,
+                                   @Value("${spring.jwt.username-filter.fpp:0.01}") double fpp,
+                                   @Value("${spring.jwt.username-filter.max-memory:16MB}") DataSize maxMemory,
+                                   @Value("${spring.jwt.username-filter.min-capacity:100000}") long minCapacity,
+                                   @Value("${spring.jwt.username-filter.page-size:10000}") int pageSize,
+                                   MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fpp = fpp;
+        this.maxMemoryBytes = maxMemory.toBytes();
+        this.minCapacity = minCapacity;
+        this.pageSize = pageSize;
+
+        this.definitelyNew = Counter.builder("jwt.username-filter.checks").tag("result", "new").register(meterRegistry);
+        this.mightExist = Counter.builder("jwt.username-filter.checks").tag("result", "maybe").register(meterRegistry);
+        Gauge.builder("jwt.username-filter.size", count, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("jwt.username-filter.bytes", this, UsernameExistenceFilter::byteSize).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    /**
+     * false 면 확실히 없는 username, true 면 DB 확인 필요
+     */
+    public boolean mightExist(String username) {
+        BloomFilter current = filter;
+        if (current == null || current.mightContain(username)) {
+            mightExist.increment();
+            return true;
+        }
+        definitelyNew.increment();
+        return false;
+    }
+
+    /**
+     * 가입이 커밋된 뒤에 호출
+     */
+    public void add(String username) {
+        // building 을 먼저 읽어야 rebuild 가 교체하는 사이에 들어온 username 이 새 filter 에서 빠지지 않음
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(username);
+        }
+        BloomFilter current = filter;
+        if (current != null && current != next) {
+            current.put(username);
+        }
+        if (count.incrementAndGet() == capacity + 1) {
+            log.warn("username filter exceeded its capacity ({}), false positive rate will grow until rebuild", capacity);
+        }
+    }
+
+    /**
+     * UserEntity 를 다시 읽어서 새 filter 로 교체 (교체 전까지는 기존 filter 로 응답)
+     */
+    public Map<String, Object> rebuild() {
+        if (!rebuildLock.tryLock()) {
+            return Map.of("status", "already running");
+        }
+        try {
+            long startedAt = System.nanoTime();
+            long users = jdbcTemplate.queryForObject(COUNT, Long.class);
+            long bytes = Math.min(maxMemoryBytes, BloomFilter.bytesFor(Math.max(minCapacity, users * 2), fpp));
+            BloomFilter next = BloomFilter.withMemory(bytes, fpp);
+            building = next;
+
+            long loaded = 0;
+            long lastId = 0;
+            while (true) {
+                long[] page = {lastId, 0};
+                jdbcTemplate.query(SELECT_PAGE, (rs) -> {
+                    page[0] = rs.getLong(1);
+                    next.put(rs.getString(2));
+                    page[1]++;
+                }, lastId, pageSize);
+                loaded += page[1];
+                lastId = page[0];
+                if (page[1] < pageSize) {
+                    break;
+                }
+            }
+
+            capacity = BloomFilter.capacity(next.byteSize(), fpp);
+            count.set(loaded);
+            filter = next;
+
+            long elapsedMs = (System.nanoTime() - startedAt) / 1_000_000;
+            log.info("username filter loaded {} usernames ({} bytes, capacity {}) in {} ms", loaded, next.byteSize(), capacity, elapsedMs);
+            if (loaded > capacity) {
+                log.warn("username filter is over capacity ({} > {}), raise spring.jwt.username-filter.max-memory", loaded, capacity);
+            }
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("status", "rebuilt");
+            result.put("usernames", loaded);
+            result.put("bytes", next.byteSize());
+            result.put("capacity", capacity);
+            result.put("elapsedMs", elapsedMs);
+            return result;
+        } finally {
+            building = null;
+            rebuildLock.unlock();
+        }
+    }
+
+    long byteSize() {
+        BloomFilter current = filter;
+        return current == null ? 0 : current.byteSize();
+    }
+
+    long size() {
+        return count.get();
+    }
+}
@@ -0,0 +1,72 @@
+/**
+  RefreshEntity 테이블 (MySQL)
+  ddl-auto: none 이므로 직접 적용해야 함.
+
+  - tokenHash : refresh 토큰의 SHA-256 hex (TokenDigest.sha256Hex) -> unique 인덱스로 O(log n) 조회
+  - expiresAt : 만료 시각 epoch millis -> 인덱스, 만료 토큰 범위 조회/정리
+  - (username, expiresAt) : 복합 인덱스 (사용자별 세션 목록 keyset 조회, 사용자별 삭제)
+  - issuedAt, device, ipAddress : 세션 목록 표시용 (로그인 시각, User-Agent, 접속 IP), 이전에 발급된 토큰은 null
+ */
+
+-- 1. 신규 설치
+create table RefreshEntity(
+  id bigint not null auto_increment,
+  username varchar(255) not null,
+  tokenHash char(64) not null,
+  expiresAt bigint not null,
+  issuedAt bigint null,
+  device varchar(255) null,
+  ipAddress varchar(45) null,
+  primary key (id),
+  unique key ux_refresh_token_hash (tokenHash),
+  key ix_refresh_expires_at (expiresAt),
+  key ix_refresh_username_expires_at (username, expiresAt)
+);
+
+
+/**
+  2. 기존 테이블 마이그레이션
+     (refresh varchar 에 토큰 원문, expiration varchar 에 Date.toString() 값 -> ex. "Wed Oct 18 12:34:56 UTC 2026")
+
+  expiration 문자열은 애플리케이션 JVM 의 기본 타임존으로 기록되어 있다.
+  변환 전에 세션 타임존을 그 값과 맞춰야 expiresAt 이 정확하게 계산됨. (datasource 는 serverTimezone=UTC 사용)
+ */
+set time_zone = '+00:00';
+
+alter table RefreshEntity
+  add column tokenHash char(64) null,
+  add column expiresAt bigint null;
+
+-- MySQL sha2() 결과도 소문자 hex 이므로 TokenDigest 와 같은 값
+update RefreshEntity
+   set tokenHash = sha2(refresh, 256),
+       expiresAt = unix_timestamp(str_to_date(concat(substring(expiration, 5, 15), ' ', right(expiration, 4)), '%b %d %H:%i:%s %Y')) * 1000;
+
+-- 파싱에 실패한 행, 이미 만료된 행, 같은 토큰이 중복 저장된 행 정리 (unique 인덱스 생성 전)
+delete from RefreshEntity where expiresAt is null or expiresAt < unix_timestamp() * 1000;
+
+delete r1 from RefreshEntity r1
+  join RefreshEntity r2 on r1.tokenHash = r2.tokenHash and r1.id > r2.id;
+
+alter table RefreshEntity
+  modify username varchar(255) not null,
+  modify tokenHash char(64) not null,
+  modify expiresAt bigint not null,
+  drop column refresh,
+  drop column expiration,
+  add unique key ux_refresh_token_hash (tokenHash),
+  add key ix_refresh_expires_at (expiresAt),
+  add key ix_refresh_username (username);
+
+
+/**
+  3. 세션 목록 (2번까지 적용된 테이블)
+     username 단일 인덱스를 (username, expiresAt) 으로 교체 -> 사용자별 삭제는 그대로 이 인덱스의 앞부분을 사용
+     InnoDB 보조 인덱스는 PK(id) 를 포함하므로 order by expiresAt desc, id desc 도 인덱스 순서로 읽음
+ */
+alter table RefreshEntity
+  add column issuedAt bigint null,
+  add column device varchar(255) null,
+  add column ipAddress varchar(45) null,
+  add key ix_refresh_username_expires_at (username, expiresAt),
+  drop key ix_refresh_username;
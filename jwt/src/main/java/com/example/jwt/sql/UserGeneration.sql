@@ -0,0 +1,15 @@
+/**
+  UserGeneration 테이블 (MySQL)
+  ddl-auto: none 이므로 직접 적용해야 함.
+
+  - username   : 사용자당 한 행 (모든 기기에서 로그아웃을 한 번이라도 한 사용자만)
+  - generation : 토큰 세대 번호, 올리면 이전 세대의 토큰은 모두 무효
+  - updatedAt  : 마지막 변경 시각 epoch millis -> 인덱스, 노드별 증분 조회
+ */
+create table UserGeneration(
+  username varchar(255) not null,
+  generation int not null,
+  updatedAt bigint not null,
+  primary key (username),
+  key ix_user_generation_updated_at (updatedAt)
+);
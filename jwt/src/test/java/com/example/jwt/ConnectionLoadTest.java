@@ -0,0 +1,158 @@
+package com.example.jwt;
+
+import com.example.jwt.jwt.JWTUtil;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 동시 연결 1000개로 인증이 필요한 요청 호출 (jwt-reactive 모듈 ConnectionLoadTest 와 같은 부하)
+ * 처리량, p99, 요청 처리에 사용된 서버 스레드 수, JVM 플랫폼 스레드 수, 힙 사용량 비교용
+ *  - GET /                   : JWTFilter 검증만 하는 요청
+ *  - GET /load-test/blocking : 응답 전 BLOCKING_MS 대기 (MySQL 조회 / OAuth 제공자 호출 대기 대신)
+ * 가상 스레드 모드는 VirtualThreadConnectionLoadTest (Java 21 이상에서만 실행)
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jwt.secret=" + ConnectionLoadTest.SECRET,
+        "spring.jwt.password.min-cost=4",
+        "spring.jwt.password.max-cost=4",
+        "logging.level.org.hibernate.SQL=info"
+})
+@Import(ConnectionLoadTest.BlockingController.class)
+class ConnectionLoadTest {
+    static final String SECRET = "test-secret-key-for-jwt-util-must-be-at-least-256-bits";
+    static final int CONNECTIONS = 1000;
+    static final int REQUESTS = 30_000;
+    static final int BLOCKING_REQUESTS = 10_000;
+    static final long BLOCKING_MS = 50L;
+
+    @LocalServerPort
+    int port;
+    @Autowired
+    JWTUtil jwtUtil;
+
+    String mode() {
+        return "platform";
+    }
+
+    @Test
+    void manyConcurrentConnections() throws Exception {
+        load("/", REQUESTS);
+    }
+
+    @Test
+    void manyConcurrentBlockingRequests() throws Exception {
+        load("/load-test/blocking", BLOCKING_REQUESTS);
+    }
+
+    private void load(String path, int requests) throws Exception {
+        String access = jwtUtil.createJwt("access", "user1", "ROLE_ADMIN", 600_000L);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("access", access)
+                .build();
+
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(4);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .build();
+
+        // 워밍업
+        run(client, request, 100, 5_000);
+
+        // 가상 스레드는 getAllStackTraces / ThreadMXBean 에 잡히지 않음 -> 가상 스레드 모드에서 http-nio- 는 acceptor, poller 뿐
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+        threads.resetPeakThreadCount();
+        AtomicInteger serverThreads = new AtomicInteger();
+        AtomicLong peakHeap = new AtomicLong();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> {
+            serverThreads.accumulateAndGet((int) Thread.getAllStackTraces().keySet().stream()
+                    .filter((thread) -> thread.getName().startsWith("http-nio-"))
+                    .count(), Math::max);
+            peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+        }, 0, 20, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        long[] latencies = run(client, request, CONNECTIONS, requests);
+        long elapsed = System.nanoTime() - start;
+        sampler.shutdownNow();
+        clientExecutor.shutdownNow();
+
+        Arrays.sort(latencies);
+        System.out.printf("servlet %s %s: %d connections, %.0f req/s, p99 %d ms, server threads %d, jvm threads %d, peak heap +%d MB%n",
+                mode(), path, CONNECTIONS, requests * 1_000_000_000.0 / elapsed,
+                latencies[(int) (latencies.length * 0.99)] / 1_000_000, serverThreads.get(),
+                threads.getPeakThreadCount(), Math.max(0L, peakHeap.get() - heapBefore) / (1024 * 1024));
+
+        assertThat(latencies[0]).isPositive();
+    }
+
+    // 최대 concurrency 개의 요청을 동시에 보내고, 모두 200 인지 확인 (요청별 응답 시간 ns)
+    static long[] run(HttpClient client, HttpRequest request, int concurrency, int total) throws InterruptedException {
+        Semaphore permits = new Semaphore(concurrency);
+        CountDownLatch done = new CountDownLatch(total);
+        AtomicInteger failures = new AtomicInteger();
+        long[] latencies = new long[total];
+
+        for (int i = 0; i < total; i++) {
+            permits.acquire();
+            int index = i;
+            long sentAt = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                latencies[index] = System.nanoTime() - sentAt;
+                if (error != null || response.statusCode() != 200) {
+                    failures.incrementAndGet();
+                }
+                permits.release();
+                done.countDown();
+            });
+        }
+        done.await();
+
+        assertThat(failures.get()).isZero();
+        return latencies;
+    }
+
+    @RestController
+    static class BlockingController {
+        @GetMapping("/load-test/blocking")
+        String blocking() throws InterruptedException {
+            Thread.sleep(BLOCKING_MS);
+            return "ok";
+        }
+    }
+}
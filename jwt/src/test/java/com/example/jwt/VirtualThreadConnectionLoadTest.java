@@ -0,0 +1,20 @@
+package com.example.jwt;
+
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * ConnectionLoadTest 와 같은 부하를 virtual-threads 프로필(spring.threads.virtual.enabled)로 실행
+ * Java 21 미만에서는 Spring Boot 가 설정을 무시하므로 실행하지 않음 (./gradlew benchmark -PjavaVersion=21)
+ */
+@ActiveProfiles("virtual-threads")
+@EnabledForJreRange(min = JRE.JAVA_21)
+@Import(ConnectionLoadTest.BlockingController.class)
+class VirtualThreadConnectionLoadTest extends ConnectionLoadTest {
+    @Override
+    String mode() {
+        return "virtual";
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.jwt.config;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordEncoderCalibratorTest {
+
+    @Test
+    void costStaysWithinBounds() {
+        assertThat(PasswordEncoderCalibrator.calibrate(Duration.ZERO, 4, 16)).isEqualTo(6);
+        assertThat(PasswordEncoderCalibrator.calibrate(Duration.ZERO, 8, 16)).isEqualTo(8);
+        assertThat(PasswordEncoderCalibrator.calibrate(Duration.ofDays(1), 4, 9)).isEqualTo(9);
+    }
+
+    /**
+     * 이 장비에서 50ms 목표로 고른 cost 의 실제 해시 시간
+     */
+    @Tag("benchmark")
+    @Test
+    void calibratedCostTiming() {
+        int cost = PasswordEncoderCalibrator.calibrate(Duration.ofMillis(50), 4, 31);
+        long start = System.nanoTime();
+        new BCryptPasswordEncoder(cost).encode("password");
+        System.out.println("cost " + cost + " for 50ms target took " + (System.nanoTime() - start) / 1_000_000L + "ms");
+    }
+
+    @Test
+    void acceptsLegacyHashesAndRequestsRehash() {
+        PasswordEncoder passwordEncoder = PasswordEncoderCalibrator.create(5);
+
+        String legacy = new BCryptPasswordEncoder(4).encode("password");
+        assertThat(passwordEncoder.matches("password", legacy)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(legacy)).isTrue();
+
+        String lowerCost = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("password");
+        assertThat(passwordEncoder.upgradeEncoding(lowerCost)).isTrue();
+
+        String current = passwordEncoder.encode("password");
+        assertThat(current).startsWith("{bcrypt}$2a$05$");
+        assertThat(passwordEncoder.matches("password", current)).isTrue();
+        assertThat(passwordEncoder.matches("wrong", current)).isFalse();
+        assertThat(passwordEncoder.upgradeEncoding(current)).isFalse();
+    }
+
+    @Test
+    void higherCostHashIsKept() {
+        // 더 빠른 노드(또는 이전 시작)가 높은 cost 로 저장한 해시 -> 다시 저장하지 않음
+        PasswordEncoder slowNode = PasswordEncoderCalibrator.create(5);
+        String higherCost = "{bcrypt}" + new BCryptPasswordEncoder(6).encode("password");
+
+        assertThat(slowNode.matches("password", higherCost)).isTrue();
+        assertThat(slowNode.upgradeEncoding(higherCost)).isFalse();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.jwt.controller;
+
+import com.example.jwt.jwt.JWTUtil;
+import com.example.jwt.jwt.SigningKeyRing;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:jwks;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jwt.secret=test-secret-key-for-jwt-util-must-be-at-least-256-bits",
+        "spring.jwt.password.min-cost=4",
+        "spring.jwt.password.max-cost=4",
+        "spring.jwt.key-ring.enabled=true",
+        "spring.jwt.key-ring.algorithm=EdDSA",
+        "spring.jwt.key-ring.dir=",
+        "logging.level.org.hibernate.SQL=info"
+})
+@AutoConfigureMockMvc
+class JwksControllerTest {
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    SigningKeyRing keyRing;
+    @Autowired
+    JWTUtil jwtUtil;
+
+    @Test
+    void publishesCacheablePublicKeysWithoutAuthentication() throws Exception {
+        String kid = keyRing.signingKey().getKid();
+
+        mockMvc.perform(get("/.well-known/jwks.json"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", containsString("max-age=300")))
+                .andExpect(header().string("ETag", keyRing.jwksETag()))
+                .andExpect(jsonPath("$.keys[0].kid").value(kid))
+                .andExpect(jsonPath("$.keys[0].kty").value("OKP"))
+                .andExpect(jsonPath("$.keys[0].d").doesNotExist());
+
+        mockMvc.perform(get("/.well-known/jwks.json").header("If-None-Match", keyRing.jwksETag()))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void acceptsTokensSignedByKeyRing() throws Exception {
+        String access = jwtUtil.createJwt("access", "user1", "ROLE_ADMIN", 60_000L);
+
+        mockMvc.perform(get("/admin").header("access", access))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.jwt.jwt;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+    static final int POOL_SIZE = 4;
+    static final int CLIENTS = 32;
+    static final long QUERY_MS = 5L;
+
+    HikariDataSource dataSource;
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void slowDatabase() {
+        // 커넥션 POOL_SIZE 개, 쿼리 하나에 QUERY_MS 걸리는 DB
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:concurrency;DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(POOL_SIZE);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create alias if not exists SLEEP for 'java.lang.Thread.sleep'");
+    }
+
+    @AfterEach
+    void close() {
+        dataSource.close();
+    }
+
+    @Test
+    void limitShrinksWhenLatencyRisesAndGrowsBack() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 1, 100, 0.9, 2.0, 1_000);
+        long fast = TimeUnit.MILLISECONDS.toNanos(1);
+        long slow = TimeUnit.MILLISECONDS.toNanos(50);
+
+        // 기준 지연 1ms
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.release(fast);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(20);
+
+        // 응답 시간이 기준의 2배를 넘으면 limit 축소
+        for (int i = 0; i < 30; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.release(slow);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(1);
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        limiter.release(fast);
+
+        // 기준 지연 안에서 limit 을 다 쓰면 다시 늘어남
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.release(fast);
+        }
+        assertThat(limiter.getLimit()).isGreaterThan(1);
+    }
+
+    /**
+     * 느린 DB 앞에서 재발급 요청 폭주 -> 받아들인 요청의 p99 비교 (limiter 없음 / 있음)
+     */
+    @Tag("benchmark")
+    @Test
+    void keepsP99BoundedInFrontOfSlowDatabase() throws Exception {
+        HttpServlet reissue = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                jdbcTemplate.execute("call SLEEP(" + QUERY_MS + ")");
+            }
+        };
+
+        Result unlimited = run((request, response) -> new MockFilterChain(reissue).doFilter(request, response));
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        EndpointConcurrencyLimits limits = new EndpointConcurrencyLimits(20, 1, 200, 0.9, 2.0, 1_000, meterRegistry);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limits);
+        Result limited = run((request, response) -> filter.doFilter(request, response, new MockFilterChain(reissue)));
+
+        double shed = meterRegistry.counter("jwt.concurrency.shed", "endpoint", "/reissue").count();
+        System.out.println("unlimited : p99 = " + unlimited.p99Millis + "ms, served = " + unlimited.served);
+        System.out.println("adaptive  : p99 = " + limited.p99Millis + "ms, served = " + limited.served
+                + ", shed = " + (long) shed + ", limit = " + limits.limiter("/reissue").getLimit());
+
+        assertThat(shed).isPositive();
+        assertThat(limited.p99Millis).isLessThan(unlimited.p99Millis);
+    }
+
+    private Result run(Handler handler) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicInteger served = new AtomicInteger();
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            futures.add(clients.submit(() -> {
+                while (System.nanoTime() < end) {
+                    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/reissue");
+                    request.setServletPath("/reissue");
+                    MockHttpServletResponse response = new MockHttpServletResponse();
+
+                    long start = System.nanoTime();
+                    handler.handle(request, response);
+                    if (response.getStatus() == 503) {
+                        // 클라이언트 재시도 간격
+                        Thread.sleep(QUERY_MS);
+                        continue;
+                    }
+                    latencies.add(System.nanoTime() - start);
+                    served.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        clients.shutdown();
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new Result(sorted[(int) (sorted.length * 0.99)] / 1_000_000L, served.get());
+    }
+
+    private interface Handler {
+        void handle(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception;
+    }
+
+    private record Result(long p99Millis, int served) {
+    }
+}
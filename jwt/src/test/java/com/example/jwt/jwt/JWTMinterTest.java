@@ -0,0 +1,139 @@
+package com.example.jwt.jwt;
+
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.FutureTask;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JWTMinterTest {
+    long issuedAt = 1_700_000_000_123L;
+    long expiration = issuedAt + 10 * 60 * 1000L;
+
+    @Test
+    void mintedTokenIsByteIdenticalToBuilder() {
+        for (String algorithm : new String[]{"HmacSHA256", "HmacSHA384", "HmacSHA512"}) {
+            SecretKey key = new SecretKeySpec("k".repeat(64).getBytes(StandardCharsets.UTF_8), algorithm);
+            JWTMinter minter = new JWTMinter(key);
+
+            for (String username : new String[]{"user1", "quote\"back\\slash", "tab\tnewline\n\u0001", "한글유저", "emoji😀", "lone\uD800"}) {
+                assertThat(minter.mint("HvS2x-Jx9kq3Xw0yb2v_3A", "access", username, "ROLE_ADMIN", 7, issuedAt, expiration))
+                        .isEqualTo(builder(key, "HvS2x-Jx9kq3Xw0yb2v_3A", "access", username, "ROLE_ADMIN", 7));
+            }
+        }
+    }
+
+    /**
+     * null 클레임은 builder 와 같이 생략 (NPE 없이 같은 토큰)
+     */
+    @Test
+    void nullClaimsAreOmittedLikeBuilder() {
+        SecretKey key = key(JWTUtilTest.SECRET);
+        JWTMinter minter = new JWTMinter(key);
+        String[][] cases = {
+                {null, "access", "user1", "ROLE_USER"},
+                {"id", null, "user1", "ROLE_USER"},
+                {"id", "access", null, "ROLE_USER"},
+                {"id", "access", "user1", null},
+                {null, null, null, null},
+                {"", "access", "", "ROLE_USER"},
+                {" id\t", "access", " user1 ", "ROLE_USER"},
+                {"  ", "", "user1", ""},
+        };
+
+        for (String[] c : cases) {
+            assertThat(minter.mint(c[0], c[1], c[2], c[3], 3, issuedAt, expiration))
+                    .isEqualTo(builder(key, c[0], c[1], c[2], c[3], 3));
+        }
+    }
+
+    /**
+     * 가상 스레드 모드 (풀에서 빌린 버퍼 / Mac) : 요청마다 새 스레드로 동시에 발급해도 결과가 같음
+     */
+    @Test
+    void pooledMinterIsByteIdenticalToBuilderAcrossThreads() throws Exception {
+        SecretKey key = key(JWTUtilTest.SECRET);
+        JWTMinter minter = new JWTMinter(key, true);
+        List<FutureTask<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String username = "user" + i;
+            String expected = builder(key, "id", "access", username, "ROLE_USER", 1);
+            FutureTask<Boolean> result = new FutureTask<>(() -> minter.mint("id", "access", username, "ROLE_USER", 1, issuedAt, expiration)
+                    .equals(expected));
+            // 작업마다 새 스레드 (가상 스레드처럼 ThreadLocal 이 재사용되지 않음)
+            new Thread(result).start();
+            results.add(result);
+        }
+
+        for (FutureTask<Boolean> result : results) {
+            assertThat(result.get()).isTrue();
+        }
+    }
+
+    @Test
+    void mintedTokenIsAcceptedByJwtUtil() {
+        JWTUtil jwtUtil = new JWTUtil(JWTUtilTest.SECRET);
+
+        JWTClaims claims = jwtUtil.parse(jwtUtil.createJwt("refresh", "user1", "ROLE_USER", 60_000L));
+
+        assertThat(claims.getCategory()).isEqualTo("refresh");
+        assertThat(claims.getUsername()).isEqualTo("user1");
+        assertThat(claims.getRole()).isEqualTo("ROLE_USER");
+        assertThat(claims.getId()).hasSize(22);
+        assertThat(jwtUtil.parse(jwtUtil.createJwt("refresh", "user1", "ROLE_USER", 60_000L)).getId())
+                .isNotEqualTo(claims.getId());
+    }
+
+    @Tag("benchmark")
+    @Test
+    void benchmarkMinterAgainstBuilder() {
+        SecretKey key = key(JWTUtilTest.SECRET);
+        JWTMinter minter = new JWTMinter(key);
+        int iterations = 50_000;
+
+        long builderNs = measure(() -> builder(key, "id", "access", "user1", "ROLE_ADMIN", 0), iterations);
+        long minterNs = measure(() -> minter.mint("id", "access", "user1", "ROLE_ADMIN", 0, issuedAt, expiration), iterations);
+        JWTMinter pooled = new JWTMinter(key, true);
+        long pooledNs = measure(() -> pooled.mint("id", "access", "user1", "ROLE_ADMIN", 0, issuedAt, expiration), iterations);
+
+        System.out.println("Jwts.builder() = " + builderNs + " ns/token");
+        System.out.println("JWTMinter      = " + minterNs + " ns/token");
+        System.out.println("JWTMinter pool = " + pooledNs + " ns/token");
+    }
+
+    private String builder(SecretKey key, String id, String category, String username, String role, int generation) {
+        return Jwts.builder()
+                .claim("category", category)
+                .claim("username", username)
+                .claim("role", role)
+                .id(id)
+                .claim("gen", generation)
+                .issuedAt(new Date(issuedAt))
+                .expiration(new Date(expiration))
+                .signWith(key)
+                .compact();
+    }
+
+    private SecretKey key(String secret) {
+        return new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+    }
+
+    private long measure(Runnable task, int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            task.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            task.run();
+        }
+        return (System.nanoTime() - start) / iterations;
+    }
+}
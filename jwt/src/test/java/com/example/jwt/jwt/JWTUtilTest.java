@@ -0,0 +1,86 @@
+package com.example.jwt.jwt;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class JWTUtilTest {
+    static final String SECRET = "test-secret-key-for-jwt-util-must-be-at-least-256-bits";
+
+    JWTUtil jwtUtil = new JWTUtil(SECRET);
+
+    @Test
+    void parseReturnsAllClaims() {
+        String token = jwtUtil.createJwt("access", "user1", "ROLE_ADMIN", 60_000L);
+
+        JWTClaims claims = jwtUtil.parse(token);
+
+        assertThat(claims.getCategory()).isEqualTo("access");
+        assertThat(claims.getUsername()).isEqualTo("user1");
+        assertThat(claims.getRole()).isEqualTo("ROLE_ADMIN");
+        assertThat(claims.getExpiration() - claims.getIssuedAt()).isCloseTo(60_000L, within(1_000L));
+        assertThat(claims.isCategory("access")).isTrue();
+        assertThat(claims.isCategory("refresh")).isFalse();
+    }
+
+    @Test
+    void parseRejectsExpiredToken() {
+        String token = jwtUtil.createJwt("access", "user1", "ROLE_ADMIN", -1_000L);
+
+        assertThatThrownBy(() -> jwtUtil.parse(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void parseRejectsForeignSignature() {
+        String token = new JWTUtil(SECRET + "-other").createJwt("access", "user1", "ROLE_ADMIN", 60_000L);
+
+        assertThatThrownBy(() -> jwtUtil.parse(token)).isInstanceOf(JwtException.class);
+    }
+
+    /**
+     * JWTFilter 가 요청마다 하던 작업(파서 생성 + 검증 4회)과 parse() 1회의 비용 비교
+     */
+    @Tag("benchmark")
+    @Test
+    void benchmarkParseOnceAgainstPerClaimParsing() {
+        String token = jwtUtil.createJwt("access", "user1", "ROLE_ADMIN", 60 * 60 * 1000L);
+        SecretKey secretKey = new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        int iterations = 20_000;
+
+        Runnable perClaim = () -> {
+            Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload().getExpiration().before(new Date());
+            Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload().get("category", String.class);
+            Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload().get("username", String.class);
+            Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload().get("role", String.class);
+        };
+        Runnable parseOnce = () -> jwtUtil.parse(token);
+
+        long perClaimNs = measure(perClaim, iterations);
+        long parseOnceNs = measure(parseOnce, iterations);
+
+        System.out.println("per-claim parsing = " + perClaimNs + " ns/request");
+        System.out.println("parse once        = " + parseOnceNs + " ns/request");
+    }
+
+    private long measure(Runnable task, int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            task.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            task.run();
+        }
+        return (System.nanoTime() - start) / iterations;
+    }
+}
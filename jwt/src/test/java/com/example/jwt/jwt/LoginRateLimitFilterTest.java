@@ -0,0 +1,164 @@
+package com.example.jwt.jwt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginRateLimitFilterTest {
+    AtomicLong nanos = new AtomicLong();
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void bucketRefillsAtConfiguredRate() {
+        StripedTokenBuckets buckets = new StripedTokenBuckets(3, Duration.ofSeconds(1), 1_000, nanos::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(buckets.tryAcquire("user")).isZero();
+        }
+        assertThat(buckets.tryAcquire("user")).isEqualTo(Duration.ofSeconds(1).toNanos());
+        assertThat(buckets.tryAcquire("other")).isZero();
+
+        nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(buckets.tryAcquire("user")).isZero();
+        assertThat(buckets.tryAcquire("user")).isPositive();
+
+        // 오래 쉬어도 capacity 이상 쌓이지 않음
+        nanos.addAndGet(Duration.ofHours(1).toNanos());
+        for (int i = 0; i < 3; i++) {
+            assertThat(buckets.tryAcquire("user")).isZero();
+        }
+        assertThat(buckets.tryAcquire("user")).isPositive();
+    }
+
+    @Test
+    void keyCountIsBounded() {
+        StripedTokenBuckets buckets = new StripedTokenBuckets(3, Duration.ofSeconds(1), 6_400, nanos::get);
+
+        for (int i = 0; i < 100_000; i++) {
+            buckets.tryAcquire("user" + i);
+        }
+
+        assertThat(buckets.size()).isLessThanOrEqualTo(6_400);
+    }
+
+    @Test
+    void sprayingOtherKeysCannotResetThrottledKey() {
+        // 구간당 키 1개 -> 같은 구간의 다른 키가 들어오면 바로 교체 대상
+        StripedTokenBuckets buckets = new StripedTokenBuckets(3, Duration.ofSeconds(1), 64, nanos::get);
+        for (int i = 0; i < 3; i++) {
+            buckets.tryAcquire("victim");
+        }
+        assertThat(buckets.tryAcquire("victim")).isPositive();
+
+        // 제한 중인 키는 밀려나지 않고, 같은 구간의 새 키는 거절
+        int rejected = 0;
+        for (int i = 0; i < 10_000; i++) {
+            rejected += buckets.tryAcquire("spray" + i) > 0 ? 1 : 0;
+        }
+        assertThat(rejected).isPositive();
+        assertThat(buckets.tryAcquire("victim")).isPositive();
+        assertThat(buckets.size()).isLessThanOrEqualTo(64);
+
+        // 버킷이 다시 가득 차면 교체 가능
+        nanos.addAndGet(Duration.ofSeconds(3).toNanos());
+        for (int i = 0; i < 10_000; i++) {
+            buckets.tryAcquire("later" + i);
+        }
+        assertThat(buckets.size()).isLessThanOrEqualTo(64);
+    }
+
+    @Test
+    void partiallyDrainedKeysAreEvictedForNewKeys() {
+        // 구간당 키 1개, 모든 키가 토큰을 일부만 사용 (같은 갱신 주기 안에 서로 다른 username 이 몰리는 경우)
+        StripedTokenBuckets buckets = new StripedTokenBuckets(3, Duration.ofSeconds(6), 64, nanos::get);
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(buckets.tryAcquire("user" + i)).isZero();
+            assertThat(buckets.tryAcquire("user" + i)).isZero();
+        }
+        assertThat(buckets.size()).isLessThanOrEqualTo(64);
+    }
+
+    @Test
+    void rejectsWith429BeforeLoginFilter() throws Exception {
+        LoginAttemptLimiter limiter = new LoginAttemptLimiter(
+                new StripedTokenBuckets(100, Duration.ofSeconds(1), 1_000, nanos::get),
+                new StripedTokenBuckets(2, Duration.ofSeconds(10), 1_000, nanos::get), meterRegistry);
+        LoginRateLimitFilter filter = new LoginRateLimitFilter(limiter);
+
+        assertThat(login(filter, "user").getStatus()).isEqualTo(200);
+        assertThat(login(filter, "user").getStatus()).isEqualTo(200);
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(loginRequest("user"), response, chain);
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("10");
+        // 다음 필터(LoginFilter)까지 가지 않음
+        assertThat(chain.getRequest()).isNull();
+
+        // 다른 계정은 영향 없음, 다른 경로는 제한 없음
+        assertThat(login(filter, "other").getStatus()).isEqualTo(200);
+        MockHttpServletRequest api = new MockHttpServletRequest("GET", "/admin");
+        api.setServletPath("/admin");
+        MockFilterChain apiChain = new MockFilterChain();
+        filter.doFilter(api, new MockHttpServletResponse(), apiChain);
+        assertThat(apiChain.getRequest()).isNotNull();
+
+        assertThat(meterRegistry.counter("jwt.login.rate-limit.rejected", "key", "username").count()).isEqualTo(1.0);
+    }
+
+    /**
+     * 정상 로그인(제한에 걸리지 않는 경우)에 더해지는 시간
+     */
+    @Tag("benchmark")
+    @Test
+    void overheadPerLogin() {
+        LoginAttemptLimiter limiter = new LoginAttemptLimiter(100, Duration.ofSeconds(1), 100, Duration.ofSeconds(6),
+                100_000, meterRegistry);
+        int users = 50_000;
+        String[] usernames = new String[users];
+        String[] ips = new String[users];
+        for (int i = 0; i < users; i++) {
+            usernames[i] = "user" + i;
+            ips[i] = "10.0." + (i >> 8 & 0xff) + "." + (i & 0xff);
+        }
+
+        long allowed = 0;
+        for (int round = 0; round < 20; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < users; i++) {
+                if (limiter.tryAcquire(ips[i], usernames[i]) == 0) {
+                    allowed++;
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            if (round % 5 == 4) {
+                System.out.println("rate limit check = " + elapsed / users + " ns per login");
+            }
+        }
+        assertThat(allowed).isEqualTo(20L * users);
+    }
+
+    private static MockHttpServletResponse login(LoginRateLimitFilter filter, String username) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(loginRequest(username), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest loginRequest(String username) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+        request.setServletPath("/login");
+        request.setRemoteAddr("10.0.0.1");
+        request.addParameter("username", username);
+        request.addParameter("password", "password");
+        return request;
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.jwt.jwt;
+
+import com.example.jwt.repository.InMemoryRefreshTokenStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordVerificationExecutorTest {
+    JWTUtil jwtUtil = new JWTUtil(JWTUtilTest.SECRET);
+    List<PasswordVerificationExecutor> executors = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        executors.forEach(PasswordVerificationExecutor::shutdown);
+        SecurityContextHolder.clearContext();
+    }
+
+    private PasswordVerificationExecutor executor(int threads, int queueCapacity) {
+        PasswordVerificationExecutor executor = new PasswordVerificationExecutor(threads, queueCapacity,
+                Duration.ofSeconds(10), Duration.ofSeconds(2), new SimpleMeterRegistry());
+        executors.add(executor);
+        return executor;
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() throws Exception {
+        PasswordVerificationExecutor executor = executor(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        // 실행 중 1개 + 대기 1개
+        for (int i = 0; i < 2; i++) {
+            callers.submit(() -> executor.authenticate(() -> {
+                await(release);
+                return UsernamePasswordAuthenticationToken.authenticated("user", null, List.of());
+            }));
+        }
+        while (executor.queued() < 1) {
+            Thread.sleep(1);
+        }
+
+        assertThatThrownBy(() -> executor.authenticate(() -> null))
+                .isInstanceOf(LoginOverloadedException.class);
+
+        // LoginFilter 는 503 + Retry-After 로 응답
+        LoginFilter loginFilter = new LoginFilter(authentication -> UsernamePasswordAuthenticationToken.authenticated(
+                authentication.getName(), null, List.of(new SimpleGrantedAuthority("ROLE_USER"))), jwtUtil,
+                new InMemoryRefreshTokenStore(), executor);
+        MockHttpServletResponse response = login(loginFilter);
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("2");
+
+        release.countDown();
+        callers.shutdown();
+        assertThat(callers.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(login(loginFilter).getStatus()).isEqualTo(200);
+    }
+
+    /**
+     * 로그인 폭주 중 일반 API(JWTFilter) 지연 비교
+     *  - request-thread : 요청 스레드 수만큼 BCrypt 동시 실행 (기존 동작)
+     *  - bounded        : CPU 코어 수만큼만 BCrypt 실행, 대기열 초과는 503
+     */
+    @Tag("benchmark")
+    @Test
+    void apiLatencyDuringLoginStorm() throws Exception {
+        int requestThreads = 16;
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        long[] requestThread = storm(executor(requestThreads, 10_000), requestThreads);
+        long[] bounded = storm(executor(cores, cores * 2), requestThreads);
+
+        System.out.println("request-thread : api p50 = " + percentile(requestThread, 0.50) + "us, p99 = " + percentile(requestThread, 0.99) + "us");
+        System.out.println("bounded        : api p50 = " + percentile(bounded, 0.50) + "us, p99 = " + percentile(bounded, 0.99) + "us");
+    }
+
+    private long[] storm(PasswordVerificationExecutor executor, int requestThreads) throws Exception {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(8);
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(encoder);
+        provider.setUserDetailsService(new InMemoryUserDetailsManager(
+                User.withUsername("user").password(encoder.encode("password")).roles("USER").build()));
+        AuthenticationManager authenticationManager = new ProviderManager(provider);
+
+        LoginFilter loginFilter = new LoginFilter(authenticationManager, jwtUtil, new InMemoryRefreshTokenStore(), executor);
+        JWTFilter jwtFilter = new JWTFilter(jwtUtil, null, null);
+        String accessToken = jwtUtil.createJwt("access", "user", "ROLE_USER", 60_000L);
+
+        // Tomcat 요청 스레드 풀 역할
+        ExecutorService tomcat = Executors.newFixedThreadPool(requestThreads);
+        AtomicInteger unavailable = new AtomicInteger();
+        for (int i = 0; i < 200; i++) {
+            tomcat.submit(() -> {
+                if (login(loginFilter).getStatus() == 503) {
+                    unavailable.incrementAndGet();
+                }
+                return null;
+            });
+        }
+
+        int apiRequests = 100;
+        long[] latencies = new long[apiRequests];
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < apiRequests; i++) {
+            int index = i;
+            long submittedAt = System.nanoTime();
+            futures.add(tomcat.submit(() -> {
+                MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+                request.addHeader("access", accessToken);
+                jwtFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+                SecurityContextHolder.clearContext();
+                latencies[index] = System.nanoTime() - submittedAt;
+                return null;
+            }));
+            Thread.sleep(5);
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        tomcat.shutdown();
+        tomcat.awaitTermination(1, TimeUnit.MINUTES);
+
+        System.out.println("logins rejected with 503 = " + unavailable.get() + " / 200");
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * percentile))] / 1_000L;
+    }
+
+    private static MockHttpServletResponse login(LoginFilter loginFilter) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+        request.setServletPath("/login");
+        request.addParameter("username", "user");
+        request.addParameter("password", "password");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        loginFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
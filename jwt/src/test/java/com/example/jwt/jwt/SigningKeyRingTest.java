@@ -0,0 +1,226 @@
+package com.example.jwt.jwt;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.UnsupportedKeyException;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class SigningKeyRingTest {
+    static final long DAY = Duration.ofDays(1).toMillis();
+    static final long MINUTE = Duration.ofMinutes(1).toMillis();
+
+    TokenRevocationListTest.SteppingClock clock = new TokenRevocationListTest.SteppingClock(System.currentTimeMillis());
+
+    private SigningKeyRing ring(String algorithm, Path dir, boolean acceptHmac) {
+        return new SigningKeyRing(algorithm, dir, Duration.ofDays(7), Duration.ofMinutes(10), Duration.ofHours(25),
+                acceptHmac, clock);
+    }
+
+    @Test
+    void rotationPublishesAheadAndKeepsOldKeyForOverlap() {
+        SigningKeyRing ring = ring("ES256", null, true);
+        SigningKeyRing.SigningKey first = ring.signingKey();
+        JWTUtil jwtUtil = new JWTUtil(JWTUtilTest.SECRET, null, ring);
+        String oldToken = jwtUtil.createJwt("refresh", "user1", "ROLE_USER", DAY);
+
+        // 교체 10분 전 : 새 키는 JWKS 에만 공개, 서명은 이전 키
+        clock.advance(7 * DAY - 10 * MINUTE);
+        ring.maintain();
+        assertThat(ring.keys()).hasSize(2);
+        assertThat(ring.signingKey()).isEqualTo(first);
+        SigningKeyRing.SigningKey second = ring.keys().get(1);
+        assertThat(ring.jwks()).contains(second.getKid());
+
+        // 교체 시점 : 새 키로 서명, 이전 키로 서명한 토큰도 검증
+        clock.advance(10 * MINUTE);
+        ring.maintain();
+        assertThat(ring.signingKey()).isEqualTo(second);
+        assertThat(jwtUtil.parse(oldToken).getUsername()).isEqualTo("user1");
+
+        // overlap 이 지나면 이전 키 제거
+        clock.advance(Duration.ofHours(25).toMillis());
+        ring.maintain();
+        assertThat(ring.keys()).containsExactly(second);
+        assertThat(ring.verificationKey(first.getKid())).isNull();
+        assertThatThrownBy(() -> jwtUtil.parse(oldToken)).isInstanceOf(UnsupportedKeyException.class);
+    }
+
+    @Test
+    void tokensCarryKidAndVerifyWithPublishedKey() throws Exception {
+        for (String algorithm : new String[]{"ES256", "EdDSA"}) {
+            SigningKeyRing ring = ring(algorithm, null, true);
+            JWTUtil jwtUtil = new JWTUtil(JWTUtilTest.SECRET, null, ring);
+            String token = jwtUtil.createJwt("access", "user1", "ROLE_ADMIN", 60_000L);
+
+            JWTClaims claims = jwtUtil.parse(token);
+            assertThat(claims.getCategory()).isEqualTo("access");
+            assertThat(claims.getRole()).isEqualTo("ROLE_ADMIN");
+            assertThat(claims.getId()).isNotNull();
+
+            // 다른 서비스 : JWKS 만으로 검증
+            JsonNode jwk = new ObjectMapper().readTree(ring.jwks()).get("keys").get(0);
+            assertThat(jwk.get("alg").asText()).isEqualTo(algorithm);
+            assertThat(jwk.get("crv").asText()).isEqualTo(algorithm.equals("ES256") ? "P-256" : "Ed25519");
+            assertThat(jwk.get("use").asText()).isEqualTo("sig");
+            assertThat(jwk.has("d")).isFalse();
+            assertThat(Jwts.parser().verifyWith(ring.verificationKey(jwk.get("kid").asText()).getPublicKey()).build()
+                    .parseSignedClaims(token).getHeader().getKeyId()).isEqualTo(jwk.get("kid").asText());
+        }
+    }
+
+    @Test
+    void rejectsUnknownKidAndAlgorithmConfusion() {
+        SigningKeyRing ring = ring("ES256", null, true);
+        JWTUtil jwtUtil = new JWTUtil(JWTUtilTest.SECRET, null, ring);
+
+        String foreign = new JWTUtil(JWTUtilTest.SECRET, null, ring("ES256", null, true))
+                .createJwt("access", "user1", "ROLE_ADMIN", 60_000L);
+        assertThatThrownBy(() -> jwtUtil.parse(foreign)).isInstanceOf(UnsupportedKeyException.class);
+
+        // 공개 키 바이트를 HMAC secret 으로 쓴 HS256 토큰에 링의 kid 를 붙인 경우
+        SigningKeyRing.SigningKey key = ring.signingKey();
+        String forged = Jwts.builder()
+                .header().keyId(key.getKid()).and()
+                .claim("category", "access").claim("username", "admin").claim("role", "ROLE_ADMIN")
+                .expiration(new Date(System.currentTimeMillis() + 60_000L))
+                .signWith(new SecretKeySpec(key.getPublicKey().getEncoded(), "HmacSHA256"))
+                .compact();
+        assertThatThrownBy(() -> jwtUtil.parse(forged)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void hmacTokensAcceptedOnlyWhenEnabled() {
+        String hmacToken = new JWTUtil(JWTUtilTest.SECRET).createJwt("access", "user1", "ROLE_ADMIN", 60_000L);
+
+        assertThat(new JWTUtil(JWTUtilTest.SECRET, null, ring("ES256", null, true)).parse(hmacToken).getUsername())
+                .isEqualTo("user1");
+        assertThatThrownBy(() -> new JWTUtil(JWTUtilTest.SECRET, null, ring("ES256", null, false)).parse(hmacToken))
+                .isInstanceOf(UnsupportedKeyException.class);
+    }
+
+    @Test
+    void keysSurviveRestartAndAreSharedThroughDir(@TempDir Path dir) {
+        SigningKeyRing first = ring("EdDSA", dir, true);
+        String token = new JWTUtil(JWTUtilTest.SECRET, null, first).createJwt("refresh", "user1", "ROLE_USER", DAY);
+
+        // 재시작 (또는 같은 dir 를 보는 다른 노드)
+        SigningKeyRing restarted = ring("EdDSA", dir, true);
+        assertThat(restarted.signingKey()).isEqualTo(first.signingKey());
+        assertThat(restarted.jwksETag()).isEqualTo(first.jwksETag());
+        assertThat(new JWTUtil(JWTUtilTest.SECRET, null, restarted).parse(token).getUsername()).isEqualTo("user1");
+
+        // 한 노드에서 즉시 교체 -> 새 키는 바로 공개, 서명은 publish-ahead 뒤부터
+        // 다른 노드는 다음 maintain 에서 새 키를 읽음
+        clock.advance(MINUTE);
+        SigningKeyRing.SigningKey previous = first.signingKey();
+        SigningKeyRing.SigningKey rotated = first.rotateNow();
+        assertThat(rotated.getActivatesAt()).isEqualTo(clock.millis() + 10 * MINUTE);
+        assertThat(first.jwks()).contains(rotated.getKid());
+        assertThat(first.signingKey()).isEqualTo(previous);
+        restarted.maintain();
+        assertThat(restarted.verificationKey(rotated.getKid())).isNotNull();
+        assertThat(restarted.signingKey()).isEqualTo(previous);
+        assertThat(restarted.jwksETag()).isEqualTo(first.jwksETag());
+
+        clock.advance(10 * MINUTE);
+        assertThat(first.signingKey()).isEqualTo(rotated);
+        assertThat(restarted.signingKey()).isEqualTo(rotated);
+    }
+
+    @Test
+    void revokingRotationDropsPreviousKeysOnEveryNode(@TempDir Path dir) {
+        SigningKeyRing first = ring("ES256", dir, true);
+        SigningKeyRing second = ring("ES256", dir, true);
+        String leaked = new JWTUtil(JWTUtilTest.SECRET, null, first).createJwt("refresh", "user1", "ROLE_USER", DAY);
+        SigningKeyRing.SigningKey previous = first.signingKey();
+
+        // 키 유출 : 새 키만 남기고 이전 키로 서명한 토큰은 바로 거부
+        clock.advance(MINUTE);
+        SigningKeyRing.SigningKey rotated = first.rotateNow(true);
+        assertThat(first.keys()).containsExactly(rotated);
+        assertThat(first.signingKey()).isEqualTo(rotated);
+        assertThatThrownBy(() -> new JWTUtil(JWTUtilTest.SECRET, null, first).parse(leaked))
+                .isInstanceOf(UnsupportedKeyException.class);
+
+        // 다른 노드 : 메모리에 남은 이전 키도 다음 maintain 에서 제거
+        assertThat(second.verificationKey(previous.getKid())).isNotNull();
+        second.maintain();
+        assertThat(second.keys()).containsExactly(rotated);
+        assertThatThrownBy(() -> new JWTUtil(JWTUtilTest.SECRET, null, second).parse(leaked))
+                .isInstanceOf(UnsupportedKeyException.class);
+
+        // 재시작해도 폐기한 키는 읽지 않고, overlap 이 지나면 표시도 정리
+        assertThat(ring("ES256", dir, true).keys()).containsExactly(rotated);
+        clock.advance(Duration.ofHours(25).toMillis());
+        second.maintain();
+        assertThat(dir.resolve(previous.getKid() + ".revoked")).doesNotExist();
+        assertThat(second.keys()).containsExactly(rotated);
+    }
+
+    @Test
+    void keyFilesAreReadableByOwnerOnly(@TempDir Path dir) throws Exception {
+        assumeTrue(dir.getFileSystem().supportedFileAttributeViews().contains("posix"));
+        SigningKeyRing ring = ring("ES256", dir, true);
+        ring.rotateNow();
+
+        for (SigningKeyRing.SigningKey key : ring.keys()) {
+            assertThat(Files.getPosixFilePermissions(dir.resolve(key.getKid() + ".key")))
+                    .isEqualTo(PosixFilePermissions.fromString("rw-------"));
+        }
+    }
+
+    /**
+     * 서명 / 검증 비용 비교 (HS256 은 JWTMinter, 비대칭은 Jwts.builder())
+     */
+    @Tag("benchmark")
+    @Test
+    void benchmarkSignAndVerify() {
+        JWTUtil hmac = new JWTUtil(JWTUtilTest.SECRET);
+        JWTUtil es256 = new JWTUtil(JWTUtilTest.SECRET, null, ring("ES256", null, true));
+        JWTUtil eddsa = new JWTUtil(JWTUtilTest.SECRET, null, ring("EdDSA", null, true));
+
+        for (JWTUtil jwtUtil : new JWTUtil[]{hmac, es256, eddsa}) {
+            String name = jwtUtil == hmac ? "HS256" : jwtUtil == es256 ? "ES256" : "EdDSA";
+            Supplier<String> sign = () -> jwtUtil.createJwt("access", "user1", "ROLE_ADMIN", 600_000L);
+            String token = sign.get();
+
+            double signUs = measure(() -> sign.get().length());
+            double verifyUs = measure(() -> jwtUtil.parse(token).getUsername().length());
+            System.out.printf("%-5s : sign %.1fus, verify %.1fus, token %d bytes, signature %d bytes%n",
+                    name, signUs, verifyUs, token.length(),
+                    Base64.getUrlDecoder().decode(token.substring(token.lastIndexOf('.') + 1)).length);
+        }
+    }
+
+    private static double measure(Supplier<Integer> operation) {
+        int iterations = 2_000;
+        long sink = 0;
+        for (int i = 0; i < iterations; i++) {
+            sink += operation.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += operation.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        assertThat(sink).isPositive();
+        return elapsed / 1_000.0 / iterations;
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.jwt.jwt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenRevocationListTest {
+    static final long MINUTE = 60_000L;
+
+    SteppingClock clock = new SteppingClock(1_700_000_000_000L);
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private TokenRevocationList revocationList(long maxMemoryBytes) {
+        return new TokenRevocationList(0.001, maxMemoryBytes, Duration.ofMinutes(1), Duration.ofMinutes(10),
+                clock, meterRegistry);
+    }
+
+    @Test
+    void revokedTokenIsFoundUntilItExpires() {
+        TokenRevocationList revocationList = revocationList(1 << 20);
+        long expiresAt = clock.millis() + 10 * MINUTE;
+
+        revocationList.revoke("revoked", expiresAt);
+
+        assertThat(revocationList.isRevoked("revoked", expiresAt)).isTrue();
+        assertThat(revocationList.isRevoked("other", expiresAt)).isFalse();
+        // 다른 구간은 Bloom filter 자체가 없음
+        assertThat(revocationList.isRevoked("revoked", expiresAt + 5 * MINUTE)).isTrue();
+
+        // 만료 후에는 구간째 정리
+        clock.advance(11 * MINUTE);
+        revocationList.expire();
+        assertThat(revocationList.size()).isZero();
+        assertThat(revocationList.bloomBytes()).isZero();
+    }
+
+    @Test
+    void tokenOutlivingTheRingIsStillRevoked() {
+        TokenRevocationList revocationList = revocationList(1 << 20);
+        long expiresAt = clock.millis() + 60 * MINUTE;
+
+        revocationList.revoke("long-lived", expiresAt);
+        clock.advance(55 * MINUTE);
+
+        assertThat(revocationList.isRevoked("long-lived", expiresAt)).isTrue();
+    }
+
+    @Test
+    void memoryStaysUnderCeilingAndFalsePositivesStayNearTarget() {
+        long ceiling = 256 * 1024;
+        TokenRevocationList revocationList = revocationList(ceiling);
+
+        // 모든 구간에 각 구간 용량만큼 폐기
+        long perBucket = BloomFilter.capacity(ceiling / 12, 0.001);
+        for (int bucket = 0; bucket < 10; bucket++) {
+            long expiresAt = clock.millis() + (bucket + 1) * MINUTE;
+            for (long i = 0; i < perBucket; i++) {
+                revocationList.revoke("revoked-" + bucket + "-" + i, expiresAt);
+            }
+        }
+        assertThat(revocationList.bloomBytes()).isLessThanOrEqualTo(ceiling);
+
+        int probes = 200_000;
+        long expiresAt = clock.millis() + 5 * MINUTE;
+        for (int i = 0; i < probes; i++) {
+            assertThat(revocationList.isRevoked("live-" + i, expiresAt)).isFalse();
+        }
+        double falsePositiveRate = meterRegistry.counter("jwt.revocation.bloom.false-positive").count() / probes;
+        System.out.println("bloom = " + revocationList.bloomBytes() + " bytes, fpp = " + falsePositiveRate);
+        assertThat(falsePositiveRate).isLessThan(0.005);
+    }
+
+    @Test
+    void jwtFilterRejectsRevokedToken() throws Exception {
+        JWTUtil jwtUtil = new JWTUtil(JWTUtilTest.SECRET);
+        TokenRevocationList revocationList = new TokenRevocationList(0.001, 1 << 20, Duration.ofMinutes(1),
+                Duration.ofMinutes(10), Clock.systemUTC(), meterRegistry);
+        JWTFilter filter = new JWTFilter(jwtUtil, null, revocationList);
+        String token = jwtUtil.createJwt("access", "user1", "ROLE_ADMIN", 60_000L);
+
+        assertThat(request(filter, token).getStatus()).isEqualTo(200);
+
+        JWTClaims claims = jwtUtil.parse(token);
+        revocationList.revoke(claims.getId(), claims.getExpiration());
+
+        MockHttpServletResponse response = request(filter, token);
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(response.getContentAsString()).isEqualTo("access token is revoked");
+    }
+
+    /**
+     * 폐기되지 않은 토큰 요청 시 JWTFilter 비용 (검증 캐시 사용, 폐기 목록 없음 / 있음)
+     */
+    @Tag("benchmark")
+    @Test
+    void benchmarkJwtFilter() throws Exception {
+        JWTUtil jwtUtil = new JWTUtil(JWTUtilTest.SECRET);
+        TokenRevocationList revocationList = new TokenRevocationList(0.001, 4 << 20, Duration.ofMinutes(1),
+                Duration.ofMinutes(10), Clock.systemUTC(), meterRegistry);
+        for (int i = 0; i < 10_000; i++) {
+            revocationList.revoke("revoked-" + i, System.currentTimeMillis() + (i % 10 + 1) * MINUTE);
+        }
+        String token = jwtUtil.createJwt("access", "user1", "ROLE_ADMIN", 10 * MINUTE);
+        JWTClaims claims = jwtUtil.parse(token);
+
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, meterRegistry);
+        long without = measure(new JWTFilter(jwtUtil, cache, null), token);
+        long with = measure(new JWTFilter(jwtUtil, cache, revocationList), token);
+
+        int iterations = 1_000_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            revocationList.isRevoked(claims.getId(), claims.getExpiration());
+        }
+        long check = (System.nanoTime() - start) / iterations;
+
+        System.out.println("JWTFilter without revocation list = " + without + " ns/request");
+        System.out.println("JWTFilter with revocation list    = " + with + " ns/request");
+        System.out.println("isRevoked (negative)              = " + check + " ns");
+    }
+
+    private long measure(JWTFilter filter, String token) throws Exception {
+        int iterations = 100_000;
+        for (int i = 0; i < iterations; i++) {
+            request(filter, token);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            request(filter, token);
+        }
+        return (System.nanoTime() - start) / iterations;
+    }
+
+    private static MockHttpServletResponse request(JWTFilter filter, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("access", token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        SecurityContextHolder.clearContext();
+        return response;
+    }
+
+    static class SteppingClock extends Clock {
+        private final AtomicLong millis;
+
+        SteppingClock(long millis) {
+            this.millis = new AtomicLong(millis);
+        }
+
+        void advance(long ms) {
+            millis.addAndGet(ms);
+        }
+
+        @Override
+        public long millis() {
+            return millis.get();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.jwt.jwt;
+
+import com.example.jwt.repository.UserGenerationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserGenerationsTest {
+    @Autowired
+    UserGenerationRepository userGenerationRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void clear() {
+        userGenerationRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void bumpInvalidatesEarlierTokens() throws Exception {
+        UserGenerations userGenerations = newUserGenerations();
+        JWTUtil jwtUtil = new JWTUtil(JWTUtilTest.SECRET, userGenerations);
+        String before = jwtUtil.createJwt("access", "user1", "ROLE_USER", 60_000L);
+        String other = jwtUtil.createJwt("access", "user2", "ROLE_USER", 60_000L);
+
+        assertThat(userGenerations.bump("user1")).isEqualTo(1);
+        assertThat(userGenerations.bump("user1")).isEqualTo(2);
+        String after = jwtUtil.createJwt("access", "user1", "ROLE_USER", 60_000L);
+
+        assertThat(jwtUtil.parse(after).getGeneration()).isEqualTo(2);
+        assertThat(jwtUtil.isStaleGeneration(jwtUtil.parse(before))).isTrue();
+        assertThat(jwtUtil.isStaleGeneration(jwtUtil.parse(after))).isFalse();
+        assertThat(jwtUtil.isStaleGeneration(jwtUtil.parse(other))).isFalse();
+
+        JWTFilter filter = new JWTFilter(jwtUtil, null, null);
+        assertThat(filter(filter, before).getStatus()).isEqualTo(401);
+        assertThat(filter(filter, after).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void otherNodesPickUpChangesOnRefresh() {
+        UserGenerations node1 = newUserGenerations();
+        UserGenerations node2 = newUserGenerations();
+        node1.bump("existing");
+        node2.refresh();
+        assertThat(node2.current("existing")).isEqualTo(1);
+
+        node1.bump("user1");
+        node1.bump("existing");
+        assertThat(node2.current("user1")).isZero();
+
+        node2.refresh();
+        assertThat(node2.current("user1")).isEqualTo(1);
+        assertThat(node2.current("existing")).isEqualTo(2);
+        assertThat(node2.current("unknown")).isZero();
+    }
+
+    /**
+     * 100만 사용자 세대 번호의 메모리 사용량 비교 (해시 + int 배열 vs ConcurrentHashMap<String, Integer>)
+     */
+    @Tag("benchmark")
+    @Test
+    void memoryFootprintForOneMillionUsers() throws Exception {
+        int users = 1_000_000;
+
+        long base = usedMemory();
+        GenerationTable table = new GenerationTable(1024);
+        for (int i = 0; i < users; i++) {
+            table.put("user-" + i, 1 + (i & 7));
+        }
+        long tableBytes = usedMemory() - base;
+
+        base = usedMemory();
+        ConcurrentHashMap<String, Integer> map = new ConcurrentHashMap<>();
+        for (int i = 0; i < users; i++) {
+            map.put("user-" + i, 1 + (i & 7) + 1000);
+        }
+        long mapBytes = usedMemory() - base;
+
+        int iterations = 1_000_000;
+        long sink = 0;
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += table.get("user-" + ThreadLocalRandom.current().nextInt(users));
+            }
+            if (round == 4) {
+                System.out.printf("generation lookup: %d ns/op%n", (System.nanoTime() - start) / iterations);
+            }
+        }
+
+        System.out.printf("1M users: GenerationTable %d KB (arrays %d KB), ConcurrentHashMap %d KB%n",
+                tableBytes / 1024, table.byteSize() / 1024, mapBytes / 1024);
+
+        assertThat(sink).isPositive();
+        assertThat(table.size()).isEqualTo(users);
+        assertThat(table.get("user-12345")).isEqualTo(1 + (12345 & 7));
+        assertThat(map).hasSize(users);
+        // long 키 + int 세대, 적재율 0.5 이하 (용량은 2의 거듭제곱) -> 사용자당 최대 약 26 바이트
+        assertThat(table.byteSize()).isLessThanOrEqualTo(users * 26L);
+    }
+
+    private UserGenerations newUserGenerations() {
+        return new UserGenerations(userGenerationRepository, jdbcTemplate, Clock.systemUTC(), new SimpleMeterRegistry());
+    }
+
+    private MockHttpServletResponse filter(JWTFilter filter, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("access", token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static long usedMemory() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.jwt.jwt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class VerifiedTokenCacheTest {
+    JWTUtil jwtUtil = spy(new JWTUtil(JWTUtilTest.SECRET));
+    VerifiedTokenCache cache = new VerifiedTokenCache(100, new SimpleMeterRegistry());
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void repeatedRequestSkipsJwtUtil() throws Exception {
+        String token = jwtUtil.createJwt("access", "user1", "ROLE_ADMIN", 60_000L);
+        JWTFilter filter = new JWTFilter(jwtUtil, cache, null);
+
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+            request.addHeader("access", token);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            filter.doFilter(request, response, new MockFilterChain());
+
+            assertThat(response.getStatus()).isEqualTo(200);
+            assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("user1");
+        }
+
+        verify(jwtUtil, times(1)).parse(token);
+        assertThat(cache.missCount()).isEqualTo(1);
+        assertThat(cache.hitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void refreshTokenIsNotCached() throws Exception {
+        String token = jwtUtil.createJwt("refresh", "user1", "ROLE_ADMIN", 60_000L);
+        JWTFilter filter = new JWTFilter(jwtUtil, cache, null);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("access", token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(cache.get(token)).isNull();
+    }
+
+    @Test
+    void entryDoesNotOutliveTokenExpiration() {
+        JWTClaims expired = new JWTClaims("jti", "access", "user1", "ROLE_ADMIN", 0,
+                System.currentTimeMillis() - 60_000L, System.currentTimeMillis() - 1L);
+
+        cache.put("expired-token", expired);
+
+        assertThat(cache.get("expired-token")).isNull();
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.jwt.repository;
+
+import com.example.jwt.jwt.TokenDigest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileRefreshTokenStoreTest {
+    static final long CAPACITY = 1 << 20;
+    // 큰 규모 측정 : -Dfile-store.tokens=10000000 -Dfile-store.capacity=33554432
+    static final int TOKENS = Integer.getInteger("file-store.tokens", 200_000);
+    static final long BENCH_CAPACITY = Long.getLong("file-store.capacity", 1 << 20);
+
+    @TempDir
+    Path dir;
+
+    InMemoryRefreshTokenStoreTest.MutableClock clock = new InMemoryRefreshTokenStoreTest.MutableClock(System.currentTimeMillis());
+
+    @Test
+    void tokensSurviveRestart() throws IOException {
+        long expiresAt = clock.millis() + 60_000L;
+        try (FileRefreshTokenStore store = open(CAPACITY)) {
+            store.save("user1", hash("a"), expiresAt);
+            store.save("user1", hash("b"), expiresAt);
+            store.save("user2", hash("c"), expiresAt);
+            assertThat(store.rotate(hash("a"), hash("a2"), expiresAt)).isTrue();
+            assertThat(store.rotate(hash("a"), hash("a3"), expiresAt)).isFalse();
+            assertThat(store.revoke(hash("b"))).isTrue();
+        }
+
+        try (FileRefreshTokenStore store = open(CAPACITY)) {
+            assertThat(store.getRecoveredRecords()).isZero();
+            assertThat(store.exists(hash("a"))).isFalse();
+            assertThat(store.exists(hash("a2"))).isTrue();
+            assertThat(store.exists(hash("b"))).isFalse();
+            assertThat(store.revokeAll("user1")).isEqualTo(1);
+            assertThat(store.revokeAll("user2")).isEqualTo(1);
+            assertThat(store.size()).isZero();
+        }
+    }
+
+    @Test
+    void recoversFromLogAfterCrash() throws IOException {
+        long expiresAt = clock.millis() + 60_000L;
+        // close() 없이 버림 -> 체크포인트 이후 기록은 로그에만 있음
+        FileRefreshTokenStore crashed = open(CAPACITY);
+        for (int i = 0; i < 1000; i++) {
+            crashed.save("user" + (i % 10), hash("token" + i), expiresAt);
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            crashed.rotate(hash("token" + i), hash("rotated" + i), expiresAt);
+        }
+        crashed.revoke(hash("token1"));
+
+        // 마지막 레코드가 기록 도중 잘린 상황
+        Files.write(dir.resolve("wal.log"), new byte[]{1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (FileRefreshTokenStore store = open(CAPACITY)) {
+            assertThat(store.getRecoveredRecords()).isEqualTo(1000 + 500 + 1);
+            assertThat(store.size()).isEqualTo(999);
+            assertThat(store.exists(hash("token0"))).isFalse();
+            assertThat(store.exists(hash("rotated0"))).isTrue();
+            assertThat(store.exists(hash("token1"))).isFalse();
+            assertThat(store.exists(hash("token3"))).isTrue();
+        }
+    }
+
+    @Test
+    void rotateIntoFullIndexKeepsOldToken() throws IOException {
+        long expiresAt = clock.millis() + 60_000L;
+        try (FileRefreshTokenStore store = open(16)) {
+            // 빈 슬롯 1/8 (2개) 만 남을 때까지 채움
+            for (int i = 0; i < 14; i++) {
+                store.save("user1", hash("token" + i), expiresAt);
+            }
+            assertThatThrownBy(() -> store.rotate(hash("token0"), hash("new"), expiresAt))
+                    .isInstanceOf(IllegalStateException.class);
+            assertThat(store.exists(hash("token0"))).isTrue();
+            assertThat(store.exists(hash("new"))).isFalse();
+        }
+
+        try (FileRefreshTokenStore store = open(16)) {
+            assertThat(store.exists(hash("token0"))).isTrue();
+            assertThat(store.size()).isEqualTo(14);
+        }
+    }
+
+    @Test
+    void failedLogWriteLeavesIndexUnchanged() throws IOException {
+        long expiresAt = clock.millis() + 60_000L;
+        FileRefreshTokenStore store = open(CAPACITY);
+        store.save("user1", hash("a"), expiresAt);
+
+        // 로그 기록 실패 (인터럽트된 스레드의 write 는 채널을 닫음 -> 이후 기록도 모두 실패, 디스크 가득 참과 같은 상황)
+        Thread.currentThread().interrupt();
+        assertThatThrownBy(() -> store.save("user1", hash("b"), expiresAt)).isInstanceOf(UncheckedIOException.class);
+        Thread.interrupted();
+        assertThatThrownBy(() -> store.rotate(hash("a"), hash("a2"), expiresAt)).isInstanceOf(UncheckedIOException.class);
+        assertThatThrownBy(() -> store.revoke(hash("a"))).isInstanceOf(UncheckedIOException.class);
+        assertThatThrownBy(() -> store.revokeAll("user1")).isInstanceOf(UncheckedIOException.class);
+
+        // 로그에 없는 변경은 index 에도 없음
+        assertThat(store.exists(hash("a"))).isTrue();
+        assertThat(store.exists(hash("a2"))).isFalse();
+        assertThat(store.exists(hash("b"))).isFalse();
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void expiredTokensAreSweptAndCompacted() throws IOException {
+        try (FileRefreshTokenStore store = open(1 << 12)) {
+            for (int i = 0; i < 3000; i++) {
+                store.save("user1", hash("token" + i), clock.millis() + (i < 2000 ? 1_000L : 60_000L));
+            }
+            clock.advance(5_000L);
+            assertThat(store.exists(hash("token0"))).isFalse();
+
+            store.maintenance();
+            assertThat(store.size()).isEqualTo(1000);
+
+            // tombstone 2000 개 > capacity / 4 -> 압축 후에도 살아 있는 토큰 유지
+            store.checkpoint();
+            assertThat(store.exists(hash("token2999"))).isTrue();
+            store.save("user1", hash("after-compaction"), clock.millis() + 60_000L);
+        }
+        try (FileRefreshTokenStore store = open(1 << 12)) {
+            assertThat(store.size()).isEqualTo(1001);
+        }
+    }
+
+    @Tag("benchmark")
+    @Test
+    void benchmarkThroughputAndRecovery() throws Exception {
+        String[] hashes = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            hashes[i] = hash("token" + i);
+        }
+        long expiresAt = clock.millis() + 60 * 60_000L;
+
+        FileRefreshTokenStore store = new FileRefreshTokenStore(dir, BENCH_CAPACITY, Long.MAX_VALUE, Duration.ofDays(1), Clock.systemUTC());
+        long insert = parallel(TOKENS, (i) -> store.save("user" + (i % 10_000), hashes[i], expiresAt));
+        long lookup = parallel(TOKENS, (i) -> store.exists(hashes[i]));
+
+        // 체크포인트 없이 재시작 -> 로그 전체 재적용
+        FileRefreshTokenStore recovered = new FileRefreshTokenStore(dir, BENCH_CAPACITY, Long.MAX_VALUE, Duration.ofDays(1), Clock.systemUTC());
+        long delete = parallel(TOKENS, (i) -> recovered.revoke(hashes[i]));
+        recovered.close();
+
+        System.out.println("tokens   = " + TOKENS);
+        System.out.println("insert   = " + insert + " ops/s");
+        System.out.println("lookup   = " + lookup + " ops/s");
+        System.out.println("delete   = " + delete + " ops/s");
+        System.out.println("recovery = " + recovered.getRecoveryMillis() + " ms (" + recovered.getRecoveredRecords() + " records)");
+        assertThat(recovered.getRecoveredRecords()).isEqualTo(TOKENS);
+    }
+
+    private long parallel(int count, IntTask task) throws InterruptedException {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            executor.execute(() -> {
+                for (int i = offset; i < count; i += threads) {
+                    task.run(i);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.MINUTES);
+        return count * 1_000_000_000L / (System.nanoTime() - start);
+    }
+
+    private FileRefreshTokenStore open(long capacity) throws IOException {
+        return new FileRefreshTokenStore(dir, capacity, 1 << 20, Duration.ofMinutes(1), clock);
+    }
+
+    private static String hash(String token) {
+        return TokenDigest.sha256Hex(token);
+    }
+
+    interface IntTask {
+        void run(int i);
+    }
+}
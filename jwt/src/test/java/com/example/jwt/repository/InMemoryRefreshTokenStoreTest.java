@@ -0,0 +1,231 @@
+package com.example.jwt.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryRefreshTokenStoreTest {
+    MutableClock clock = new MutableClock(1_700_000_000_000L);
+    InMemoryRefreshTokenStore store = new InMemoryRefreshTokenStore(clock);
+
+    @Test
+    void rotateReplacesTokenOnce() {
+        store.save("user1", "old", clock.millis() + 60_000L);
+
+        assertThat(store.rotate("old", "new", clock.millis() + 60_000L)).isTrue();
+        assertThat(store.rotate("old", "other", clock.millis() + 60_000L)).isFalse();
+        assertThat(store.exists("old")).isFalse();
+        assertThat(store.exists("new")).isTrue();
+        assertThat(store.revoke("new")).isTrue();
+        assertThat(store.revoke("new")).isFalse();
+    }
+
+    @Test
+    void concurrentRotationSucceedsExactlyOnce() throws Exception {
+        store.save("user1", "old", clock.millis() + 60_000L);
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            String newHash = "new-" + i;
+            results.add(executor.submit(() -> {
+                start.await();
+                return store.rotate("old", newHash, clock.millis() + 60_000L);
+            }));
+        }
+        start.countDown();
+
+        int succeeded = 0;
+        for (Future<Boolean> result : results) {
+            succeeded += result.get() ? 1 : 0;
+        }
+        executor.shutdown();
+
+        assertThat(succeeded).isEqualTo(1);
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void revokeAllRemovesEveryTokenOfUser() {
+        for (int i = 0; i < 10; i++) {
+            store.save("user1", "user1-" + i, clock.millis() + 60_000L);
+        }
+        store.save("user2", "user2-0", clock.millis() + 60_000L);
+        store.rotate("user1-0", "user1-rotated", clock.millis() + 60_000L);
+
+        assertThat(store.revokeAll("user1")).isEqualTo(10);
+        assertThat(store.exists("user1-rotated")).isFalse();
+        assertThat(store.exists("user2-0")).isTrue();
+        assertThat(store.revokeAll("user1")).isZero();
+    }
+
+    @Test
+    void timingWheelExpiresTokensAcrossLevels() {
+        // level 0 (초), level 1 (분), level 2 (시간 단위)에 걸쳐 등록
+        long[] lifetimes = {5_000L, 90_000L, 10 * 60_000L, 24 * 60 * 60_000L};
+        for (int i = 0; i < lifetimes.length; i++) {
+            store.save("user1", "token-" + i, clock.millis() + lifetimes[i]);
+        }
+
+        long elapsed = 0;
+        for (int i = 0; i < lifetimes.length; i++) {
+            clock.advance(lifetimes[i] - 1_000L - elapsed);
+            store.expire();
+            assertThat(store.size()).isEqualTo(lifetimes.length - i);
+
+            clock.advance(1_000L);
+            store.expire();
+            assertThat(store.size()).isEqualTo(lifetimes.length - i - 1);
+            elapsed = lifetimes[i];
+        }
+        assertThat(store.revokeAll("user1")).isZero();
+    }
+
+    @Test
+    void rotatedTokenIsCancelledInWheel() {
+        store.save("user1", "old", clock.millis() + 5_000L);
+        store.rotate("old", "new", clock.millis() + 60_000L);
+
+        clock.advance(10_000L);
+        store.expire();
+
+        assertThat(store.exists("new")).isTrue();
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void loginBeyondCapEvictsLeastRecentlyUsedSession() {
+        InMemoryRefreshTokenStore capped = new InMemoryRefreshTokenStore(clock, 3);
+        for (int i = 0; i < 3; i++) {
+            capped.save("user1", "token-" + i, clock.millis() + 60_000L);
+        }
+        // rotate 된 세션은 가장 최근에 쓴 세션이 됨
+        capped.rotate("token-0", "token-0-rotated", clock.millis() + 60_000L);
+        capped.save("user2", "other", clock.millis() + 60_000L);
+
+        capped.save("user1", "token-3", clock.millis() + 60_000L);
+        assertThat(capped.exists("token-1")).isFalse();
+        capped.save("user1", "token-4", clock.millis() + 60_000L);
+        assertThat(capped.exists("token-2")).isFalse();
+
+        assertThat(capped.exists("token-0-rotated")).isTrue();
+        assertThat(capped.exists("other")).isTrue();
+        assertThat(capped.size()).isEqualTo(4);
+        assertThat(capped.revokeAll("user1")).isEqualTo(3);
+    }
+
+    @Test
+    void concurrentLoginsNeverExceedCap() throws Exception {
+        InMemoryRefreshTokenStore capped = new InMemoryRefreshTokenStore(clock, 5);
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            results.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 1_000; i++) {
+                    capped.save("user1", "token-" + thread + "-" + i, clock.millis() + 60_000L);
+                    // 로그인 직후 재발급하는 클라이언트
+                    if ((i & 3) == 0) {
+                        capped.rotate("token-" + thread + "-" + i, "rotated-" + thread + "-" + i, clock.millis() + 60_000L);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+
+        assertThat(capped.size()).isEqualTo(5);
+        assertThat(capped.revokeAll("user1")).isEqualTo(5);
+    }
+
+    @Test
+    void sessionsArePagedByExpiryAndSurviveRotation() {
+        long now = clock.millis();
+        store.save("user1", "expired", now + 500L, "agent", "10.0.0.1");
+        for (int i = 0; i < 5; i++) {
+            store.save("user1", "user1-" + i, now + 10_000L + i, "agent-" + i, "10.0.0." + i);
+        }
+        store.save("user1", "same-expiry", now + 10_004L, null, null);
+        store.save("user2", "user2-0", now + 60_000L);
+        clock.advance(1_000L);
+
+        // 만료가 늦은 순, 같은 만료 시각이면 id 가 큰 순서 (jpa 저장소와 같은 keyset)
+        List<RefreshSession> first = store.sessions("user1", null, 3);
+        assertThat(first).extracting(RefreshSession::getExpiresAt).containsExactly(now + 10_004L, now + 10_004L, now + 10_003L);
+        assertThat(first.get(0).getId()).isGreaterThan(first.get(1).getId());
+        assertThat(first.get(1).getDevice()).isEqualTo("agent-4");
+        assertThat(first.get(1).getIssuedAt()).isEqualTo(now);
+        List<RefreshSession> second = store.sessions("user1", first.get(2), 3);
+        assertThat(second).extracting(RefreshSession::getExpiresAt).containsExactly(now + 10_002L, now + 10_001L, now + 10_000L);
+        assertThat(store.sessions("user1", second.get(2), 3)).isEmpty();
+
+        // rotate 해도 같은 세션 (id, 기기 유지)
+        RefreshSession oldest = second.get(2);
+        assertThat(store.rotate("user1-0", "user1-rotated", now + 20_000L)).isTrue();
+        RefreshSession rotated = store.sessions("user1", null, 1).get(0);
+        assertThat(rotated.getId()).isEqualTo(oldest.getId());
+        assertThat(rotated.getDevice()).isEqualTo("agent-0");
+        assertThat(rotated.getExpiresAt()).isEqualTo(now + 20_000L);
+
+        // 다른 사용자의 세션 id 로는 폐기 불가
+        assertThat(store.revokeSession("user2", rotated.getId())).isFalse();
+        assertThat(store.revokeSession("user1", rotated.getId())).isTrue();
+        assertThat(store.exists("user1-rotated")).isFalse();
+        assertThat(store.revokeSession("user1", rotated.getId())).isFalse();
+        assertThat(store.sessions("user1", null, 10)).hasSize(5);
+    }
+
+    static class MutableClock extends Clock {
+        private final AtomicLong millis;
+
+        MutableClock(long millis) {
+            this.millis = new AtomicLong(millis);
+        }
+
+        void advance(long ms) {
+            millis.addAndGet(ms);
+        }
+
+        @Override
+        public long millis() {
+            return millis.get();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
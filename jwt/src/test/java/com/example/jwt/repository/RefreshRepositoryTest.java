@@ -0,0 +1,358 @@
+package com.example.jwt.repository;
+
+import com.example.jwt.entity.RefreshEntity;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.SQL=info"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RefreshRepositoryTest {
+    @Autowired
+    RefreshRepository refreshRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void clear() {
+        // 벤치마크의 30만 행을 delete 하면 H2 트랜잭션 로그가 메모리를 넘으므로 truncate
+        jdbcTemplate.execute("truncate table RefreshEntity");
+        jdbcTemplate.execute("truncate table UserEntity");
+    }
+
+    @Test
+    void concurrentRotationSucceedsExactlyOnce() throws Exception {
+        save("user1", "old", System.currentTimeMillis() + 60_000L);
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            String newHash = "new-" + i;
+            Callable<Integer> rotate = () -> {
+                start.await();
+                return refreshRepository.rotate("old", newHash, System.currentTimeMillis() + 60_000L);
+            };
+            results.add(executor.submit(rotate));
+        }
+        start.countDown();
+
+        int succeeded = 0;
+        for (Future<Integer> result : results) {
+            succeeded += result.get();
+        }
+        executor.shutdown();
+
+        assertThat(succeeded).isEqualTo(1);
+        assertThat(refreshRepository.existsByTokenHash("old")).isFalse();
+        assertThat(refreshRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void rotationAndLogoutAreSingleStatements() {
+        save("user1", "old", System.currentTimeMillis() + 60_000L);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        assertThat(refreshRepository.rotate("old", "new", System.currentTimeMillis() + 60_000L)).isEqualTo(1);
+        long rotateStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        assertThat(refreshRepository.deleteByTokenHash("new")).isEqualTo(1);
+        long logoutStatements = statistics.getPrepareStatementCount();
+
+        assertThat(refreshRepository.deleteByTokenHash("new")).isZero();
+        assertThat(rotateStatements).isEqualTo(1);
+        assertThat(logoutStatements).isEqualTo(1);
+    }
+
+    @Test
+    void sessionsArePagedByKeysetWithoutExpiredTokens() {
+        long now = System.currentTimeMillis();
+        JpaRefreshTokenStore store = new JpaRefreshTokenStore(refreshRepository);
+        for (int i = 0; i < 7; i++) {
+            store.save("user1", "active" + i, now + 60_000L + (i % 3), "agent" + i, "10.0.0." + i);
+            store.save("user1", "expired" + i, now - 60_000L);
+        }
+        store.save("user2", "other", now + 60_000L);
+
+        List<RefreshSession> all = new ArrayList<>();
+        List<RefreshSession> page = store.sessions("user1", null, 3);
+        while (!page.isEmpty()) {
+            assertThat(page.size()).isLessThanOrEqualTo(3);
+            all.addAll(page);
+            page = store.sessions("user1", page.get(page.size() - 1), 3);
+        }
+
+        // 만료가 늦은 순, 같은 만료 시각은 id 역순, 중복 / 누락 없음
+        assertThat(all).hasSize(7);
+        assertThat(all).extracting(RefreshSession::getId).doesNotHaveDuplicates();
+        for (int i = 1; i < all.size(); i++) {
+            RefreshSession prev = all.get(i - 1);
+            RefreshSession next = all.get(i);
+            assertThat(prev.getExpiresAt() > next.getExpiresAt()
+                    || prev.getExpiresAt().equals(next.getExpiresAt()) && prev.getId() > next.getId()).isTrue();
+        }
+        assertThat(all).allMatch((session) -> session.getDevice().startsWith("agent")
+                && session.getIpAddress().startsWith("10.0.0.") && session.getIssuedAt() >= now);
+
+        // 다른 사용자의 세션은 삭제할 수 없음
+        long sessionId = all.get(0).getId();
+        assertThat(store.revokeSession("user2", sessionId)).isFalse();
+        assertThat(store.revokeSession("user1", sessionId)).isTrue();
+        assertThat(store.revokeSession("user1", sessionId)).isFalse();
+        assertThat(store.sessions("user1", null, 10)).hasSize(6);
+    }
+
+    @Test
+    void loginBeyondCapEvictsOldestSessions() {
+        long now = System.currentTimeMillis();
+        JpaRefreshTokenStore store = new JpaRefreshTokenStore(refreshRepository, 3);
+        // 상한 적용 전에 쌓인 세션 (만료된 것 포함)
+        save("user1", "expired", now - 1_000L);
+        for (int i = 0; i < 4; i++) {
+            save("user1", "legacy-" + i, now + 10_000L + i);
+        }
+        save("user2", "other", now + 10_000L);
+
+        store.save("user1", "new", now + 60_000L);
+
+        assertThat(refreshRepository.existsByTokenHash("new")).isTrue();
+        assertThat(refreshRepository.existsByTokenHash("legacy-3")).isTrue();
+        assertThat(refreshRepository.existsByTokenHash("legacy-2")).isTrue();
+        assertThat(refreshRepository.existsByTokenHash("legacy-1")).isFalse();
+        assertThat(refreshRepository.existsByTokenHash("expired")).isFalse();
+        assertThat(refreshRepository.existsByTokenHash("other")).isTrue();
+        assertThat(refreshRepository.count()).isEqualTo(4);
+
+        // rotate 로 만료 시각이 늦어진 세션은 가장 나중에 정리
+        assertThat(store.rotate("legacy-2", "rotated", now + 120_000L)).isTrue();
+        store.save("user1", "newer", now + 60_001L);
+        assertThat(refreshRepository.existsByTokenHash("rotated")).isTrue();
+        assertThat(refreshRepository.existsByTokenHash("legacy-3")).isFalse();
+    }
+
+    @Test
+    void loginInsertAndEvictionCommitTogether() {
+        long now = System.currentTimeMillis();
+        RefreshTokenStore store = transactional(new JpaRefreshTokenStore(refreshRepository, 1));
+        save("user1", "legacy", now + 10_000L);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        store.save("user1", "new", now + 60_000L);
+
+        assertThat(statistics.getTransactionCount()).isEqualTo(1);
+        assertThat(refreshRepository.existsByTokenHash("new")).isTrue();
+        assertThat(refreshRepository.existsByTokenHash("legacy")).isFalse();
+    }
+
+    @Test
+    void concurrentLoginsNeverExceedCap() throws Exception {
+        RefreshTokenStore store = transactional(new JpaRefreshTokenStore(refreshRepository, 5));
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            results.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 50; i++) {
+                    store.save("user1", "token-" + thread + "-" + i, System.currentTimeMillis() + 60_000L);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+
+        assertThat(refreshRepository.count()).isEqualTo(5);
+    }
+
+    @Test
+    void concurrentLoginOfSameUserWaitsForEarlierEviction() throws Exception {
+        jdbcTemplate.update("insert into UserEntity (username, password, role) values ('user1', 'x', 'ROLE_USER')");
+        RefreshTokenStore store = transactional(new JpaRefreshTokenStore(refreshRepository, 2));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // 첫 로그인 : 사용자 행을 잠근 채로 커밋을 미룸
+        Future<?> first = executor.submit(() -> transactionTemplate.executeWithoutResult((status) -> {
+            store.save("user1", "first", System.currentTimeMillis() + 60_000L);
+            locked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // 같은 사용자의 두 번째 로그인은 정리 전에 첫 로그인의 커밋을 기다림
+        Future<?> second = executor.submit(() -> store.save("user1", "second", System.currentTimeMillis() + 60_000L));
+        Thread.sleep(300);
+        assertThat(second.isDone()).isFalse();
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+        store.save("user1", "third", System.currentTimeMillis() + 60_000L);
+        assertThat(refreshRepository.count()).isEqualTo(2);
+    }
+
+    /**
+     * 빈으로 등록된 것처럼 @Transactional 을 적용한 store
+     */
+    private RefreshTokenStore transactional(JpaRefreshTokenStore store) {
+        ProxyFactory proxyFactory = new ProxyFactory(store);
+        proxyFactory.addAdvice(new TransactionInterceptor(transactionManager, new AnnotationTransactionAttributeSource()));
+        return (RefreshTokenStore) proxyFactory.getProxy();
+    }
+
+    /**
+     * 같은 계정으로 계속 로그인만 하는 클라이언트 (refresh 토큰을 버리고 매번 새로 로그인)
+     * 상한 없음 / 상한 10 : 테이블 크기와 로그인당 저장 시간
+     */
+    @Tag("benchmark")
+    @Test
+    void abusiveClientTableSize() {
+        int logins = 5_000;
+        for (int maxSessions : new int[]{0, 10}) {
+            JpaRefreshTokenStore store = new JpaRefreshTokenStore(refreshRepository, maxSessions);
+            long start = System.nanoTime();
+            for (int i = 0; i < logins; i++) {
+                store.save("abuser", maxSessions + "-" + i, System.currentTimeMillis() + 86_400_000L);
+            }
+            long elapsed = System.nanoTime() - start;
+            long rows = refreshRepository.count();
+
+            System.out.printf("max-sessions %2d : %d logins -> %d rows, %.1fus per login%n",
+                    maxSessions, logins, rows, elapsed / 1_000.0 / logins);
+            assertThat(rows).isEqualTo(maxSessions == 0 ? logins : maxSessions);
+            jdbcTemplate.execute("truncate table RefreshEntity");
+        }
+    }
+
+    @Test
+    void sessionQueryUsesUsernameExpiresAtIndex() {
+        String plan = jdbcTemplate.queryForObject(
+                "explain select r.id from RefreshEntity r " +
+                        "where r.username = ? and r.expiresAt > ? and r.expiresAt <= ? and (r.expiresAt < ? or r.id < ?) " +
+                        "order by r.expiresAt desc, r.id desc fetch first 50 rows only",
+                String.class, "user1", 0L, Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE);
+
+        assertThat(plan).containsIgnoringCase("IX_REFRESH_USERNAME_EXPIRES_AT");
+    }
+
+    /**
+     * 만료된 토큰이 많이 쌓인 사용자의 세션 목록 : OFFSET 페이지 vs keyset 페이지
+     * 30만 행 (만료 29.5만 + 활성 5천, 모두 같은 사용자, 테스트 JVM 기본 힙 512MB 에 맞춘 크기)
+     */
+    @Tag("benchmark")
+    @Test
+    void benchmarkKeysetVsOffset() {
+        long now = System.currentTimeMillis();
+        // H2 system_range 로 적재 (JDBC batch 보다 훨씬 빠름), 한 트랜잭션이 너무 커지지 않도록 5만 행씩
+        for (int from = 1; from <= 300_000; from += 50_000) {
+            jdbcTemplate.update("insert into RefreshEntity (username, tokenHash, expiresAt, issuedAt, device, ipAddress) " +
+                            "select 'heavy', lpad(x, 64, '0'), case when x <= 295000 then ? - x else ? + x end, ?, 'agent', '10.0.0.1' " +
+                            "from system_range(?, ?)",
+                    now - 1, now + 60_000L, now, from, from + 49_999);
+        }
+        int limit = 50;
+
+        // 워밍업
+        walkKeyset(now, limit);
+        walkOffset(now, limit);
+
+        long start = System.nanoTime();
+        int keysetPages = walkKeyset(now, limit);
+        long keyset = System.nanoTime() - start;
+        start = System.nanoTime();
+        int offsetPages = walkOffset(now, limit);
+        long offset = System.nanoTime() - start;
+
+        assertThat(keysetPages).isEqualTo(offsetPages).isEqualTo(5_000 / limit);
+        System.out.printf("%d pages of %d : keyset %.2f ms/page, offset %.2f ms/page%n",
+                keysetPages, limit, keyset / 1_000_000.0 / keysetPages, offset / 1_000_000.0 / offsetPages);
+    }
+
+    private int walkKeyset(long now, int limit) {
+        int pages = 0;
+        long afterExpiresAt = Long.MAX_VALUE;
+        long afterId = Long.MAX_VALUE;
+        while (true) {
+            List<RefreshSession> page = refreshRepository.findSessions("heavy", now, afterExpiresAt, afterId,
+                    PageRequest.ofSize(limit));
+            if (page.isEmpty()) {
+                return pages;
+            }
+            pages++;
+            afterExpiresAt = page.get(page.size() - 1).getExpiresAt();
+            afterId = page.get(page.size() - 1).getId();
+        }
+    }
+
+    // 같은 쿼리를 cursor 없이 페이지 번호(OFFSET)로
+    private int walkOffset(long now, int limit) {
+        int pages = 0;
+        while (true) {
+            List<RefreshSession> page = refreshRepository.findSessions("heavy", now, Long.MAX_VALUE, Long.MAX_VALUE,
+                    PageRequest.of(pages, limit));
+            if (page.isEmpty()) {
+                return pages;
+            }
+            pages++;
+        }
+    }
+
+    private void save(String username, String tokenHash, long expiresAt) {
+        RefreshEntity refreshEntity = new RefreshEntity();
+        refreshEntity.setUsername(username);
+        refreshEntity.setTokenHash(tokenHash);
+        refreshEntity.setExpiresAt(expiresAt);
+        refreshRepository.save(refreshEntity);
+    }
+}
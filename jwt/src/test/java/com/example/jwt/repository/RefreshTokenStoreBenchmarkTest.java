@@ -0,0 +1,64 @@
+package com.example.jwt.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 로그인(save) -> 재발급(rotate) -> 로그아웃(revoke) 흐름의 처리량 비교 (JPA + 내장 H2 vs 메모리)
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {"spring.jpa.hibernate.ddl-auto=create-drop", "logging.level.org.hibernate.SQL=info"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RefreshTokenStoreBenchmarkTest {
+    static final int THREADS = 8;
+    static final int SESSIONS_PER_THREAD = 2_000;
+
+    @Autowired
+    RefreshRepository refreshRepository;
+
+    @AfterEach
+    void clear() {
+        refreshRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void compareThroughput() throws InterruptedException {
+        long jpa = run(new JpaRefreshTokenStore(refreshRepository), "jpa");
+        long memory = run(new InMemoryRefreshTokenStore(), "memory");
+
+        System.out.println("jpa    = " + jpa + " ops/s");
+        System.out.println("memory = " + memory + " ops/s");
+    }
+
+    private long run(RefreshTokenStore store, String prefix) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long expiresAt = System.currentTimeMillis() + 60_000L;
+        long start = System.nanoTime();
+
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            executor.execute(() -> {
+                for (int i = 0; i < SESSIONS_PER_THREAD; i++) {
+                    String token = prefix + "-" + thread + "-" + i;
+                    store.save("user" + thread, token, expiresAt);
+                    store.rotate(token, token + "-rotated", expiresAt);
+                    store.revoke(token + "-rotated");
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.MINUTES);
+
+        long elapsed = System.nanoTime() - start;
+        return THREADS * SESSIONS_PER_THREAD * 3L * 1_000_000_000L / elapsed;
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.jwt.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {"spring.jpa.hibernate.ddl-auto=create-drop", "logging.level.org.hibernate.SQL=info"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WriteBehindRefreshTokenStoreTest {
+    static final long EXPIRES_AT = System.currentTimeMillis() + 60_000L;
+
+    @Autowired
+    RefreshRepository refreshRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    DataSource dataSource;
+
+    @AfterEach
+    void clear() {
+        refreshRepository.deleteAllInBatch();
+    }
+
+    private WriteBehindRefreshTokenStore store(int batchSize, Duration maxDelay) {
+        return store(batchSize, maxDelay, new SimpleMeterRegistry());
+    }
+
+    private WriteBehindRefreshTokenStore store(int batchSize, Duration maxDelay, MeterRegistry meterRegistry) {
+        return store(new JpaRefreshTokenStore(refreshRepository), batchSize, maxDelay, meterRegistry);
+    }
+
+    private WriteBehindRefreshTokenStore store(JpaRefreshTokenStore delegate, int batchSize, Duration maxDelay,
+                                               MeterRegistry meterRegistry) {
+        return new WriteBehindRefreshTokenStore(delegate, jdbcTemplate, transactionManager, 10_000, batchSize,
+                maxDelay, meterRegistry);
+    }
+
+    @Test
+    void pendingTokenIsVisibleBeforeFlush() throws InterruptedException {
+        WriteBehindRefreshTokenStore store = store(100, Duration.ofMinutes(1));
+
+        store.save("user", "a", EXPIRES_AT);
+        assertThat(store.exists("a")).isTrue();
+        assertThat(refreshRepository.count()).isZero();
+
+        // 반영 전 재발급 -> DB 없이 교체, 같은 토큰의 두 번째 재발급은 실패
+        assertThat(store.rotate("a", "b", EXPIRES_AT)).isTrue();
+        assertThat(store.rotate("a", "c", EXPIRES_AT)).isFalse();
+        assertThat(store.exists("a")).isFalse();
+        assertThat(store.exists("b")).isTrue();
+
+        store.save("user", "d", EXPIRES_AT);
+        assertThat(store.revoke("d")).isTrue();
+        assertThat(store.revoke("d")).isFalse();
+
+        // 종료 시 남은 큐 반영 (취소된 토큰 제외)
+        store.close();
+        assertThat(refreshRepository.count()).isEqualTo(1);
+        assertThat(refreshRepository.existsByTokenHash("b")).isTrue();
+    }
+
+    @Test
+    void flushesOnSizeAndDelay() throws InterruptedException {
+        WriteBehindRefreshTokenStore store = store(10, Duration.ofMillis(20));
+
+        for (int i = 0; i < 25; i++) {
+            store.save("user", "t" + i, EXPIRES_AT);
+        }
+        long deadline = System.currentTimeMillis() + 5_000L;
+        while (refreshRepository.count() < 25 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(refreshRepository.count()).isEqualTo(25);
+
+        // 반영된 토큰은 DB 에서 rotate / revokeAll
+        assertThat(store.rotate("t0", "n0", EXPIRES_AT)).isTrue();
+        assertThat(store.revokeAll("user")).isEqualTo(25);
+        store.close();
+        assertThat(refreshRepository.count()).isZero();
+    }
+
+    @Test
+    void sessionMetadataSurvivesPendingRotation() throws InterruptedException {
+        WriteBehindRefreshTokenStore store = store(100, Duration.ofMinutes(1));
+
+        store.save("user", "a", EXPIRES_AT, "agent", "10.0.0.1");
+        assertThat(store.rotate("a", "b", EXPIRES_AT + 1)).isTrue();
+        store.close();
+
+        List<RefreshSession> sessions = store.sessions("user", null, 10);
+        assertThat(sessions).hasSize(1);
+        assertThat(sessions.get(0).getDevice()).isEqualTo("agent");
+        assertThat(sessions.get(0).getIpAddress()).isEqualTo("10.0.0.1");
+        assertThat(sessions.get(0).getExpiresAt()).isEqualTo(EXPIRES_AT + 1);
+        assertThat(store.revokeSession("user", sessions.get(0).getId())).isTrue();
+        assertThat(refreshRepository.count()).isZero();
+    }
+
+    @Test
+    void rejectedRowIsDroppedWithoutBlockingFlush() throws InterruptedException {
+        // 다른 노드가 이미 저장한 토큰 -> unique 인덱스 위반
+        new JpaRefreshTokenStore(refreshRepository).save("user", "dup", EXPIRES_AT);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        WriteBehindRefreshTokenStore store = store(100, Duration.ofMillis(20), meterRegistry);
+
+        store.save("user", "a", EXPIRES_AT);
+        store.save("user", "dup", EXPIRES_AT);
+        store.save("user", "b", EXPIRES_AT);
+        long deadline = System.currentTimeMillis() + 5_000L;
+        while (store.exists("a") && !refreshRepository.existsByTokenHash("a") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // 다음 batch 도 정상 반영
+        store.save("user", "c", EXPIRES_AT);
+        store.close();
+
+        assertThat(refreshRepository.count()).isEqualTo(4);
+        assertThat(meterRegistry.counter("jwt.refresh.write-behind.dropped").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("jwt.refresh.write-behind.rows").count()).isEqualTo(3);
+    }
+
+    @Test
+    void waitersRetryCancelWhenFlushFailsOnce() throws Exception {
+        // 첫 트랜잭션의 커넥션 획득이 (waiter 가 기다리는 동안 멈췄다가) 실패하는 DataSource
+        CountDownLatch connecting = new CountDownLatch(1);
+        CountDownLatch fail = new CountDownLatch(1);
+        AtomicBoolean failed = new AtomicBoolean();
+        DataSource failingOnce = new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                if (failed.compareAndSet(false, true)) {
+                    connecting.countDown();
+                    try {
+                        fail.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new SQLException("connection reset");
+                }
+                return super.getConnection();
+            }
+        };
+        WriteBehindRefreshTokenStore store = new WriteBehindRefreshTokenStore(new JpaRefreshTokenStore(refreshRepository),
+                new JdbcTemplate(failingOnce), new DataSourceTransactionManager(failingOnce), 10_000, 100,
+                Duration.ofMillis(20), new SimpleMeterRegistry());
+        store.save("user", "a", EXPIRES_AT);
+        store.save("user", "b", EXPIRES_AT);
+        assertThat(connecting.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // flush 중인 토큰의 재발급 / 로그아웃은 반영을 기다림
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<Boolean> rotate = executor.submit(() -> store.rotate("a", "a2", EXPIRES_AT));
+        Future<Boolean> revoke = executor.submit(() -> store.revoke("b"));
+        Thread.sleep(200);
+        assertThat(rotate.isDone()).isFalse();
+
+        // flush 실패 -> PENDING 으로 돌아오면 기다리던 요청이 바로 취소에 성공 (FLUSH_WAIT_MS 까지 기다리지 않음)
+        long start = System.nanoTime();
+        fail.countDown();
+        assertThat(rotate.get(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(revoke.get(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(2));
+        executor.shutdown();
+
+        // 재시도에는 교체된 토큰만 반영 (로그아웃한 토큰은 다시 살아나지 않음)
+        store.close();
+        assertThat(refreshRepository.existsByTokenHash("a2")).isTrue();
+        assertThat(refreshRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void flushAppliesSessionCapPerUser() throws InterruptedException {
+        WriteBehindRefreshTokenStore store = store(new JpaRefreshTokenStore(refreshRepository, 3), 100,
+                Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+        for (int i = 0; i < 10; i++) {
+            store.save("user1", "user1-" + i, EXPIRES_AT + i);
+            store.save("user2", "user2-" + i, EXPIRES_AT + i);
+        }
+        store.close();
+
+        assertThat(refreshRepository.count()).isEqualTo(6);
+        assertThat(store.sessions("user1", null, 10)).extracting(RefreshSession::getExpiresAt)
+                .containsExactly(EXPIRES_AT + 9, EXPIRES_AT + 8, EXPIRES_AT + 7);
+    }
+
+    /**
+     * 로그인(save) 지연 p99 와 DB 트랜잭션 수 비교 (write-behind 꺼짐 / 켜짐)
+     */
+    @Tag("benchmark")
+    @Test
+    void compareLoginLatency() throws InterruptedException {
+        int threads = 8;
+        int loginsPerThread = 2_000;
+
+        Result direct = run(new JpaRefreshTokenStore(refreshRepository), "direct", threads, loginsPerThread);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        WriteBehindRefreshTokenStore writeBehind = store(500, Duration.ofMillis(50), meterRegistry);
+        Result batched = run(writeBehind, "batched", threads, loginsPerThread);
+        writeBehind.close();
+        long transactions = (long) meterRegistry.counter("jwt.refresh.write-behind.batches").count()
+                + (long) meterRegistry.counter("jwt.refresh.write-behind.direct").count();
+
+        assertThat(refreshRepository.count()).isEqualTo(2L * threads * loginsPerThread);
+        System.out.println("direct      : p99 = " + direct.p99Micros + "us, " + direct.opsPerSecond + " logins/s, "
+                + threads * loginsPerThread + " transactions");
+        System.out.println("write-behind: p99 = " + batched.p99Micros + "us, " + batched.opsPerSecond + " logins/s, "
+                + transactions + " transactions");
+    }
+
+    private Result run(RefreshTokenStore store, String prefix, int threads, int loginsPerThread) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long[] latencies = new long[threads * loginsPerThread];
+        long start = System.nanoTime();
+
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            executor.execute(() -> {
+                for (int i = 0; i < loginsPerThread; i++) {
+                    long begin = System.nanoTime();
+                    store.save("user" + thread, prefix + "-" + thread + "-" + i, EXPIRES_AT);
+                    latencies[thread * loginsPerThread + i] = System.nanoTime() - begin;
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.MINUTES);
+
+        long elapsed = System.nanoTime() - start;
+        Arrays.sort(latencies);
+        return new Result(latencies[(int) (latencies.length * 0.99)] / 1_000L,
+                latencies.length * 1_000_000_000L / elapsed);
+    }
+
+    private record Result(long p99Micros, long opsPerSecond) {
+    }
+}
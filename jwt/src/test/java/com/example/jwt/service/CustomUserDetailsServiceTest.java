@@ -0,0 +1,48 @@
+package com.example.jwt.service;
+
+import com.example.jwt.config.PasswordEncoderCalibrator;
+import com.example.jwt.entity.UserEntity;
+import com.example.jwt.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CustomUserDetailsServiceTest {
+    @Autowired
+    UserRepository userRepository;
+
+    @Test
+    void loginRehashesToCurrentCost() {
+        UserEntity user = new UserEntity();
+        user.setUsername("legacy");
+        user.setPassword(new BCryptPasswordEncoder(4).encode("password"));
+        user.setRole("ROLE_ADMIN");
+        userRepository.save(user);
+
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService(userRepository,
+                new UserDetailsCache(100, Duration.ofMinutes(1), Duration.ofSeconds(10), new SimpleMeterRegistry()));
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(PasswordEncoderCalibrator.create(5));
+        provider.setUserDetailsService(userDetailsService);
+        provider.setUserDetailsPasswordService(userDetailsService);
+
+        provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("legacy", "password"));
+        String rehashed = userRepository.findByUsername("legacy").getPassword();
+        assertThat(rehashed).startsWith("{bcrypt}$2a$05$");
+
+        // 이미 현재 cost 면 다시 저장하지 않음
+        provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("legacy", "password"));
+        assertThat(userRepository.findByUsername("legacy").getPassword()).isEqualTo(rehashed);
+    }
+}
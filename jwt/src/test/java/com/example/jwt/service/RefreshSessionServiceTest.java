@@ -0,0 +1,43 @@
+package com.example.jwt.service;
+
+import com.example.jwt.repository.FileRefreshTokenStore;
+import com.example.jwt.repository.InMemoryRefreshTokenStore;
+import com.example.jwt.repository.SessionListingStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RefreshSessionServiceTest {
+
+    @Test
+    void pagesSessionsWithCursor() {
+        InMemoryRefreshTokenStore store = new InMemoryRefreshTokenStore();
+        long expiresAt = System.currentTimeMillis() + 60_000L;
+        for (int i = 0; i < 5; i++) {
+            store.save("user1", "token-" + i, expiresAt + i, "agent", "10.0.0.1");
+        }
+        RefreshSessionService service = service(Map.of("refreshTokenStore", store));
+        assertThat(service.isEnabled()).isTrue();
+
+        Map<String, Object> first = service.sessions("user1", 3, null);
+        assertThat((List<?>) first.get("sessions")).hasSize(3);
+        Map<String, Object> second = service.sessions("user1", 3, (String) first.get("next"));
+        assertThat((List<?>) second.get("sessions")).hasSize(2);
+        assertThat(second.get("next")).isNull();
+    }
+
+    @Test
+    void disabledWhenStoreCannotListSessions() {
+        // FileRefreshTokenStore 는 SessionListingStore 가 아님 -> 시작 시 꺼짐
+        assertThat(SessionListingStore.class.isAssignableFrom(FileRefreshTokenStore.class)).isFalse();
+        assertThat(service(Map.of()).isEnabled()).isFalse();
+    }
+
+    private static RefreshSessionService service(Map<String, Object> beans) {
+        return new RefreshSessionService(new StaticListableBeanFactory(beans).getBeanProvider(SessionListingStore.class));
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.jwt.service;
+
+import com.example.jwt.repository.RefreshRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 내장 H2 에 refresh 토큰을 대량으로 넣고 청크 단위 정리를 확인
+ *
+ * test 는 기본 2만 행, benchmark 태스크는 20만 행 (처리량 출력).
+ * 수백만 행으로 돌릴 때는 ./gradlew benchmark -Ppurge.rows=5000000 과 함께 테스트 JVM 힙을 늘려야 함.
+ * (H2 in-memory DB 는 전체 행을 힙에 보관)
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RefreshTokenPurgeServiceTest {
+    static final int ROWS = Integer.getInteger("purge.rows", 20_000);
+    static final int EXPIRED = ROWS / 5 * 4;
+
+    @Autowired
+    RefreshRepository refreshRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    long now = System.currentTimeMillis();
+
+    @BeforeEach
+    void seed() {
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            long expiresAt = i < EXPIRED ? now - 1_000L - i : now + 60_000L + i;
+            batch.add(new Object[]{"user" + (i % 1000), String.format("%064x", i), expiresAt});
+            if (batch.size() == 10_000) {
+                insert(batch);
+            }
+        }
+        insert(batch);
+    }
+
+    @AfterEach
+    void clear() {
+        refreshRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void purgesAllExpiredRowsInChunks() {
+        RefreshTokenPurgeService purgeService = new RefreshTokenPurgeService(refreshRepository, 10_000, Duration.ZERO, new SimpleMeterRegistry());
+
+        RefreshTokenPurgeService.PurgeReport report = purgeService.purgeExpired(now);
+
+        assertThat(report.getDeleted()).isEqualTo(EXPIRED);
+        assertThat(report.getBacklog()).isZero();
+        assertThat(refreshRepository.count()).isEqualTo(ROWS - EXPIRED);
+    }
+
+    @Tag("benchmark")
+    @Test
+    void purgeThroughput() {
+        RefreshTokenPurgeService purgeService = new RefreshTokenPurgeService(refreshRepository, 10_000, Duration.ZERO, new SimpleMeterRegistry());
+
+        RefreshTokenPurgeService.PurgeReport report = purgeService.purgeExpired(now);
+
+        System.out.println("purged " + report.getDeleted() + " rows in " + report.getElapsedMillis() + "ms (" + report.getRowsPerSecond() + " rows/s)");
+    }
+
+    @Test
+    void resumesAfterStop() throws InterruptedException {
+        RefreshTokenPurgeService purgeService = new RefreshTokenPurgeService(refreshRepository, 100, Duration.ofMillis(20), new SimpleMeterRegistry());
+
+        Thread worker = new Thread(() -> purgeService.purgeExpired(now));
+        worker.start();
+        Thread.sleep(200);
+        purgeService.stop();
+        worker.join();
+
+        RefreshTokenPurgeService.PurgeReport stopped = purgeService.getLastReport();
+        assertThat(stopped.getDeleted()).isPositive().isLessThan(EXPIRED);
+        assertThat(stopped.getBacklog()).isEqualTo(EXPIRED - stopped.getDeleted());
+
+        purgeService.resume();
+        RefreshTokenPurgeService.PurgeReport resumed = new RefreshTokenPurgeService(refreshRepository, 10_000, Duration.ZERO, new SimpleMeterRegistry())
+                .purgeExpired(now);
+
+        assertThat(stopped.getDeleted() + resumed.getDeleted()).isEqualTo(EXPIRED);
+        assertThat(refreshRepository.countByExpiresAtLessThan(now)).isZero();
+    }
+
+    private void insert(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("insert into RefreshEntity (username, tokenHash, expiresAt) values (?, ?, ?)", batch);
+        batch.clear();
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.jwt.service;
+
+import com.example.jwt.jwt.CustomLogoutFilter;
+import com.example.jwt.jwt.JWTUtil;
+import com.example.jwt.jwt.TokenDigest;
+import com.example.jwt.repository.JpaRefreshTokenStore;
+import com.example.jwt.repository.RefreshRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.Cookie;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.SQL=info"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReissueServiceTest {
+    static final int CALLERS = 16;
+    static final String SECRET = "test-secret-key-for-reissue-service-must-be-at-least-256-bits";
+
+    @Autowired
+    RefreshRepository refreshRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    JWTUtil jwtUtil = new JWTUtil(SECRET);
+
+    @AfterEach
+    void clear() {
+        refreshRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void concurrentCallsShareOneRotation() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        // 합치지 않는 경우 (grace-window 0 -> 결과를 바로 버림)
+        Burst uncoalesced = burst(service(Duration.ZERO, meterRegistry), statistics);
+        Burst coalesced = burst(service(Duration.ofSeconds(5), meterRegistry), statistics);
+
+        System.out.println("without coalescing : " + uncoalesced.succeeded + "/" + CALLERS + " succeeded, "
+                + uncoalesced.statements + " statements");
+        System.out.println("with coalescing    : " + coalesced.succeeded + "/" + CALLERS + " succeeded, "
+                + coalesced.statements + " statements, saved = " + (uncoalesced.statements - coalesced.statements));
+
+        assertThat(coalesced.succeeded).isEqualTo(CALLERS);
+        assertThat(coalesced.refreshTokens).hasSize(1);
+        assertThat(coalesced.statements).isEqualTo(1);
+        assertThat(refreshRepository.existsByTokenHash(TokenDigest.sha256Hex(coalesced.refreshTokens.iterator().next()))).isTrue();
+    }
+
+    @Test
+    void graceWindowEndsAfterConfiguredTime() throws Exception {
+        ReissueService reissueService = service(Duration.ofMillis(200), new SimpleMeterRegistry());
+        String refresh = login();
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        assertThat(reissue(reissueService, refresh, first).getStatusCode().value()).isEqualTo(200);
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        assertThat(reissue(reissueService, refresh, second).getStatusCode().value()).isEqualTo(200);
+        assertThat(second.getCookie("refresh").getValue()).isEqualTo(first.getCookie("refresh").getValue());
+
+        Thread.sleep(400);
+        assertThat(reissue(reissueService, refresh, new MockHttpServletResponse()).getStatusCode().value()).isEqualTo(400);
+    }
+
+    @Test
+    void logoutDropsGraceResult() throws Exception {
+        JpaRefreshTokenStore store = new JpaRefreshTokenStore(refreshRepository);
+        ReissueCoalescer coalescer = new ReissueCoalescer(Duration.ofSeconds(5), new SimpleMeterRegistry());
+        ReissueService reissueService = new ReissueService(jwtUtil, store, coalescer);
+        CustomLogoutFilter logoutFilter = new CustomLogoutFilter(jwtUtil, store, null, coalescer);
+        String stolen = login();
+
+        // 재발급 후 새 토큰으로 로그아웃 -> 이전(탈취된) 토큰으로 보관된 결과를 받을 수 없음
+        MockHttpServletResponse reissued = new MockHttpServletResponse();
+        assertThat(reissue(reissueService, stolen, reissued).getStatusCode().value()).isEqualTo(200);
+        MockHttpServletRequest logout = new MockHttpServletRequest("POST", "/logout");
+        logout.setCookies(new Cookie("refresh", reissued.getCookie("refresh").getValue()));
+        MockHttpServletResponse logoutResponse = new MockHttpServletResponse();
+        logoutFilter.doFilter(logout, logoutResponse, new MockFilterChain());
+        assertThat(logoutResponse.getStatus()).isEqualTo(200);
+        assertThat(reissue(reissueService, stolen, new MockHttpServletResponse()).getStatusCode().value()).isEqualTo(400);
+
+        // 모든 기기에서 로그아웃도 같음
+        String other = login();
+        assertThat(reissue(reissueService, other, new MockHttpServletResponse()).getStatusCode().value()).isEqualTo(200);
+        coalescer.invalidateUser("user1");
+        assertThat(reissue(reissueService, other, new MockHttpServletResponse()).getStatusCode().value()).isEqualTo(400);
+    }
+
+    private ReissueService service(Duration graceWindow, SimpleMeterRegistry meterRegistry) {
+        return new ReissueService(jwtUtil, new JpaRefreshTokenStore(refreshRepository),
+                new ReissueCoalescer(graceWindow, meterRegistry));
+    }
+
+    private String login() throws InterruptedException {
+        String refresh = jwtUtil.createJwt("refresh", "user1", "ROLE_ADMIN", 60_000L);
+        new JpaRefreshTokenStore(refreshRepository).save("user1", TokenDigest.sha256Hex(refresh),
+                System.currentTimeMillis() + 60_000L);
+        // 재발급 토큰의 iat 가 로그인 토큰과 달라지도록 (초 단위)
+        Thread.sleep(1_000);
+        return refresh;
+    }
+
+    private Burst burst(ReissueService reissueService, Statistics statistics) throws Exception {
+        String refresh = login();
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<MockHttpServletResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                MockHttpServletResponse response = new MockHttpServletResponse();
+                reissue(reissueService, refresh, response);
+                return response;
+            }));
+        }
+
+        statistics.clear();
+        start.countDown();
+        int succeeded = 0;
+        Set<String> refreshTokens = new HashSet<>();
+        for (Future<MockHttpServletResponse> future : futures) {
+            MockHttpServletResponse response = future.get();
+            if (response.getCookie("refresh") != null) {
+                succeeded++;
+                refreshTokens.add(response.getCookie("refresh").getValue());
+            }
+        }
+        long statements = statistics.getPrepareStatementCount();
+        executor.shutdown();
+        return new Burst(succeeded, refreshTokens, statements);
+    }
+
+    private static ResponseEntity<?> reissue(ReissueService reissueService, String refresh, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/reissue");
+        request.setCookies(new Cookie("refresh", refresh));
+        return reissueService.reissueToken(request, response);
+    }
+
+    private record Burst(int succeeded, Set<String> refreshTokens, long statements) {
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.jwt.service;
+
+import com.example.jwt.jwt.JWTClaims;
+import com.example.jwt.jwt.JWTUtil;
+import com.example.jwt.jwt.TokenDigest;
+import com.example.jwt.jwt.TokenRevocationList;
+import com.example.jwt.jwt.VerifiedTokenCache;
+import com.example.jwt.repository.InMemoryRefreshTokenStore;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenIntrospectionServiceTest {
+    static final String SECRET = "test-secret-key-for-jwt-util-must-be-at-least-256-bits";
+
+    ObjectMapper objectMapper = new ObjectMapper();
+    JWTUtil jwtUtil = new JWTUtil(SECRET);
+    InMemoryRefreshTokenStore refreshTokenStore = new InMemoryRefreshTokenStore();
+    TokenRevocationList revocationList = new TokenRevocationList(0.001, DataSize.ofKilobytes(64),
+            Duration.ofMinutes(1), Duration.ofMinutes(10), new SimpleMeterRegistry());
+    List<TokenIntrospectionService> services = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        services.forEach(TokenIntrospectionService::shutdown);
+    }
+
+    private TokenIntrospectionService service(int threads, int chunkSize, VerifiedTokenCache cache) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("revocationList", revocationList);
+        if (cache != null) {
+            beans.addBean("verifiedTokenCache", cache);
+        }
+        TokenIntrospectionService service = new TokenIntrospectionService(jwtUtil, refreshTokenStore,
+                beans.getBeanProvider(TokenRevocationList.class), beans.getBeanProvider(VerifiedTokenCache.class),
+                objectMapper, threads, 256, chunkSize, 1000, new SimpleMeterRegistry());
+        services.add(service);
+        return service;
+    }
+
+    @Test
+    void sameRulesAsFilterAndReissue() throws Exception {
+        String access = jwtUtil.createJwt("access", "user1", "ROLE_USER", 60_000L);
+        String expired = jwtUtil.createJwt("access", "user1", "ROLE_USER", -1_000L);
+        String revoked = jwtUtil.createJwt("access", "user2", "ROLE_USER", 60_000L);
+        JWTClaims revokedClaims = jwtUtil.parse(revoked);
+        revocationList.revoke(revokedClaims.getId(), revokedClaims.getExpiration());
+        String refresh = jwtUtil.createJwt("refresh", "user1", "ROLE_USER", 60_000L);
+        refreshTokenStore.save("user1", TokenDigest.sha256Hex(refresh), System.currentTimeMillis() + 60_000L);
+        String rotatedAway = jwtUtil.createJwt("refresh", "user1", "ROLE_USER", 60_000L);
+        String foreign = new JWTUtil(SECRET + "-other").createJwt("access", "user1", "ROLE_USER", 60_000L);
+
+        List<String> tokens = List.of(access, expired, revoked, refresh, rotatedAway, foreign, "not-a-jwt", "");
+        List<JsonNode> results = introspect(service(2, 3, null), tokens);
+
+        assertThat(results).extracting((result) -> result.get("index").asInt()).containsExactly(0, 1, 2, 3, 4, 5, 6, 7);
+        assertThat(results).extracting((result) -> result.get("active").asBoolean())
+                .containsExactly(true, false, false, true, false, false, false, false);
+
+        JsonNode first = results.get(0);
+        assertThat(first.get("category").asText()).isEqualTo("access");
+        assertThat(first.get("username").asText()).isEqualTo("user1");
+        assertThat(first.get("role").asText()).isEqualTo("ROLE_USER");
+        assertThat(first.get("exp").asLong()).isEqualTo(jwtUtil.parse(access).getExpiration() / 1000);
+        assertThat(results.get(3).get("category").asText()).isEqualTo("refresh");
+        // 무효인 토큰은 active 외에 아무것도 알려주지 않음
+        assertThat(results.get(2).size()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsEmptyAndOversizedBatches() {
+        TokenIntrospectionService service = service(1, 50, null);
+
+        assertThatThrownBy(() -> service.introspect(List.of(), new ByteArrayOutputStream()))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> service.introspect(Collections.nCopies(1001, "token"), new ByteArrayOutputStream()))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("400");
+    }
+
+    /**
+     * 배치 크기별 처리량 (access / refresh 반씩, 서로 다른 토큰)
+     * 배치 크기 1 = 게이트웨이가 토큰마다 호출하는 경우 (HTTP 왕복 비용 제외)
+     */
+    @Tag("benchmark")
+    @Test
+    void throughputByBatchSize() throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        TokenIntrospectionService service = service(cores, 50, null);
+
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 4_000; i++) {
+            String category = (i & 1) == 0 ? "access" : "refresh";
+            String token = jwtUtil.createJwt(category, "user" + i, "ROLE_USER", 600_000L);
+            if (category.equals("refresh")) {
+                refreshTokenStore.save("user" + i, TokenDigest.sha256Hex(token), System.currentTimeMillis() + 600_000L);
+            }
+            tokens.add(token);
+        }
+        // 워밍업
+        introspectAll(service, tokens, 100);
+
+        for (int batchSize : new int[]{1, 10, 100, 1000}) {
+            long start = System.nanoTime();
+            int batches = introspectAll(service, tokens, batchSize);
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("batch %4d : %.0f tokens/s, %.2f ms per batch (%d threads)%n",
+                    batchSize, tokens.size() * 1_000_000_000.0 / elapsed, elapsed / 1_000_000.0 / batches, cores);
+        }
+    }
+
+    private int introspectAll(TokenIntrospectionService service, List<String> tokens, int batchSize) throws Exception {
+        int batches = 0;
+        for (int from = 0; from < tokens.size(); from += batchSize) {
+            List<JsonNode> results = introspect(service, tokens.subList(from, Math.min(tokens.size(), from + batchSize)));
+            assertThat(results).allMatch((result) -> result.get("active").asBoolean());
+            batches++;
+        }
+        return batches;
+    }
+
+    private List<JsonNode> introspect(TokenIntrospectionService service, List<String> tokens) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.introspect(tokens, out);
+        List<JsonNode> results = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            results.add(objectMapper.readTree(line));
+        }
+        return results;
+    }
+}
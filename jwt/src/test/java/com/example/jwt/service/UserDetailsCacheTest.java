@@ -0,0 +1,197 @@
+package com.example.jwt.service;
+
+import com.example.jwt.dto.JoinDto;
+import com.example.jwt.entity.UserEntity;
+import com.example.jwt.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.SQL=info"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserDetailsCacheTest {
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void statistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void clear() {
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void concurrentMissesRunOneQuery() throws Exception {
+        save("user1", "password");
+        UserDetailsCache cache = cache(Duration.ofMinutes(1));
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService(userRepository, cache);
+
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<UserDetails>> results = new ArrayList<>();
+        statistics.clear();
+        for (int i = 0; i < threads; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return userDetailsService.loadUserByUsername("user1");
+            }));
+        }
+        start.countDown();
+        for (Future<UserDetails> result : results) {
+            assertThat(result.get().getUsername()).isEqualTo("user1");
+        }
+        executor.shutdown();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(cache.missCount()).isEqualTo(1);
+        assertThat(cache.hitCount()).isEqualTo(threads - 1);
+    }
+
+    @Test
+    void unknownUserIsCachedUntilJoin() {
+        UserDetailsCache cache = cache(Duration.ofMinutes(1));
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService(userRepository, cache);
+        JoinService joinService = new JoinService(userRepository, NoOpPasswordEncoder.getInstance(), cache,
+                new StaticListableBeanFactory().getBeanProvider(UsernameExistenceFilter.class));
+
+        statistics.clear();
+        assertThat(userDetailsService.loadUserByUsername("newbie")).isNull();
+        assertThat(userDetailsService.loadUserByUsername("newbie")).isNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        JoinDto joinDto = new JoinDto();
+        joinDto.setUsername("newbie");
+        joinDto.setPassword("password");
+        joinService.join(joinDto);
+
+        assertThat(userDetailsService.loadUserByUsername("newbie").getPassword()).isEqualTo("password");
+    }
+
+    @Test
+    void negativeEntriesExpireSooner() throws Exception {
+        UserDetailsCache cache = new UserDetailsCache(100, Duration.ofMinutes(1), Duration.ofMillis(50), new SimpleMeterRegistry());
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService(userRepository, cache);
+
+        assertThat(userDetailsService.loadUserByUsername("late")).isNull();
+        // 캐시를 거치지 않고 가입 (다른 노드)
+        save("late", "password");
+        assertThat(userDetailsService.loadUserByUsername("late")).isNull();
+
+        Thread.sleep(100);
+        assertThat(userDetailsService.loadUserByUsername("late")).isNotNull();
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        UserDetailsCache cache = cache(Duration.ofMinutes(1));
+
+        assertThatThrownBy(() -> cache.get("user1", (username) -> {
+            throw new IllegalStateException("db down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        // 실패한 조회는 남지 않고 다음 요청이 다시 조회
+        assertThat(cache.get("user1", (username) -> null)).isNull();
+        assertThat(cache.missCount()).isEqualTo(2);
+    }
+
+    /**
+     * 같은 사용자 로그인 반복 시 처리량 비교 (캐시 없음 vs 캐시)
+     * 비밀번호 해시 비용을 빼고 조회 비용만 비교하기 위해 NoOpPasswordEncoder 사용
+     */
+    @Tag("benchmark")
+    @Test
+    void loginThroughputWithAndWithoutCache() {
+        for (int i = 0; i < 100; i++) {
+            save("user" + i, "password");
+        }
+
+        double uncached = loginsPerSecond(cache(Duration.ZERO));
+        UserDetailsCache cache = cache(Duration.ofMinutes(1));
+        double cached = loginsPerSecond(cache);
+
+        System.out.printf("logins/s : no cache %.0f, cache %.0f (hit ratio %.3f)%n",
+                uncached, cached, (double) cache.hitCount() / (cache.hitCount() + cache.missCount()));
+
+        statistics.clear();
+        loginsPerSecond(cache);
+        // 성공 100명 + 실패(없는 사용자) 100명 모두 캐시에서 처리
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    private double loginsPerSecond(UserDetailsCache cache) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(NoOpPasswordEncoder.getInstance());
+        provider.setUserDetailsService(new CustomUserDetailsService(userRepository, cache));
+
+        int logins = 0;
+        long elapsed = 0;
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < 2_000; i++) {
+                String username = (i & 1) == 0 ? "user" + (i % 100) : "unknown" + (i % 100);
+                try {
+                    provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(username, "password"));
+                } catch (AuthenticationException e) {
+                    // 없는 사용자
+                }
+            }
+            if (round >= 2) {
+                elapsed += System.nanoTime() - start;
+                logins += 2_000;
+            }
+        }
+        assertThatThrownBy(() -> provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user1", "wrong")))
+                .isInstanceOf(BadCredentialsException.class);
+        return logins * 1_000_000_000.0 / elapsed;
+    }
+
+    private UserDetailsCache cache(Duration ttl) {
+        return new UserDetailsCache(10_000, ttl, ttl, new SimpleMeterRegistry());
+    }
+
+    private void save(String username, String password) {
+        UserEntity user = new UserEntity();
+        user.setUsername(username);
+        user.setPassword(password);
+        user.setRole("ROLE_ADMIN");
+        userRepository.save(user);
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.jwt.service;
+
+import com.example.jwt.entity.UserEntity;
+import com.example.jwt.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "logging.level.org.hibernate.SQL=info"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserImportServiceTest {
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    ObjectMapper objectMapper = new ObjectMapper();
+    List<UserImportService> services = new ArrayList<>();
+
+    @AfterEach
+    void clear() {
+        services.forEach(UserImportService::shutdown);
+        // 100만 행을 delete 하면 H2 트랜잭션 로그가 메모리를 넘으므로 truncate
+        jdbcTemplate.execute("truncate table UserEntity");
+    }
+
+    private UserImportService service(PasswordEncoder passwordEncoder, int batchSize) {
+        UserImportService service = new UserImportService(jdbcTemplate, transactionManager, passwordEncoder,
+                new UserDetailsCache(100, Duration.ofMinutes(1), Duration.ofSeconds(10), new SimpleMeterRegistry()),
+                new StaticListableBeanFactory().getBeanProvider(UsernameExistenceFilter.class),
+                objectMapper, 2, batchSize, new SimpleMeterRegistry());
+        services.add(service);
+        return service;
+    }
+
+    @Test
+    void importsCsvAndReportsRowErrors() throws Exception {
+        UserEntity existing = new UserEntity();
+        existing.setUsername("existing");
+        existing.setPassword("x");
+        existing.setRole("ROLE_USER");
+        userRepository.save(existing);
+
+        String csv = """
+                username,password,role
+                alice,secret
+                bob,"pa,ss""word",ROLE_ADMIN
+                existing,secret
+                carol,
+                dave,secret,ADMIN
+                alice,again
+                erin,secret
+                """;
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+        List<JsonNode> lines = run(service(passwordEncoder, 3), UserImportService.Format.CSV, csv);
+
+        assertThat(errors(lines)).containsExactly(
+                "4 existing duplicate username",
+                "5 carol password is required",
+                "6 dave role must start with ROLE_",
+                "7 alice duplicate username");
+        JsonNode done = lines.get(lines.size() - 1);
+        assertThat(done.get("type").asText()).isEqualTo("done");
+        assertThat(done.get("rows").asLong()).isEqualTo(7);
+        assertThat(done.get("imported").asLong()).isEqualTo(3);
+        assertThat(done.get("failed").asLong()).isEqualTo(4);
+
+        assertThat(userRepository.findByUsername("alice").getRole()).isEqualTo("ROLE_USER");
+        UserEntity bob = userRepository.findByUsername("bob");
+        assertThat(bob.getRole()).isEqualTo("ROLE_ADMIN");
+        assertThat(passwordEncoder.matches("pa,ss\"word", bob.getPassword())).isTrue();
+        assertThat(userRepository.count()).isEqualTo(4);
+    }
+
+    @Test
+    void headerIsDetectedByExactFirstField() throws Exception {
+        // 헤더 없이 username 으로 시작하는 사용자가 첫 줄
+        String csv = """
+                username1,secret
+                usernames,secret
+                """;
+        List<JsonNode> lines = run(service(NoOpPasswordEncoder.getInstance(), 10), UserImportService.Format.CSV, csv);
+
+        assertThat(errors(lines)).isEmpty();
+        assertThat(lines.get(lines.size() - 1).get("imported").asLong()).isEqualTo(2);
+        assertThat(userRepository.findByUsername("username1")).isNotNull();
+
+        // 따옴표로 감싼 헤더도 헤더
+        lines = run(service(NoOpPasswordEncoder.getInstance(), 10), UserImportService.Format.CSV, """
+                "username","password"
+                frank,secret
+                """);
+        assertThat(errors(lines)).isEmpty();
+        assertThat(lines.get(lines.size() - 1).get("rows").asLong()).isEqualTo(1);
+        assertThat(userRepository.findByUsername("frank")).isNotNull();
+    }
+
+    @Test
+    void importsNdjson() throws Exception {
+        String ndjson = """
+                {"username": "alice", "password": "secret"}
+                {"username": "alice", "password": "secret"}
+                {"username": "bob", "password": "secret", "role": "ROLE_ADMIN"}
+                not json
+                """;
+        List<JsonNode> lines = run(service(NoOpPasswordEncoder.getInstance(), 1000), UserImportService.Format.NDJSON, ndjson);
+
+        assertThat(errors(lines)).containsExactly("2 alice duplicate username in file", "4 null malformed row");
+        assertThat(userRepository.count()).isEqualTo(2);
+    }
+
+    /**
+     * 100만 명 CSV 등록 처리량 (H2, 본문은 읽는 만큼만 생성)
+     * 해시 비용을 빼고 읽기 / 중복 확인 / batch INSERT 비용만 보기 위해 NoOpPasswordEncoder 사용
+     */
+    @Tag("benchmark")
+    @Test
+    void importsOneMillionUsers() throws Exception {
+        int users = 1_000_000;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long start = System.nanoTime();
+        service(NoOpPasswordEncoder.getInstance(), 1000)
+                .importUsers(new GeneratedCsv(users), UserImportService.Format.CSV, out);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        JsonNode done = objectMapper.readTree(lines[lines.length - 1]);
+        System.out.printf("imported %d users in %d ms (%d rows/s)%n",
+                done.get("imported").asLong(), elapsedMs, users * 1000L / Math.max(1, elapsedMs));
+
+        assertThat(done.get("imported").asLong()).isEqualTo(users);
+        assertThat(lines).hasSize(users / 1000 + 1);
+        assertThat(userRepository.count()).isEqualTo(users);
+    }
+
+    private List<JsonNode> run(UserImportService service, UserImportService.Format format, String body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.importUsers(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format, out);
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    private static List<String> errors(List<JsonNode> lines) {
+        return lines.stream()
+                .filter((line) -> line.get("type").asText().equals("error"))
+                .map((line) -> line.get("line").asLong() + " " + line.get("username").asText() + " " + line.get("message").asText())
+                .toList();
+    }
+
+    // username,password 줄을 읽는 만큼만 만들어내는 본문
+    private static final class GeneratedCsv extends InputStream {
+        private final int rows;
+        private int next;
+        private byte[] line = new byte[0];
+        private int position;
+
+        GeneratedCsv(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read() {
+            if (position == line.length) {
+                if (next == rows) {
+                    return -1;
+                }
+                line = ("user-" + next + ",password-" + next + "\n").getBytes(StandardCharsets.US_ASCII);
+                next++;
+                position = 0;
+            }
+            return line[position++];
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.jwt.service;
+
+import com.example.jwt.dto.JoinDto;
+import com.example.jwt.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.SQL=info",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UsernameExistenceFilterTest {
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void statistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void clear() {
+        jdbcTemplate.execute("truncate table UserEntity");
+    }
+
+    @Test
+    void newUsernamesSkipExistsQuery() {
+        insertUsers(0, 25);
+        UsernameExistenceFilter filter = filter(DataSize.ofMegabytes(1), 1000, 10);
+        assertThat(filter.rebuild()).containsEntry("usernames", 25L);
+        JoinService joinService = joinService(filter);
+
+        // 새 username : INSERT 1번
+        statistics.clear();
+        joinService.join(joinDto("newbie"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(filter.mightExist("newbie")).isTrue();
+        // 자가 가입은 일반 사용자 권한만 (/admin/** 접근 불가)
+        assertThat(userRepository.findByUsername("newbie").getRole()).isEqualTo("ROLE_USER");
+
+        // 이미 있는 username : exists 쿼리로 확인하고 종료
+        statistics.clear();
+        joinService.join(joinDto("user-3"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(userRepository.count()).isEqualTo(26);
+    }
+
+    @Test
+    void concurrentJoinsOfSameUsernameStoreOneUser() throws Exception {
+        UsernameExistenceFilter filter = filter(DataSize.ofMegabytes(1), 1000, 10);
+        filter.rebuild();
+        JoinService joinService = joinService(filter);
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                joinService.join(joinDto("same"));
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+
+        assertThat(userRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void rebuildRespectsMemoryBudget() {
+        insertUsers(0, 5_000);
+        // 8KB 에 fpp 0.01 -> 약 6800 개
+        UsernameExistenceFilter filter = filter(DataSize.ofKilobytes(8), 1_000_000, 1000);
+        Map<String, Object> result = filter.rebuild();
+
+        assertThat(result).containsEntry("usernames", 5_000L).containsEntry("bytes", 8192L);
+        assertThat(filter.byteSize()).isEqualTo(8192);
+        for (int i = 0; i < 5_000; i++) {
+            assertThat(filter.mightExist("user-" + i)).isTrue();
+        }
+    }
+
+    /**
+     * 가입자 500만 명 규모의 filter 로 새 username 가입 처리량 비교
+     * (H2 메모리 DB 에는 20만 명만 넣고 나머지 480만 명은 filter 에만 추가 - 테스트 JVM 메모리 한계)
+     */
+    @Tag("benchmark")
+    @Test
+    void joinThroughputAtFiveMillionUsers() {
+        int stored = 200_000;
+        int total = 5_000_000;
+        insertUsers(0, stored);
+
+        UsernameExistenceFilter filter = filter(DataSize.ofMegabytes(16), total * 2L, 10_000);
+        long loadStart = System.nanoTime();
+        filter.rebuild();
+        long loadMs = (System.nanoTime() - loadStart) / 1_000_000;
+        for (int i = stored; i < total; i++) {
+            filter.add("user-" + i);
+        }
+
+        int falsePositives = 0;
+        int probes = 1_000_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightExist("new-" + i)) {
+                falsePositives++;
+            }
+        }
+        long checkNs = (System.nanoTime() - start) / probes;
+        assertThat(filter.size()).isEqualTo(total);
+
+        double withoutFilter = joinsPerSecond(joinService(null), "plain-");
+        statistics.clear();
+        double withFilter = joinsPerSecond(joinService(filter), "filtered-");
+        long filteredStatements = statistics.getPrepareStatementCount();
+
+        System.out.printf("5M usernames: %d KB, load of %d rows %d ms, check %d ns, fpp %.4f%n",
+                filter.byteSize() / 1024, stored, loadMs, checkNs, (double) falsePositives / probes);
+        System.out.printf("joins/s : exists query %.0f, bloom filter %.0f%n", withoutFilter, withFilter);
+
+        assertThat(filter.byteSize()).isLessThanOrEqualTo(DataSize.ofMegabytes(16).toBytes());
+        assertThat((double) falsePositives / probes).isLessThan(0.02);
+        // 새 username 은 대부분 INSERT 만 (오탐일 때만 exists 쿼리)
+        assertThat(filteredStatements).isLessThan(JOINS + JOINS / 20);
+    }
+
+    private static final int JOINS = 5_000;
+
+    private double joinsPerSecond(JoinService joinService, String prefix) {
+        long start = System.nanoTime();
+        for (int i = 0; i < JOINS; i++) {
+            joinService.join(joinDto(prefix + i));
+        }
+        return JOINS * 1_000_000_000.0 / (System.nanoTime() - start);
+    }
+
+    private UsernameExistenceFilter filter(DataSize maxMemory, long minCapacity, int pageSize) {
+        return new UsernameExistenceFilter(jdbcTemplate, 0.01, maxMemory, minCapacity, pageSize, new SimpleMeterRegistry());
+    }
+
+    private JoinService joinService(UsernameExistenceFilter filter) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        if (filter != null) {
+            beanFactory.addBean("usernameExistenceFilter", filter);
+        }
+        return new JoinService(userRepository, NoOpPasswordEncoder.getInstance(),
+                new UserDetailsCache(100, Duration.ofMinutes(1), Duration.ofSeconds(10), new SimpleMeterRegistry()),
+                beanFactory.getBeanProvider(UsernameExistenceFilter.class));
+    }
+
+    private void insertUsers(int from, int to) {
+        List<Object[]> rows = new ArrayList<>(10_000);
+        for (int i = from; i < to; i++) {
+            rows.add(new Object[]{"user-" + i, "password", "ROLE_USER"});
+            if (rows.size() == 10_000 || i == to - 1) {
+                jdbcTemplate.batchUpdate("insert into UserEntity (username, password, role) values (?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+    }
+
+    private static JoinDto joinDto(String username) {
+        JoinDto joinDto = new JoinDto();
+        joinDto.setUsername(username);
+        joinDto.setPassword("password");
+        return joinDto;
+    }
+}
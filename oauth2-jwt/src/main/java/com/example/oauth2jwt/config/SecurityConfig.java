@@ -76,7 +76,7 @@ public class SecurityConfig {
         // 경로별 인가 작업
         http
                 .authorizeHttpRequests((auth) -> auth
-                        .requestMatchers("/").permitAll()
+                        .requestMatchers("/", "/.well-known/jwks.json").permitAll()
                         .anyRequest().authenticated());
 
         // 세션 설정 STATELESS (JWT 사용하기 때문에)
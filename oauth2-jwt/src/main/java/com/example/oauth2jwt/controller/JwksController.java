@@ -0,0 +1,46 @@
+package com.example.oauth2jwt.controller;
+
+import com.example.oauth2jwt.jwt.SigningKeyRing;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * 서명 검증용 공개 키 (JWK Set, RFC 7517)
+ *
+ * 다른 서비스는 이 응답을 캐시해두고 토큰 헤더의 kid 로 키를 골라 직접 검증한다.
+ *  - Cache-Control: max-age=jwks-max-age (SigningKeyRing 은 새 키를 이보다 먼저 공개)
+ *  - ETag : 키 목록이 바뀔 때만 바뀜, If-None-Match 가 같으면 304
+ *  - 키 링이 비활성(HS256)이면 공개할 키가 없으므로 빈 목록
+ */
+@RestController
+public class JwksController {
+    private static final String EMPTY = "{\"keys\":[]}";
+
+    private final ObjectProvider<SigningKeyRing> keyRing;
+    private final CacheControl cacheControl;
+
+    public JwksController(ObjectProvider<SigningKeyRing> keyRing,
+                          @Value("${spring.jwt.key-ring.jwks-max-age:5m}") Duration maxAge) {
+        this.keyRing = keyRing;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<String> jwks() {
+        SigningKeyRing ring = keyRing.getIfAvailable();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (ring == null) {
+            return response.body(EMPTY);
+        }
+        return response.eTag(ring.jwksETag()).body(ring.jwks());
+    }
+}
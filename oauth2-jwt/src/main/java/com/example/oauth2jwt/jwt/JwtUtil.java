@@ -1,42 +1,105 @@
 package com.example.oauth2jwt.jwt;
 
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.UnsupportedKeyException;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
-import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
 import java.util.Date;
 
+/**
+ * 서명 키
+ *  - 기본 : spring.jwt.secret 으로 HS256
+ *  - spring.jwt.key-ring.enabled : SigningKeyRing 의 ES256 / EdDSA 키로 서명하고 헤더에 kid 기록 (공개 키는 /.well-known/jwks.json)
+ */
 @Component
 public class JwtUtil {
     private final SecretKey secretKey;
+    // 없으면 secret 으로 HS256 서명
+    private final SigningKeyRing keyRing;
+    // JwtParser 는 불변이고 thread-safe 하므로 한 번만 만들어서 공유
+    private final JwtParser jwtParser;
 
-    public JwtUtil(@Value("${spring.jwt.secret}") String secret) {
-       this.secretKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), Jwts.SIG.HS256.key().build().getAlgorithm());
+    public JwtUtil(@Value("${spring.jwt.secret}") String secret, @Nullable SigningKeyRing keyRing) {
+        this.secretKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), Jwts.SIG.HS256.key().build().getAlgorithm());
+        this.keyRing = keyRing;
+        this.jwtParser = keyRing == null
+                ? Jwts.parser().verifyWith(secretKey).build()
+                : Jwts.parser().keyLocator(new KeyRingLocator(keyRing, secretKey)).build();
     }
 
     public String getUsername(String token){
-        return Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload().get("username", String.class);
+        return jwtParser.parseSignedClaims(token).getPayload().get("username", String.class);
     }
 
     public String getRole(String token){
-        return Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload().get("role", String.class);
+        return jwtParser.parseSignedClaims(token).getPayload().get("role", String.class);
     }
 
     public Boolean getExpired(String token){
-        return Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload().getExpiration().before(new Date());
+        return jwtParser.parseSignedClaims(token).getPayload().getExpiration().before(new Date());
     }
 
     public String createJwt(String username, String role, Long expiredMs){
+        if (keyRing == null) {
+            return Jwts.builder()
+                    .claim("username", username)
+                    .claim("role", role)
+                    .issuedAt(new Date(System.currentTimeMillis()))
+                    .expiration(new Date(System.currentTimeMillis() + expiredMs))
+                    .signWith(secretKey)
+                    .compact();
+        }
+
+        SigningKeyRing.SigningKey key = keyRing.signingKey();
         return Jwts.builder()
+                .header().keyId(key.getKid()).and()
                 .claim("username", username)
                 .claim("role", role)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiredMs))
-                .signWith(secretKey)
+                .signWith(key.getPrivateKey(), key.signatureAlgorithm())
                 .compact();
     }
+
+    /**
+     * 헤더의 kid 로 검증 키 선택, 헤더의 alg 와 키의 알고리즘이 다르면 거부
+     * kid 없는 HS256 토큰(전환 전에 발급)은 accept-hmac 일 때만 secret 으로 검증
+     */
+    private static final class KeyRingLocator extends LocatorAdapter<Key> {
+        private final SigningKeyRing keyRing;
+        private final SecretKey secretKey;
+
+        KeyRingLocator(SigningKeyRing keyRing, SecretKey secretKey) {
+            this.keyRing = keyRing;
+            this.secretKey = secretKey;
+        }
+
+        @Override
+        protected Key locate(JwsHeader header) {
+            String kid = header.getKeyId();
+            if (kid == null) {
+                if (keyRing.isAcceptHmac() && "HS256".equals(header.getAlgorithm())) {
+                    return secretKey;
+                }
+                throw new UnsupportedKeyException("token has no kid");
+            }
+            SigningKeyRing.SigningKey key = keyRing.verificationKey(kid);
+            if (key == null) {
+                throw new UnsupportedKeyException("unknown kid: " + kid);
+            }
+            if (!key.getAlgorithm().equals(header.getAlgorithm())) {
+                throw new UnsupportedKeyException("kid " + kid + " is not a " + header.getAlgorithm() + " key");
+            }
+            return key.getPublicKey();
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package com.example.test_security.config;
 
 import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
@@ -9,17 +10,25 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.time.Duration;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    /**
+     * 시작 시 해시 시간을 재서 BCrypt cost 결정 (password-encoder.*)
+     * 기존 해시(다른 cost, 접두사 없는 해시)도 검증하고, 로그인 성공 시 현재 cost 로 다시 저장
+     */
     @Bean
-    public BCryptPasswordEncoder bCryptPasswordEncoder(){
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${password-encoder.target-latency:250ms}") Duration targetLatency,
+                                           @Value("${password-encoder.min-cost:10}") int minCost,
+                                           @Value("${password-encoder.max-cost:16}") int maxCost) {
+        return PasswordEncoderCalibrator.create(PasswordEncoderCalibrator.calibrate(targetLatency, minCost, maxCost));
     }
 
     @Bean
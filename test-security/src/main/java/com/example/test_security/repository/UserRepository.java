@@ -2,9 +2,19 @@ package com.example.test_security.repository;
 
 import com.example.test_security.entity.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
     Boolean existsByUsername(String username);
 
     UserEntity findByUsername(String username);
+
+    // 로그인 시 해시 재저장 (cost 변경)
+    @Transactional
+    @Modifying
+    @Query("update UserEntity u set u.password = :password where u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
 }
@@ -5,13 +5,14 @@ import com.example.test_security.entity.UserEntity;
 import com.example.test_security.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     private final UserRepository userRepository;
 
     @Override
@@ -22,4 +23,16 @@ public class CustomUserDetailsService implements UserDetailsService {
         }
         return null;
     }
+
+    // 로그인 성공 후 저장된 해시가 현재 설정(cost)과 다르면 DaoAuthenticationProvider 가 호출
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserEntity userData = userRepository.findByUsername(user.getUsername());
+        if (userData == null || userRepository.updatePassword(user.getUsername(), newPassword) == 0) {
+            return user;
+        }
+
+        userData.setPassword(newPassword);
+        return new CustomUserDetails(userData);
+    }
 }
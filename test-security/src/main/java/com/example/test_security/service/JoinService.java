@@ -4,14 +4,14 @@ import com.example.test_security.dto.JoinDto;
 import com.example.test_security.entity.UserEntity;
 import com.example.test_security.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
 public class JoinService {
     private final UserRepository userRepository;
-    private final BCryptPasswordEncoder bCryptPasswordEncoder;
+    private final PasswordEncoder passwordEncoder;
 
     public void joinProcess(JoinDto joinDto) {
 
@@ -23,8 +23,8 @@ public class JoinService {
         UserEntity userEntity = new UserEntity();
 
         userEntity.setUsername(joinDto.getUsername());
-        // 비밀번호 DB 저장 시 bcrypt encoder 로 인코딩 후 저장
-        userEntity.setPassword(bCryptPasswordEncoder.encode(joinDto.getPassword()));
+        // 비밀번호 DB 저장 시 bcrypt encoder 로 인코딩 후 저장 ({bcrypt} 접두사 + 서버에 맞춘 cost)
+        userEntity.setPassword(passwordEncoder.encode(joinDto.getPassword()));
         userEntity.setRole("ROLE_ADMIN");
 
         userRepository.save(userEntity);